@@ -13,6 +13,7 @@ import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.SensitivityLevel;
 import io.cloudslang.lang.entities.SystemProperty;
@@ -20,6 +21,7 @@ import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.score.events.ScoreEventListener;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * API for using CloudSlang
@@ -52,6 +54,76 @@ public interface Slang {
             Set<SlangSource> dependencies,
             PrecompileStrategy precompileStrategy);
 
+    /**
+     * Compile every CloudSlang source of a set against the set itself,
+     * modelling each source and building each dependency plan only once
+     *
+     * @param sources            the CloudSlang sources to compile
+     * @param precompileStrategy with / without cache
+     * @return the model (may be partially correct) and the accumulated errors of every source
+     */
+    Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy);
+
+    /**
+     * Compile every CloudSlang source of a set against the set itself,
+     * calling the listener after each source is modelled so that the progress can be reported
+     *
+     * @param sources            the CloudSlang sources to compile
+     * @param precompileStrategy with / without cache
+     * @param precompileListener called with every source once it is modelled, possibly concurrently
+     * @return the model (may be partially correct) and the accumulated errors of every source
+     */
+    Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy,
+            Consumer<SlangSource> precompileListener);
+
+    /**
+     * Compile CloudSlang sources incrementally against the sources compiled by the previous calls,
+     * linking again only the sources that depend on an added, changed or removed source
+     *
+     * @param sources            the added or changed CloudSlang sources
+     * @param removedFilePaths   the file paths of the removed sources
+     * @param precompileStrategy with / without cache
+     * @return the model (may be partially correct) and the accumulated errors of every source linked again
+     */
+    Map<SlangSource, CompilationModellingResult> recompileSources(
+            Set<SlangSource> sources,
+            Set<String> removedFilePaths,
+            PrecompileStrategy precompileStrategy);
+
+    /**
+     * Get the last result of a CloudSlang source compiled by {@link #recompileSources(Set, Set, PrecompileStrategy)}
+     *
+     * @param filePath the file path of the source
+     * @return the model and the accumulated errors, or null if the source was not compiled
+     */
+    CompilationModellingResult getCompiledSource(String filePath);
+
+    /**
+     * Get the CloudSlang source that the last result of {@link #getCompiledSource(String)} was compiled from
+     *
+     * @param filePath the file path of the source
+     * @return the source, or null if the source was not compiled
+     */
+    SlangSource getCompiledSlangSource(String filePath);
+
+    /**
+     * Forget the sources compiled by {@link #recompileSources(Set, Set, PrecompileStrategy)}
+     */
+    void clearCompiledSources();
+
+    /**
+     * Model a CloudSlang source without linking it against its dependencies
+     *
+     * @param source             the CloudSlang source file
+     * @param precompileStrategy with / without cache
+     * @return the model (may be partially correct) and the accumulated errors
+     */
+    ExecutableModellingResult preCompileSource(SlangSource source, PrecompileStrategy precompileStrategy);
+
     /**
      * Extract the metadata of a flow or operation written in CloudSlang
      *
@@ -15,6 +15,7 @@ import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.SensitivityLevel;
@@ -31,6 +32,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -125,6 +127,71 @@ public class SlangImpl implements Slang {
         }
     }
 
+    @Override
+    public Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy) {
+        return compileSources(sources, precompileStrategy, source -> {
+        });
+    }
+
+    @Override
+    public Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy,
+            Consumer<SlangSource> precompileListener) {
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+        Set<SlangSource> slangSources = filterOutNullSources(sources);
+
+        try {
+            return compiler.compileSources(slangSources, precompileStrategy, precompileListener);
+        } catch (Exception e) {
+            logger.error("Failed compilation for sources, Exception is : " + e.getMessage());
+            throw new RuntimeException("Failed compilation for sources, Exception is : " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<SlangSource, CompilationModellingResult> recompileSources(
+            Set<SlangSource> sources,
+            Set<String> removedFilePaths,
+            PrecompileStrategy precompileStrategy) {
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+        Set<SlangSource> slangSources = filterOutNullSources(sources);
+        Set<String> removedPaths = removedFilePaths == null ? new HashSet<String>() : removedFilePaths;
+
+        try {
+            return compiler.recompileSources(slangSources, removedPaths, precompileStrategy);
+        } catch (Exception e) {
+            logger.error("Failed recompilation for sources, Exception is : " + e.getMessage());
+            throw new RuntimeException("Failed recompilation for sources, Exception is : " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompilationModellingResult getCompiledSource(String filePath) {
+        Validate.notNull(filePath, "File path can not be null");
+        return compiler.getCompiledSource(filePath);
+    }
+
+    @Override
+    public SlangSource getCompiledSlangSource(String filePath) {
+        Validate.notNull(filePath, "File path can not be null");
+        return compiler.getCompiledSlangSource(filePath);
+    }
+
+    @Override
+    public void clearCompiledSources() {
+        compiler.clearCompiledSources();
+    }
+
+    @Override
+    public ExecutableModellingResult preCompileSource(SlangSource source, PrecompileStrategy precompileStrategy) {
+        Validate.notNull(source, "Source can not be null");
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+        return compiler.preCompileSource(source, precompileStrategy);
+    }
+
     private Set<SlangSource> filterOutNullSources(Set<SlangSource> dependencies) {
         Set<SlangSource> dependencySources = new HashSet<>();
         if (dependencies != null) {
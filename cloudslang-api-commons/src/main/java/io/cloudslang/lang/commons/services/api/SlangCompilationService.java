@@ -23,10 +23,34 @@ public interface SlangCompilationService {
     List<CompilationModellingResult> compileFolders(final List<String> foldersPaths,
                                                     final CompilationHelper compilationHelper);
 
+    /**
+     * Compile the changed files incrementally, against the files compiled by the previous calls.
+     * Only the changed files and the files depending on a changed or removed file are linked again.
+     *
+     * @param changedFiles      the added or changed files
+     * @param removedFiles      the removed files
+     * @param compilationHelper notified for every file that is linked again
+     * @return the results of the files that were linked again
+     */
+    List<CompilationModellingResult> recompileFiles(final Collection<File> changedFiles,
+                                                    final Collection<File> removedFiles,
+                                                    final CompilationHelper compilationHelper);
+
     File getFile(final String filePath);
 
     Set<SlangSource> getSourcesFromFolders(final List<String> dependencies);
 
+    /**
+     * Find the sources of the executables a source references, directly or through other executables.
+     * The folders are indexed by the ids of the executables declared in their files,
+     * so only the referenced files are loaded and modelled.
+     *
+     * @param source       the source to find the dependencies of
+     * @param dependencies the folders to look for the dependencies in
+     * @return the sources of the referenced executables, and of the executables with the same id as the source
+     */
+    Set<SlangSource> getDependencySources(final SlangSource source, final List<String> dependencies);
+
     // e.g. exclude .prop.sl from .sl set
     Collection<File> listSlangFiles(final File directory, final boolean recursive);
 }
@@ -15,13 +15,21 @@ import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.compiler.Extension;
 import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.TrueFileFilter;
@@ -38,23 +46,24 @@ public class SlangCompilationServiceImpl implements SlangCompilationService {
     @Autowired
     private Slang slang;
 
+    private final SlangSourceIndex sourceIndex = new SlangSourceIndex();
+
     @Override
     public List<CompilationModellingResult> compileFolders(final List<String> foldersPaths,
                                                            final CompilationHelper compilationHelper) {
         List<CompilationModellingResult> results = new ArrayList<>();
         try {
             Set<SlangSource> dependencySources = getSourcesFromFolders(foldersPaths);
+            Set<SlangSource> reportedSources = Collections.newSetFromMap(new ConcurrentHashMap<SlangSource, Boolean>());
+            Map<SlangSource, CompilationModellingResult> compiledSources =
+                    compileSources(dependencySources, reportedSources, compilationHelper);
             for (SlangSource dependencySource : dependencySources) {
                 File file = getFile(dependencySource.getFilePath());
-                compilationHelper.onEveryFile(file);
-                try {
-                    CompilationModellingResult result =
-                            slang.compileSource(dependencySource, dependencySources, PrecompileStrategy.WITH_CACHE);
+                reportProgress(dependencySource, reportedSources, compilationHelper);
+                CompilationModellingResult result = compiledSources.get(dependencySource);
+                if (result != null) {
                     result.setFile(file);
                     results.add(result);
-                } catch (Exception e) {
-                    logger.error("Failed compilation for file : " + file.getName() +
-                            " ,Exception is : " + e.getMessage());
                 }
             }
         } finally {
@@ -64,6 +73,79 @@ public class SlangCompilationServiceImpl implements SlangCompilationService {
         return results;
     }
 
+    /**
+     * Every source is modelled once and linked against the same set, the progress is reported as the sources
+     * are modelled. If the batch fails, the sources are compiled one by one so that the failure is reported
+     * for the files that cause it.
+     */
+    private Map<SlangSource, CompilationModellingResult> compileSources(final Set<SlangSource> sources,
+                                                                        final Set<SlangSource> reportedSources,
+                                                                        final CompilationHelper compilationHelper) {
+        try {
+            return slang.compileSources(sources, PrecompileStrategy.WITH_CACHE,
+                    source -> reportProgress(source, reportedSources, compilationHelper));
+        } catch (Exception e) {
+            logger.error("Failed compilation for sources, compiling them one by one. Exception is : " +
+                    e.getMessage());
+        }
+        Map<SlangSource, CompilationModellingResult> compiledSources = new HashMap<>();
+        for (SlangSource source : sources) {
+            reportProgress(source, reportedSources, compilationHelper);
+            try {
+                compiledSources.put(source, slang.compileSource(source, sources, PrecompileStrategy.WITH_CACHE));
+            } catch (Exception e) {
+                logger.error("Failed compilation for file : " + new File(source.getFilePath()).getName() +
+                        " ,Exception is : " + e.getMessage());
+            }
+        }
+        return compiledSources;
+    }
+
+    private void reportProgress(SlangSource source, Set<SlangSource> reportedSources,
+                                CompilationHelper compilationHelper) {
+        if (reportedSources.add(source)) {
+            compilationHelper.onEveryFile(new File(source.getFilePath()));
+        }
+    }
+
+    @Override
+    public List<CompilationModellingResult> recompileFiles(final Collection<File> changedFiles,
+                                                           final Collection<File> removedFiles,
+                                                           final CompilationHelper compilationHelper) {
+        List<CompilationModellingResult> results = new ArrayList<>();
+        try {
+            Set<SlangSource> changedSources = new HashSet<>();
+            for (File changedFile : changedFiles) {
+                changedSources.add(SlangSource.fromFile(getFile(changedFile.getPath())));
+            }
+            Set<String> removedFilePaths = new HashSet<>();
+            for (File removedFile : removedFiles) {
+                removedFilePaths.add(getCanonicalPath(removedFile));
+            }
+
+            Map<SlangSource, CompilationModellingResult> compiledSources =
+                    slang.recompileSources(changedSources, removedFilePaths, PrecompileStrategy.WITH_CACHE);
+            for (Map.Entry<SlangSource, CompilationModellingResult> compiledSource : compiledSources.entrySet()) {
+                File file = new File(compiledSource.getKey().getFilePath());
+                compilationHelper.onEveryFile(file);
+                CompilationModellingResult result = compiledSource.getValue();
+                result.setFile(file);
+                results.add(result);
+            }
+        } finally {
+            compilationHelper.onCompilationFinish();
+        }
+        return results;
+    }
+
+    private String getCanonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            throw new RuntimeException("There was a problem reading the file path for: " + file.getName(), e);
+        }
+    }
+
     @Override
     public File getFile(final String filePath) {
         Validate.notNull(filePath, "File path can not be null");
@@ -86,6 +168,49 @@ public class SlangCompilationServiceImpl implements SlangCompilationService {
         return dependencySources;
     }
 
+    @Override
+    public Set<SlangSource> getDependencySources(final SlangSource source, final List<String> dependencies) {
+        List<File> folders = new ArrayList<>();
+        for (String dependency : dependencies) {
+            File folder = new File(dependency);
+            Validate.isTrue(folder.isDirectory(), "Parameter '" + folder.getPath() +
+                    INVALID_DIRECTORY_ERROR_MESSAGE_SUFFIX);
+            folders.add(folder);
+        }
+        Map<String, List<File>> filesById = sourceIndex.index(folders);
+
+        Set<SlangSource> dependencySources = new HashSet<>();
+        Set<String> visitedIds = new HashSet<>();
+        Deque<SlangSource> pendingSources = new ArrayDeque<>();
+        pendingSources.add(source);
+        while (!pendingSources.isEmpty()) {
+            SlangSource currentSource = pendingSources.poll();
+            // modelled with cache, so that compiling the source against its dependencies does not model them again
+            Executable executable = slang.preCompileSource(currentSource, PrecompileStrategy.WITH_CACHE)
+                    .getExecutable();
+            if (executable == null) {
+                continue;
+            }
+            Set<String> referencedIds = new HashSet<>(executable.getExecutableDependencies());
+            if (currentSource == source) {
+                // other executables with the id of the source are needed to report them as duplicates
+                referencedIds.add(executable.getId());
+            }
+            for (String referencedId : referencedIds) {
+                String indexKey = SlangSourceIndex.getIndexKey(referencedId);
+                if (visitedIds.add(indexKey) && filesById.containsKey(indexKey)) {
+                    for (File file : filesById.get(indexKey)) {
+                        SlangSource dependencySource = SlangSource.fromFile(file);
+                        if (dependencySources.add(dependencySource)) {
+                            pendingSources.add(dependencySource);
+                        }
+                    }
+                }
+            }
+        }
+        return dependencySources;
+    }
+
     @Override
     public Collection<File> listSlangFiles(File directory, boolean recursive) {
         Validate.isTrue(directory.isDirectory(), "Parameter '" + directory.getPath() +
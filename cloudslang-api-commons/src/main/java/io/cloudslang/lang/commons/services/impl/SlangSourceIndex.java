@@ -0,0 +1,392 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.commons.services.impl;
+
+import io.cloudslang.lang.compiler.Extension;
+import io.cloudslang.lang.compiler.SlangSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Index of CloudSlang files by the id of the executable they declare, read from the namespace and name
+ * headers of the files, so that the sources of a dependency can be found without loading every file.
+ * <p>
+ * The index of every folder is kept in memory and, when {@code cslang.content.index.dir} is set, stored under
+ * {@code <cslang.content.index.dir>/<folder hash>.index} with the size, modification time and content fingerprint
+ * of every file, and the modification time and entries of every directory. A folder is then refreshed by listing
+ * only the directories that changed and reading only the files that changed since the index was stored.
+ * Modification times can be as coarse as seconds, so, as git does for racily clean files, entries modified
+ * shortly before they were indexed are listed or read again.
+ * Every I/O failure of the index file is treated as an empty index, the index never fails a compilation.
+ */
+class SlangSourceIndex {
+
+    static final String INDEX_DIR_PROPERTY = "cslang.content.index.dir";
+    private static final int FORMAT_VERSION = 2;
+    private static final String INDEX_EXTENSION = ".index";
+    private static final String TEMP_EXTENSION = ".tmp";
+    // covers modification times truncated to seconds, or to two seconds on FAT file systems
+    private static final long RACY_MARGIN_MILLIS = 2000;
+
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile("^namespace\\s*:\\s*['\"]?([^'\"#\\s]+)");
+    private static final Pattern EXECUTABLE_PATTERN = Pattern.compile("^(flow|operation|decision)\\s*:");
+    private static final Pattern NAME_PATTERN = Pattern.compile("^(\\s+)name\\s*:\\s*['\"]?([^'\"#\\s]+)");
+    private static final Pattern INDENTATION_PATTERN = Pattern.compile("^(\\s+)[^\\s#]");
+
+    private final File indexDirectory;
+    private final Map<File, FolderIndex> folderIndexes = new HashMap<>();
+
+    SlangSourceIndex() {
+        this(null);
+    }
+
+    /**
+     * @param indexDirectory the directory to store the index files in, null to use {@code cslang.content.index.dir}
+     */
+    SlangSourceIndex(File indexDirectory) {
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * @return the CloudSlang files of the given folders by the lower case id of the executable they declare
+     */
+    synchronized Map<String, List<File>> index(List<File> folders) {
+        Map<String, List<File>> filesById = new HashMap<>();
+        for (File folder : folders) {
+            File canonicalFolder = getCanonicalFile(folder);
+            FolderIndex folderIndex = folderIndexes.get(canonicalFolder);
+            if (folderIndex == null) {
+                folderIndex = load(canonicalFolder);
+            }
+            FolderIndex refreshedIndex = folderIndex.refresh(canonicalFolder);
+            if (refreshedIndex != folderIndex) {
+                store(canonicalFolder, refreshedIndex);
+            }
+            folderIndexes.put(canonicalFolder, refreshedIndex);
+
+            for (Map.Entry<String, FileEntry> fileEntry : refreshedIndex.files.entrySet()) {
+                List<File> filesWithId = filesById.get(fileEntry.getValue().executableId);
+                if (filesWithId == null) {
+                    filesWithId = new ArrayList<>();
+                    filesById.put(fileEntry.getValue().executableId, filesWithId);
+                }
+                filesWithId.add(new File(fileEntry.getKey()));
+            }
+        }
+        return filesById;
+    }
+
+    static String getIndexKey(String executableId) {
+        return executableId.toLowerCase(Locale.ENGLISH);
+    }
+
+    private File getCanonicalFile(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            throw new RuntimeException("There was a problem reading the file path for: " + file.getName(), e);
+        }
+    }
+
+    private File getIndexDirectory() {
+        if (indexDirectory != null) {
+            return indexDirectory;
+        }
+        String indexDirectoryPath = System.getProperty(INDEX_DIR_PROPERTY);
+        return StringUtils.isEmpty(indexDirectoryPath) ? null : new File(indexDirectoryPath);
+    }
+
+    private File getIndexFile(File directory, File folder) {
+        // the folder path is stored in the index as well, a hash collision only costs a refresh
+        return new File(directory, Integer.toHexString(folder.getPath().hashCode()) + INDEX_EXTENSION);
+    }
+
+    private FolderIndex load(File folder) {
+        File directory = getIndexDirectory();
+        if (directory == null) {
+            return new FolderIndex();
+        }
+        File indexFile = getIndexFile(directory, folder);
+        if (!indexFile.isFile()) {
+            return new FolderIndex();
+        }
+        try {
+            // read rather than mapped, a mapped file cannot be replaced on Windows
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+            if (buffer.getInt() != FORMAT_VERSION || !folder.getPath().equals(readString(buffer))) {
+                return new FolderIndex();
+            }
+            FolderIndex folderIndex = new FolderIndex(buffer.getLong());
+            int directoryCount = buffer.getInt();
+            for (int i = 0; i < directoryCount; i++) {
+                String path = readString(buffer);
+                long lastModified = buffer.getLong();
+                List<String> subdirectories = readStrings(buffer);
+                List<String> slangFiles = readStrings(buffer);
+                folderIndex.directories.put(path, new DirectoryEntry(lastModified, subdirectories, slangFiles));
+            }
+            int fileCount = buffer.getInt();
+            for (int i = 0; i < fileCount; i++) {
+                String path = readString(buffer);
+                long length = buffer.getLong();
+                long lastModified = buffer.getLong();
+                String fingerprint = readString(buffer);
+                String executableId = readString(buffer);
+                folderIndex.files.put(path, new FileEntry(length, lastModified, fingerprint, executableId));
+            }
+            return folderIndex;
+        } catch (IOException | RuntimeException ex) {
+            // corrupted or truncated, the folder is indexed again
+            return new FolderIndex();
+        }
+    }
+
+    private void store(File folder, FolderIndex folderIndex) {
+        File directory = getIndexDirectory();
+        if (directory == null) {
+            return;
+        }
+        File indexFile = getIndexFile(directory, folder);
+        File tempFile = new File(indexFile.getPath() + "." + Thread.currentThread().getId() + TEMP_EXTENSION);
+        try {
+            FileUtils.forceMkdir(directory);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, folder.getPath());
+                out.writeLong(folderIndex.indexTime);
+                out.writeInt(folderIndex.directories.size());
+                for (Map.Entry<String, DirectoryEntry> directoryEntry : folderIndex.directories.entrySet()) {
+                    writeString(out, directoryEntry.getKey());
+                    out.writeLong(directoryEntry.getValue().lastModified);
+                    writeStrings(out, directoryEntry.getValue().subdirectories);
+                    writeStrings(out, directoryEntry.getValue().slangFiles);
+                }
+                out.writeInt(folderIndex.files.size());
+                for (Map.Entry<String, FileEntry> fileEntry : folderIndex.files.entrySet()) {
+                    writeString(out, fileEntry.getKey());
+                    out.writeLong(fileEntry.getValue().length);
+                    out.writeLong(fileEntry.getValue().lastModified);
+                    writeString(out, fileEntry.getValue().fingerprint);
+                    writeString(out, fileEntry.getValue().executableId);
+                }
+            }
+            try {
+                Files.move(tempFile.toPath(), indexFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException ignore) {
+            // best effort: an index that cannot be written is built again next time
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(buffer));
+        }
+        return values;
+    }
+
+    private static String readExecutableId(File file, String content) {
+        String namespace = null;
+        String name = null;
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            boolean inExecutable = false;
+            String executableIndentation = null;
+            String line = reader.readLine();
+            while (line != null && name == null) {
+                Matcher namespaceMatcher = NAMESPACE_PATTERN.matcher(line);
+                if (namespaceMatcher.find()) {
+                    namespace = namespaceMatcher.group(1);
+                } else if (EXECUTABLE_PATTERN.matcher(line).find()) {
+                    inExecutable = true;
+                } else if (inExecutable) {
+                    // the name is one of the keys directly under the flow, operation or decision
+                    Matcher indentationMatcher = INDENTATION_PATTERN.matcher(line);
+                    if (executableIndentation == null && indentationMatcher.find()) {
+                        executableIndentation = indentationMatcher.group(1);
+                    }
+                    Matcher nameMatcher = NAME_PATTERN.matcher(line);
+                    if (nameMatcher.find() && nameMatcher.group(1).equals(executableIndentation)) {
+                        name = nameMatcher.group(2);
+                    }
+                }
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("There was a problem reading the file: " + file.getName(), e);
+        }
+        if (name == null) {
+            name = Extension.removeExtension(file.getName());
+        }
+        return getIndexKey(namespace == null ? name : namespace + "." + name);
+    }
+
+    private static class FolderIndex {
+
+        private final long indexTime;
+        private final Map<String, DirectoryEntry> directories = new HashMap<>();
+        private final Map<String, FileEntry> files = new HashMap<>();
+        private boolean changed;
+
+        FolderIndex() {
+            this(0L);
+        }
+
+        /**
+         * @param indexTime the time before the entries were read from the folder
+         */
+        FolderIndex(long indexTime) {
+            this.indexTime = indexTime;
+        }
+
+        /**
+         * @return this index if nothing changed in the folder, a new index otherwise
+         */
+        FolderIndex refresh(File folder) {
+            FolderIndex refreshedIndex = new FolderIndex(System.currentTimeMillis());
+            refreshDirectory(folder, refreshedIndex);
+            boolean unchanged = !refreshedIndex.changed && refreshedIndex.directories.size() == directories.size() &&
+                    refreshedIndex.files.size() == files.size();
+            return unchanged ? this : refreshedIndex;
+        }
+
+        private void refreshDirectory(File directory, FolderIndex refreshedIndex) {
+            String path = directory.getPath();
+            long lastModified = directory.lastModified();
+            DirectoryEntry directoryEntry = directories.get(path);
+            if (directoryEntry == null || directoryEntry.lastModified != lastModified ||
+                    isRacy(directoryEntry.lastModified)) {
+                // entries were added, removed or renamed in the directory
+                directoryEntry = listDirectory(directory, lastModified);
+                refreshedIndex.changed = true;
+            }
+            refreshedIndex.directories.put(path, directoryEntry);
+
+            for (String slangFile : directoryEntry.slangFiles) {
+                refreshFile(new File(directory, slangFile), refreshedIndex);
+            }
+            for (String subdirectory : directoryEntry.subdirectories) {
+                refreshDirectory(new File(directory, subdirectory), refreshedIndex);
+            }
+        }
+
+        private void refreshFile(File file, FolderIndex refreshedIndex) {
+            String path = file.getPath();
+            long length = file.length();
+            long lastModified = file.lastModified();
+            FileEntry fileEntry = files.get(path);
+            if (fileEntry == null || fileEntry.length != length || fileEntry.lastModified != lastModified ||
+                    isRacy(fileEntry.lastModified)) {
+                SlangSource source = SlangSource.fromFile(file);
+                String fingerprint = source.getContentFingerprint();
+                String executableId = fileEntry != null && fileEntry.fingerprint.equals(fingerprint) ?
+                        fileEntry.executableId : readExecutableId(file, source.getContent());
+                fileEntry = new FileEntry(length, lastModified, fingerprint, executableId);
+                refreshedIndex.changed = true;
+            }
+            refreshedIndex.files.put(path, fileEntry);
+        }
+
+        /**
+         * An entry modified shortly before it was indexed can be modified again without changing its time,
+         * it is checked until an index stored later proves it clean.
+         */
+        private boolean isRacy(long lastModified) {
+            return lastModified >= indexTime - RACY_MARGIN_MILLIS;
+        }
+
+        private DirectoryEntry listDirectory(File directory, long lastModified) {
+            List<String> subdirectories = new ArrayList<>();
+            List<String> slangFiles = new ArrayList<>();
+            File[] children = directory.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    if (child.isDirectory()) {
+                        subdirectories.add(child.getName());
+                    } else if (Extension.SL == Extension.findExtension(child.getName())) {
+                        slangFiles.add(child.getName());
+                    }
+                }
+            }
+            return new DirectoryEntry(lastModified, subdirectories, slangFiles);
+        }
+    }
+
+    private static class DirectoryEntry {
+
+        private final long lastModified;
+        private final List<String> subdirectories;
+        private final List<String> slangFiles;
+
+        DirectoryEntry(long lastModified, List<String> subdirectories, List<String> slangFiles) {
+            this.lastModified = lastModified;
+            this.subdirectories = subdirectories;
+            this.slangFiles = slangFiles;
+        }
+    }
+
+    private static class FileEntry {
+
+        private final long length;
+        private final long lastModified;
+        private final String fingerprint;
+        private final String executableId;
+
+        FileEntry(long length, long lastModified, String fingerprint, String executableId) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.fingerprint = fingerprint;
+            this.executableId = executableId;
+        }
+    }
+}
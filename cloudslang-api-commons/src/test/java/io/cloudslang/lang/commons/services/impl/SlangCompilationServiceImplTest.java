@@ -14,15 +14,27 @@ import io.cloudslang.lang.commons.services.api.CompilationHelper;
 import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import java.io.File;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,11 +43,16 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @ContextConfiguration(classes = SlangCompilationServiceImplTest.Config.class)
@@ -50,6 +67,11 @@ public class SlangCompilationServiceImplTest {
     @Autowired
     private Slang slang;
 
+    @Before
+    public void setUp() {
+        reset(slang, compilationHelper);
+    }
+
     @Test
     public void testLoadInputsFromFile() throws URISyntaxException {
         File folder = new File(getClass().getResource("/executables").toURI().getPath());
@@ -79,12 +101,149 @@ public class SlangCompilationServiceImplTest {
         inOrderHelper.verifyNoMoreInteractions();
 
         InOrder inOrder = inOrder(slang);
-        inOrder.verify(slang, atLeastOnce()).compileSource(
-                any(SlangSource.class), any(Set.class), eq(PrecompileStrategy.WITH_CACHE));
+        inOrder.verify(slang).compileSources(any(Set.class), eq(PrecompileStrategy.WITH_CACHE),
+                any(Consumer.class));
         inOrder.verify(slang).invalidateAllInPreCompileCache();
         inOrder.verifyNoMoreInteractions();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompileFoldersReportsProgressWhileModelling() throws Exception {
+        when(slang.compileSources(anySetOf(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE),
+                any(Consumer.class)))
+                .thenAnswer(new Answer<Map<SlangSource, CompilationModellingResult>>() {
+                    @Override
+                    public Map<SlangSource, CompilationModellingResult> answer(InvocationOnMock invocation) {
+                        Set<SlangSource> sources = (Set<SlangSource>) invocation.getArguments()[0];
+                        Consumer<SlangSource> listener = (Consumer<SlangSource>) invocation.getArguments()[2];
+                        Map<SlangSource, CompilationModellingResult> results = new HashMap<>();
+                        for (SlangSource source : sources) {
+                            listener.accept(source);
+                            results.put(source, new CompilationModellingResult(null,
+                                    new ArrayList<RuntimeException>()));
+                        }
+                        // every file is reported before the batch returns
+                        verify(compilationHelper, times(sources.size())).onEveryFile(any(File.class));
+                        return results;
+                    }
+                });
+
+        List<CompilationModellingResult> results = slangCompilationService.compileFolders(
+                Collections.singletonList(getClass().getResource("/executables").toURI().getPath()),
+                compilationHelper);
+
+        assertEquals(4, results.size());
+        verify(compilationHelper, times(4)).onEveryFile(any(File.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompileFoldersCompilesFilesOneByOneWhenBatchFails() throws Exception {
+        final File failingFile = new File(getClass().getResource("/executables/dir2/flowprop.sl").toURI());
+        when(slang.compileSources(anySetOf(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE),
+                any(Consumer.class)))
+                .thenThrow(new RuntimeException("batch failure"));
+        when(slang.compileSource(any(SlangSource.class), anySetOf(SlangSource.class),
+                eq(PrecompileStrategy.WITH_CACHE)))
+                .thenAnswer(new Answer<CompilationModellingResult>() {
+                    @Override
+                    public CompilationModellingResult answer(InvocationOnMock invocation) {
+                        SlangSource source = (SlangSource) invocation.getArguments()[0];
+                        if (failingFile.getName().equals(new File(source.getFilePath()).getName())) {
+                            throw new RuntimeException("file failure");
+                        }
+                        return new CompilationModellingResult(null, new ArrayList<RuntimeException>());
+                    }
+                });
+
+        List<CompilationModellingResult> results = slangCompilationService.compileFolders(
+                Collections.singletonList(getClass().getResource("/executables").toURI().getPath()),
+                compilationHelper);
+
+        assertEquals(3, results.size());
+        verify(slang, times(4)).compileSource(any(SlangSource.class), anySetOf(SlangSource.class),
+                eq(PrecompileStrategy.WITH_CACHE));
+        verify(compilationHelper, times(4)).onEveryFile(any(File.class));
+        verify(compilationHelper).onCompilationFinish();
+    }
+
+    @Test
+    public void testRecompileFiles() throws Exception {
+        File changedFile = new File(getClass().getResource("/executables/dir1/flow2.sl").toURI());
+        File removedFile = new File(changedFile.getParentFile(), "removed_flow.sl");
+        SlangSource changedSource = SlangSource.fromFile(changedFile);
+        CompilationModellingResult compilationResult =
+                new CompilationModellingResult(null, new ArrayList<RuntimeException>());
+        when(slang.recompileSources(anySetOf(SlangSource.class), anySetOf(String.class),
+                eq(PrecompileStrategy.WITH_CACHE)))
+                .thenReturn(Collections.singletonMap(changedSource, compilationResult));
+
+        List<CompilationModellingResult> results = slangCompilationService.recompileFiles(
+                Collections.singletonList(changedFile), Collections.singletonList(removedFile), compilationHelper);
+
+        assertEquals(Collections.singletonList(compilationResult), results);
+        assertEquals(changedFile.getCanonicalFile(), compilationResult.getFile().getCanonicalFile());
+        verify(slang).recompileSources(Collections.singleton(changedSource),
+                Collections.singleton(removedFile.getCanonicalPath()), PrecompileStrategy.WITH_CACHE);
+        verify(slang, never()).invalidateAllInPreCompileCache();
+
+        InOrder inOrderHelper = inOrder(compilationHelper);
+        inOrderHelper.verify(compilationHelper).onEveryFile(any(File.class));
+        inOrderHelper.verify(compilationHelper).onCompilationFinish();
+        inOrderHelper.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testGetDependencySourcesModelsOnlyReferencedFiles() throws Exception {
+        mockPreCompileSource();
+        File opFile = new File(getClass().getResource("/executables/dir3/dir3_1/test_op.sl").toURI());
+        File flowFile = new File(getClass().getResource("/executables/dir3/flow.sl").toURI());
+        SlangSource opSource = SlangSource.fromFile(opFile);
+
+        Set<SlangSource> dependencySources = slangCompilationService.getDependencySources(opSource,
+                Collections.singletonList(getClass().getResource("/executables").toURI().getPath()));
+
+        assertEquals(Collections.singleton(opSource), dependencySources);
+        verify(slang, never()).preCompileSource(eq(SlangSource.fromFile(flowFile)), any(PrecompileStrategy.class));
+    }
+
+    @Test
+    public void testGetDependencySourcesFollowsReferences() throws Exception {
+        mockPreCompileSource();
+        File opFile = new File(getClass().getResource("/executables/dir3/dir3_1/test_op.sl").toURI());
+        File flowFile = new File(getClass().getResource("/executables/dir3/flow.sl").toURI());
+        File otherFlowFile = new File(getClass().getResource("/executables/dir1/flow2.sl").toURI());
+        File propFlowFile = new File(getClass().getResource("/executables/dir2/flowprop.sl").toURI());
+
+        Set<SlangSource> dependencySources = slangCompilationService.getDependencySources(
+                SlangSource.fromFile(flowFile),
+                Collections.singletonList(getClass().getResource("/executables").toURI().getPath()));
+
+        // the other files declaring basic_flow are kept so that the compiler reports them as duplicates
+        assertEquals(new HashSet<>(Arrays.asList(SlangSource.fromFile(opFile), SlangSource.fromFile(flowFile),
+                SlangSource.fromFile(otherFlowFile), SlangSource.fromFile(propFlowFile))), dependencySources);
+    }
+
+    private void mockPreCompileSource() {
+        when(slang.preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE)))
+                .thenAnswer(new Answer<ExecutableModellingResult>() {
+                    @Override
+                    public ExecutableModellingResult answer(InvocationOnMock invocation) {
+                        SlangSource source = (SlangSource) invocation.getArguments()[0];
+                        Executable executable = mock(Executable.class);
+                        if (source.getContent().contains("flow:")) {
+                            when(executable.getId()).thenReturn("user.ops.basic_flow");
+                            when(executable.getExecutableDependencies()).thenReturn(Collections.singleton("user.ops.test_op"));
+                        } else {
+                            when(executable.getId()).thenReturn("user.ops.test_op");
+                            when(executable.getExecutableDependencies()).thenReturn(new HashSet<String>());
+                        }
+                        return new ExecutableModellingResult(executable, new ArrayList<RuntimeException>());
+                    }
+                });
+    }
+
     @Configuration
     static class Config {
 
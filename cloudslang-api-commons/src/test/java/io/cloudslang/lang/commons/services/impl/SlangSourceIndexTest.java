@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.commons.services.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SlangSourceIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File contentFolder;
+    private File indexDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        contentFolder = temporaryFolder.newFolder("content").getCanonicalFile();
+        indexDirectory = temporaryFolder.newFolder("index");
+    }
+
+    @Test
+    public void testIndexByDeclaredId() throws IOException {
+        File flowFile = writeExecutable("flows/some_flow.sl", "user.flows", "flow", "some_flow");
+        File opFile = writeExecutable("ops/renamed_op.sl", "user.ops", "operation", "some_op");
+
+        Map<String, List<File>> filesById = index(new SlangSourceIndex(indexDirectory));
+
+        assertEquals(2, filesById.size());
+        assertEquals(Collections.singletonList(flowFile), filesById.get("user.flows.some_flow"));
+        assertEquals(Collections.singletonList(opFile), filesById.get("user.ops.some_op"));
+    }
+
+    @Test
+    public void testIndexIsStoredAndReused() throws IOException {
+        File flowFile = writeExecutable("some_flow.sl", "user.flows", "flow", "some_flow");
+        index(new SlangSourceIndex(indexDirectory));
+        assertEquals(1, indexDirectory.listFiles().length);
+
+        Map<String, List<File>> filesById = index(new SlangSourceIndex(indexDirectory));
+
+        assertEquals(Collections.singletonList(flowFile), filesById.get("user.flows.some_flow"));
+    }
+
+    @Test
+    public void testStoredIndexIsRefreshed() throws IOException {
+        File flowFile = writeExecutable("some_flow.sl", "user.flows", "flow", "some_flow");
+        File opFile = writeExecutable("ops/some_op.sl", "user.ops", "operation", "some_op");
+        index(new SlangSourceIndex(indexDirectory));
+
+        writeExecutable("some_flow.sl", "user.other_flows", "flow", "some_flow");
+        assertTrue(flowFile.setLastModified(flowFile.lastModified() + 2000));
+        assertTrue(opFile.delete());
+        File newOpFile = writeExecutable("ops/new/new_op.sl", "user.ops", "operation", "new_op");
+
+        Map<String, List<File>> filesById = index(new SlangSourceIndex(indexDirectory));
+
+        assertNull(filesById.get("user.flows.some_flow"));
+        assertEquals(Collections.singletonList(flowFile), filesById.get("user.other_flows.some_flow"));
+        assertFalse(filesById.containsKey("user.ops.some_op"));
+        assertEquals(Collections.singletonList(newOpFile), filesById.get("user.ops.new_op"));
+    }
+
+    @Test
+    public void testRacilyIndexedEntriesAreRefreshed() throws IOException {
+        File flowFile = writeExecutable("some_flow.sl", "user.flows", "flow", "some_flow");
+        long folderLastModified = contentFolder.lastModified();
+        long flowLastModified = flowFile.lastModified();
+        index(new SlangSourceIndex(indexDirectory));
+
+        // changes within the same second as the indexing keep the size and modification times
+        File opFile = writeExecutable("some_op.sl", "user.ops", "operation", "some_op");
+        writeExecutable("some_flow.sl", "user.other", "flow", "some_flow");
+        assertTrue(flowFile.setLastModified(flowLastModified));
+        assertTrue(contentFolder.setLastModified(folderLastModified));
+
+        Map<String, List<File>> filesById = index(new SlangSourceIndex(indexDirectory));
+
+        assertNull(filesById.get("user.flows.some_flow"));
+        assertEquals(Collections.singletonList(flowFile), filesById.get("user.other.some_flow"));
+        assertEquals(Collections.singletonList(opFile), filesById.get("user.ops.some_op"));
+    }
+
+    @Test
+    public void testCorruptedIndexIsIgnored() throws IOException {
+        File flowFile = writeExecutable("some_flow.sl", "user.flows", "flow", "some_flow");
+        index(new SlangSourceIndex(indexDirectory));
+        FileUtils.writeStringToFile(indexDirectory.listFiles()[0], "corrupted", StandardCharsets.UTF_8);
+
+        Map<String, List<File>> filesById = index(new SlangSourceIndex(indexDirectory));
+
+        assertEquals(Collections.singletonList(flowFile), filesById.get("user.flows.some_flow"));
+    }
+
+    private Map<String, List<File>> index(SlangSourceIndex sourceIndex) {
+        return sourceIndex.index(Collections.singletonList(contentFolder));
+    }
+
+    private File writeExecutable(String path, String namespace, String type, String name) throws IOException {
+        File file = new File(contentFolder, path);
+        FileUtils.writeStringToFile(file, "namespace: " + namespace + "\n\n" +
+                type + ":\n" +
+                "  name: " + name + "\n" +
+                "  inputs:\n" +
+                "    - name: input1\n", StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -12,9 +12,11 @@ package io.cloudslang.lang.cli;
 import com.google.common.collect.Lists;
 import io.cloudslang.lang.cli.services.ScoreServices;
 import io.cloudslang.lang.cli.utils.CompilerHelper;
+import io.cloudslang.lang.cli.utils.ContentWatcher;
 import io.cloudslang.lang.cli.utils.MetadataHelper;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.CompilationArtifactBundle;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
@@ -75,6 +77,15 @@ public class SlangCli implements CommandMarker {
     private static final String CSLANG_VERSION_HELP = "Prints the CloudSlang version used";
     private static final String INPUTS_COMMAND_HELP = "Get flow inputs";
     private static final String PATH_TO_FILENAME_HELP = "Path to filename. e.g. /path/to/file.sl";
+    private static final String WATCH_HELP = "Compile directories and keep them compiled while they change, " +
+            "run and compile use the compiled content for files in the directories when no other classpath is given";
+    private static final String UNWATCH_HELP = "Stop watching the directories given to the watch command";
+    private static final String BUNDLE_HELP = "Compile directories to a bundle that can be run without compiling, " +
+            "e.g. bundle --d c:/.../your_directory --o c:/.../content.csb";
+    private static final String BUNDLE_FILE_HELP = "Path to a bundle written by the bundle command, " +
+            "e.g. run --b c:/.../content.csb --e io.cloudslang.your_flow";
+    private static final String EXECUTABLE_HELP = "Id of the executable to run from the bundle, " +
+            "optional when the bundle contains a single executable";
     private static final String QUIET = "quiet";
     private static final String DEBUG = "debug";
     private static final String DEFAULT = "default";
@@ -88,6 +99,9 @@ public class SlangCli implements CommandMarker {
     @Autowired
     private MetadataHelper metadataHelper;
 
+    @Autowired
+    private ContentWatcher contentWatcher;
+
     @org.springframework.beans.factory.annotation.Value("${slang.version}")
     private String slangVersion;
 
@@ -98,9 +112,12 @@ public class SlangCli implements CommandMarker {
 
     @CliCommand(value = "run", help = RUN_HELP)
     public String run(
-            @CliOption(key = {"", "f", "file"}, mandatory = true, help = FILE_HELP) final File file,
+            @CliOption(key = {"", "f", "file"}, mandatory = false, help = FILE_HELP) final File file,
             @CliOption(key = {"cp", "classpath"}, mandatory = false, help = CLASSPATH_HELP)
             final List<String> classPath,
+            @CliOption(key = {"b", "bundle"}, mandatory = false, help = BUNDLE_FILE_HELP) final File bundle,
+            @CliOption(key = {"e", "executable"}, mandatory = false, help = EXECUTABLE_HELP)
+            final String executableId,
             @CliOption(key = {"i", "inputs"}, mandatory = false, help = INPUTS_HELP)
             final Map<String, ? extends Serializable> inputs,
             @CliOption(key = {"if", "input-file"}, mandatory = false, help = INPUT_FILE_HELP)
@@ -115,7 +132,15 @@ public class SlangCli implements CommandMarker {
             throw new IllegalArgumentException("Verbose argument is invalid.");
         }
 
-        CompilationArtifact compilationArtifact = compilerHelper.compile(file.getAbsolutePath(), classPath);
+        CompilationArtifact compilationArtifact;
+        if (bundle != null) {
+            compilationArtifact = loadFromBundle(bundle, executableId);
+        } else if (file != null) {
+            compilationArtifact = compilerHelper.compile(file.getAbsolutePath(), classPath);
+        } else {
+            throw new IllegalArgumentException("You should specify file(otherwise known as option 'f') " +
+                    "or bundle(otherwise known as option 'b').");
+        }
         Set<SystemProperty> systemProperties = compilerHelper.loadSystemProperties(systemPropertyFiles);
         Map<String, Value> inputsFromFile = compilerHelper.loadInputsFromFile(inputFiles);
         Map<String, Value> mergedInputs = new HashMap<>();
@@ -141,6 +166,24 @@ public class SlangCli implements CommandMarker {
         return quiet ? StringUtils.EMPTY : triggerAsyncMsg(id, compilationArtifact.getExecutionPlan().getName());
     }
 
+    private CompilationArtifact loadFromBundle(File bundle, String executableId) {
+        Map<String, CompilationArtifact> artifacts = CompilationArtifactBundle.read(bundle);
+        if (executableId == null) {
+            if (artifacts.size() != 1) {
+                throw new IllegalArgumentException("Bundle " + bundle.getName() + " contains " + artifacts.size() +
+                        " executables, you should specify the executable(otherwise known as option 'e') " +
+                        "to run: " + artifacts.keySet());
+            }
+            return artifacts.values().iterator().next();
+        }
+        CompilationArtifact compilationArtifact = artifacts.get(executableId);
+        if (compilationArtifact == null) {
+            throw new IllegalArgumentException("Executable " + executableId + " was not found in bundle " +
+                    bundle.getName());
+        }
+        return compilationArtifact;
+    }
+
     private boolean invalidVerboseInput(String verbose) {
         String[] validArguments = {DEFAULT, QUIET, DEBUG};
         return !Arrays.asList(validArguments).contains(verbose.toLowerCase());
@@ -198,6 +241,53 @@ public class SlangCli implements CommandMarker {
         return StringUtils.trim(stringBuilder.toString());
     }
 
+    @CliCommand(value = "bundle", help = BUNDLE_HELP)
+    public String bundle(
+            @CliOption(key = {"", "d", "directory"}, mandatory = true,
+                    help = "Path to directory. e.g. bundle --d c:/.../your_directory")
+            final List<String> directories,
+            @CliOption(key = {"o", "output"}, mandatory = true,
+                    help = "Path of the bundle to write. e.g. bundle --o c:/.../content.csb") final File output) {
+        List<CompilationModellingResult> results = compilerHelper.compileFolders(directories);
+        if (results.isEmpty()) {
+            return "No files were found to compile.";
+        }
+        // fails with the compile errors, if any
+        printAllCompileErrors(results);
+
+        List<CompilationArtifact> artifacts = new ArrayList<>(results.size());
+        for (CompilationModellingResult result : results) {
+            artifacts.add(result.getCompilationArtifact());
+        }
+        CompilationArtifactBundle.write(artifacts, output);
+        return "Bundled " + artifacts.size() + " executables to " + output.getAbsolutePath();
+    }
+
+    @CliCommand(value = "watch", help = WATCH_HELP)
+    public String watch(
+            @CliOption(key = {"", "d", "directory"}, mandatory = true,
+                    help = "Path to directory. e.g. watch --d c:/.../your_directory")
+            final List<String> directories) {
+        List<CompilationModellingResult> results = contentWatcher.watch(directories);
+        int filesWithErrors = 0;
+        for (CompilationModellingResult result : results) {
+            if (CollectionUtils.isNotEmpty(result.getErrors())) {
+                filesWithErrors++;
+            }
+        }
+        return "Watching " + results.size() + " files in " + contentWatcher.getContentRoots() +
+                ", files with compile errors: " + filesWithErrors;
+    }
+
+    @CliCommand(value = "unwatch", help = UNWATCH_HELP)
+    public String unwatch() {
+        if (!contentWatcher.isWatching()) {
+            return "No directories are watched.";
+        }
+        contentWatcher.stop();
+        return "Stopped watching.";
+    }
+
     @CliCommand(value = "inspect", help = "Display metadata about an executable")
     public String inspectExecutable(
             @CliOption(key = {"", "f", "file"}, mandatory = true, help = PATH_TO_FILENAME_HELP)
@@ -240,10 +330,21 @@ public class SlangCli implements CommandMarker {
 
     @CliCommand(value = "inputs", help = INPUTS_COMMAND_HELP)
     public List<String> getFlowInputs(
-            @CliOption(key = {"", "f", "file"}, mandatory = true, help = FILE_HELP) final File file,
+            @CliOption(key = {"", "f", "file"}, mandatory = false, help = FILE_HELP) final File file,
             @CliOption(key = {"cp", "classpath"}, mandatory = false, help = CLASSPATH_HELP)
-            final List<String> classPath) {
-        CompilationArtifact compilationArtifact = compilerHelper.compile(file.getAbsolutePath(), classPath);
+            final List<String> classPath,
+            @CliOption(key = {"b", "bundle"}, mandatory = false, help = BUNDLE_FILE_HELP) final File bundle,
+            @CliOption(key = {"e", "executable"}, mandatory = false, help = EXECUTABLE_HELP)
+            final String executableId) {
+        CompilationArtifact compilationArtifact;
+        if (bundle != null) {
+            compilationArtifact = loadFromBundle(bundle, executableId);
+        } else if (file != null) {
+            compilationArtifact = compilerHelper.compile(file.getAbsolutePath(), classPath);
+        } else {
+            throw new IllegalArgumentException("You should specify file(otherwise known as option 'f') " +
+                    "or bundle(otherwise known as option 'b').");
+        }
         List<Input> inputs = compilationArtifact.getInputs();
         List<String> inputsResult = new ArrayList<>();
         for (Input input : inputs) {
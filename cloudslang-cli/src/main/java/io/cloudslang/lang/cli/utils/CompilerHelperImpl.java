@@ -15,6 +15,7 @@ import io.cloudslang.lang.commons.services.api.CompilationHelper;
 import io.cloudslang.lang.commons.services.api.SlangCompilationService;
 import io.cloudslang.lang.commons.services.api.SlangSourceService;
 import io.cloudslang.lang.compiler.Extension;
+import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
@@ -72,12 +73,24 @@ public class CompilerHelperImpl implements CompilerHelper {
     @Autowired
     private SlangCompilationService slangCompilationService;
 
+    @Autowired
+    private ContentWatcher contentWatcher;
+
     @Override
     public CompilationArtifact compile(String filePath, List<String> dependencies) {
         File file = slangCompilationService.getFile(filePath);
 
         try {
-            return slang.compile(SlangSource.fromFile(file), getDependencySources(dependencies, file));
+            CompilationModellingResult watchedResult = contentWatcher.getCompiledSource(file, dependencies);
+            if (watchedResult != null) {
+                if (CollectionUtils.isNotEmpty(watchedResult.getErrors())) {
+                    throw watchedResult.getErrors().get(0);
+                }
+                return watchedResult.getCompilationArtifact();
+            }
+            SlangSource source = SlangSource.fromFile(file);
+            return slang.compile(source, getDependencySources(dependencies, source, file),
+                    PrecompileStrategy.WITH_CACHE);
         } catch (Exception e) {
             handleException(file, e);
             return null;
@@ -88,7 +101,13 @@ public class CompilerHelperImpl implements CompilerHelper {
     public CompilationModellingResult compileSource(String filePath, List<String> dependencies) {
         File file = slangCompilationService.getFile(filePath);
         try {
-            return slang.compileSource(SlangSource.fromFile(file), getDependencySources(dependencies, file));
+            CompilationModellingResult watchedResult = contentWatcher.getCompiledSource(file, dependencies);
+            if (watchedResult != null) {
+                return watchedResult;
+            }
+            SlangSource source = SlangSource.fromFile(file);
+            return slang.compileSource(source, getDependencySources(dependencies, source, file),
+                    PrecompileStrategy.WITH_CACHE);
         } catch (Exception e) {
             handleException(file, e);
             return null;
@@ -120,9 +139,9 @@ public class CompilerHelperImpl implements CompilerHelper {
                 Extension.getYamlFileExtensionValues(), inputsRelativePath);
     }
 
-    private Set<SlangSource> getDependencySources(List<String> dependencies, File file) {
+    private Set<SlangSource> getDependencySources(List<String> dependencies, SlangSource source, File file) {
         dependencies = getDependenciesIfEmpty(dependencies, file);
-        return slangCompilationService.getSourcesFromFolders(dependencies);
+        return slangCompilationService.getDependencySources(source, dependencies);
     }
 
     private List<String> getDependenciesIfEmpty(List<String> dependencies, File file) {
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.cli.utils;
+
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the content of a set of directories compiled while it changes.
+ * The directories are watched for file system changes, and only the touched files and the files depending on them
+ * are compiled again, so commands of the session can use the compiled artifacts directly.
+ */
+public interface ContentWatcher {
+
+    /**
+     * Compile the content of the directories and start watching them. A previous watch is stopped.
+     *
+     * @param directories the content roots
+     * @return the results of the initial compilation
+     */
+    List<CompilationModellingResult> watch(List<String> directories);
+
+    /**
+     * Stop watching and forget the compiled content.
+     */
+    void stop();
+
+    boolean isWatching();
+
+    /**
+     * @return the canonical paths of the watched content roots, empty if not watching
+     */
+    Set<String> getContentRoots();
+
+    /**
+     * Get the compiled result of a watched file. Changes that were not handled yet are handled first.
+     *
+     * @param file         the CloudSlang file
+     * @param dependencies the dependency directories requested for the compilation, empty for the default ones
+     * @return the result, or null if the file is not watched or the dependencies differ from the content roots
+     */
+    CompilationModellingResult getCompiledSource(File file, List<String> dependencies);
+}
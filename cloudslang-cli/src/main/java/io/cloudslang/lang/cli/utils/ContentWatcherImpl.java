@@ -0,0 +1,412 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.cli.utils;
+
+import io.cloudslang.lang.api.Slang;
+import io.cloudslang.lang.commons.services.api.CompilationHelper;
+import io.cloudslang.lang.commons.services.api.SlangCompilationService;
+import io.cloudslang.lang.compiler.Extension;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+@Component
+public class ContentWatcherImpl implements ContentWatcher {
+
+    private static final Logger logger = Logger.getLogger(ContentWatcherImpl.class);
+
+    // editors usually save in several steps, the events of a save are handled together
+    private static final long EVENT_SETTLE_MILLIS = 100;
+
+    @Autowired
+    private Slang slang;
+
+    @Autowired
+    private SlangCompilationService slangCompilationService;
+
+    @Autowired
+    private CompilationHelper compilationHelper;
+
+    private final Object lock = new Object();
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    private final Set<Path> contentRoots = new LinkedHashSet<>();
+
+    private final Set<Path> knownFiles = new HashSet<>();
+
+    @Override
+    public List<CompilationModellingResult> watch(List<String> directories) {
+        Validate.notEmpty(directories, "You must supply the directories to watch");
+        synchronized (lock) {
+            stop();
+            try {
+                for (String directory : directories) {
+                    File root = new File(directory);
+                    Validate.isTrue(root.isDirectory(), "Parameter '" + directory +
+                            SlangCompilationService.INVALID_DIRECTORY_ERROR_MESSAGE_SUFFIX);
+                    contentRoots.add(root.getCanonicalFile().toPath());
+                }
+                watchService = FileSystems.getDefault().newWatchService();
+                for (Path contentRoot : contentRoots) {
+                    registerTree(contentRoot);
+                }
+                knownFiles.addAll(listSlangFiles());
+            } catch (IOException e) {
+                stop();
+                throw new RuntimeException("Failed to watch directories " + directories + ": " + e.getMessage(), e);
+            }
+
+            List<CompilationModellingResult> results;
+            try {
+                results = slangCompilationService
+                        .recompileFiles(toFiles(knownFiles), Collections.<File>emptySet(), compilationHelper);
+            } catch (RuntimeException e) {
+                stop();
+                throw e;
+            }
+
+            watchThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    watchLoop(watchService);
+                }
+            }, "cslang-content-watcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+            return results;
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            if (watchThread != null) {
+                watchThread.interrupt();
+                watchThread = null;
+            }
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close the content watch service: " + e.getMessage());
+                }
+                watchService = null;
+                slang.clearCompiledSources();
+            }
+            watchedDirectories.clear();
+            contentRoots.clear();
+            knownFiles.clear();
+        }
+    }
+
+    @Override
+    public boolean isWatching() {
+        synchronized (lock) {
+            return watchService != null;
+        }
+    }
+
+    @Override
+    public Set<String> getContentRoots() {
+        synchronized (lock) {
+            Set<String> roots = new LinkedHashSet<>();
+            for (Path contentRoot : contentRoots) {
+                roots.add(contentRoot.toString());
+            }
+            return roots;
+        }
+    }
+
+    @Override
+    public CompilationModellingResult getCompiledSource(File file, List<String> dependencies) {
+        synchronized (lock) {
+            if (watchService == null) {
+                return null;
+            }
+            try {
+                if (CollectionUtils.isNotEmpty(dependencies) && !contentRoots.equals(toCanonicalPaths(dependencies))) {
+                    return null;
+                }
+                Path path = file.getCanonicalFile().toPath();
+                if (!isUnderContentRoot(path)) {
+                    return null;
+                }
+                handlePendingEvents();
+                recompileOutdatedFiles(path);
+                return slang.getCompiledSource(path.toString());
+            } catch (IOException | ClosedWatchServiceException e) {
+                logger.warn("Compiled content is not used for " + file.getName() + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private void watchLoop(WatchService service) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                Thread.sleep(EVENT_SETTLE_MILLIS);
+                synchronized (lock) {
+                    if (service != watchService) {
+                        return;
+                    }
+                    Set<Path> changedFiles = new LinkedHashSet<>();
+                    Set<Path> removedFiles = new LinkedHashSet<>();
+                    boolean overflow = handleEvents(key, changedFiles, removedFiles);
+                    overflow |= pollEvents(changedFiles, removedFiles);
+                    recompile(changedFiles, removedFiles, overflow);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignore) {
+            // the watch was stopped
+        }
+    }
+
+    private void handlePendingEvents() {
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        Set<Path> removedFiles = new LinkedHashSet<>();
+        boolean overflow = pollEvents(changedFiles, removedFiles);
+        recompile(changedFiles, removedFiles, overflow);
+    }
+
+    /**
+     * The events of a save can still be held by the watch thread while it waits for the save to settle,
+     * or be delivered late by the watch service, so the compiled sources are checked against the files:
+     * the file to run by content, the other known files by modification time and length.
+     */
+    private void recompileOutdatedFiles(Path fileToRun) throws IOException {
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        for (Path knownFile : knownFiles) {
+            SlangSource compiledSource = slang.getCompiledSlangSource(knownFile.toString());
+            File file = knownFile.toFile();
+            if (compiledSource == null || compiledSource.getFileLastModified() != file.lastModified() ||
+                    compiledSource.getFileLength() != file.length()) {
+                changedFiles.add(knownFile);
+            }
+        }
+        if (!changedFiles.contains(fileToRun) && Files.isRegularFile(fileToRun)) {
+            SlangSource compiledSource = slang.getCompiledSlangSource(fileToRun.toString());
+            String content = new String(Files.readAllBytes(fileToRun), SlangSource.getCloudSlangCharset());
+            if (compiledSource == null || !compiledSource.getContent().equals(content)) {
+                changedFiles.add(fileToRun);
+            }
+        }
+        if (!changedFiles.isEmpty()) {
+            logger.info("Recompiling " + changedFiles.size() + " files changed before their events were handled");
+            recompile(changedFiles, new LinkedHashSet<Path>(), false);
+        }
+    }
+
+    private boolean pollEvents(Set<Path> changedFiles, Set<Path> removedFiles) {
+        boolean overflow = false;
+        WatchKey key = watchService.poll();
+        while (key != null) {
+            overflow |= handleEvents(key, changedFiles, removedFiles);
+            key = watchService.poll();
+        }
+        return overflow;
+    }
+
+    /**
+     * @return true if events were lost and the content has to be scanned again
+     */
+    private boolean handleEvents(WatchKey key, Set<Path> changedFiles, Set<Path> removedFiles) {
+        boolean overflow = false;
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                overflow = true;
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                removedFiles.addAll(getKnownFilesUnder(path));
+            } else if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        registerTree(path);
+                        changedFiles.addAll(listSlangFiles(path));
+                    } catch (IOException e) {
+                        logger.warn("Failed to watch directory " + path + ": " + e.getMessage());
+                        overflow = true;
+                    }
+                }
+            } else if (isSlangFile(path)) {
+                changedFiles.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+        return overflow;
+    }
+
+    private void recompile(Set<Path> changedFiles, Set<Path> removedFiles, boolean overflow) {
+        if (overflow) {
+            try {
+                Set<Path> currentFiles = listSlangFiles();
+                for (Path knownFile : knownFiles) {
+                    if (!currentFiles.contains(knownFile)) {
+                        removedFiles.add(knownFile);
+                    }
+                }
+                changedFiles.addAll(currentFiles);
+            } catch (IOException e) {
+                logger.error("Failed to scan the watched content: " + e.getMessage());
+            }
+        }
+        // a file can be created and deleted, or deleted and created again, between two checks
+        for (Iterator<Path> iterator = changedFiles.iterator(); iterator.hasNext(); ) {
+            Path changedFile = iterator.next();
+            if (!Files.isRegularFile(changedFile)) {
+                iterator.remove();
+                if (knownFiles.contains(changedFile)) {
+                    removedFiles.add(changedFile);
+                }
+            }
+        }
+        removedFiles.removeAll(changedFiles);
+        if (changedFiles.isEmpty() && removedFiles.isEmpty()) {
+            return;
+        }
+
+        knownFiles.removeAll(removedFiles);
+        knownFiles.addAll(changedFiles);
+        try {
+            List<CompilationModellingResult> results = slangCompilationService
+                    .recompileFiles(toFiles(changedFiles), toFiles(removedFiles), new SilentCompilationHelper());
+            logger.info("Recompiled " + results.size() + " files after " + changedFiles.size() +
+                    " changed and " + removedFiles.size() + " removed files");
+        } catch (RuntimeException e) {
+            logger.error("Failed to recompile the watched content: " + e.getMessage(), e);
+        }
+    }
+
+    private void registerTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+                    throws IOException {
+                WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(key, directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private Set<Path> listSlangFiles() throws IOException {
+        Set<Path> files = new HashSet<>();
+        for (Path contentRoot : contentRoots) {
+            files.addAll(listSlangFiles(contentRoot));
+        }
+        return files;
+    }
+
+    private Set<Path> listSlangFiles(Path directory) throws IOException {
+        Set<Path> files = new HashSet<>();
+        for (File file : slangCompilationService.listSlangFiles(directory.toFile(), true)) {
+            files.add(file.getCanonicalFile().toPath());
+        }
+        return files;
+    }
+
+    private Set<Path> getKnownFilesUnder(Path path) {
+        Set<Path> files = new HashSet<>();
+        for (Path knownFile : knownFiles) {
+            if (knownFile.startsWith(path)) {
+                files.add(knownFile);
+            }
+        }
+        return files;
+    }
+
+    private boolean isSlangFile(Path path) {
+        return Extension.SL == Extension.findExtension(path.getFileName().toString());
+    }
+
+    private boolean isUnderContentRoot(Path path) {
+        for (Path contentRoot : contentRoots) {
+            if (path.startsWith(contentRoot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<Path> toCanonicalPaths(List<String> directories) throws IOException {
+        Set<Path> paths = new LinkedHashSet<>();
+        for (String directory : directories) {
+            paths.add(new File(directory).getCanonicalFile().toPath());
+        }
+        return paths;
+    }
+
+    private Collection<File> toFiles(Collection<Path> paths) {
+        List<File> files = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            files.add(path.toFile());
+        }
+        return files;
+    }
+
+    /**
+     * Changes are compiled in the background, without printing every file to the console.
+     */
+    private static class SilentCompilationHelper implements CompilationHelper {
+        @Override
+        public void onCompilationFinish() {
+        }
+
+        @Override
+        public Future<?> onEveryFile(File file) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import io.cloudslang.lang.cli.services.ScoreServices;
 import io.cloudslang.lang.cli.utils.CompilerHelper;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.CompilationArtifactBundle;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.values.Value;
@@ -34,18 +35,22 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.shell.Bootstrap;
 import org.springframework.shell.core.CommandResult;
 import org.springframework.shell.core.JLineShellComponent;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -538,4 +543,86 @@ public class SlangCliTest {
                 "or file(otherwise known as option 'f').", cr.getException().getMessage());
     }
 
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testRunNoArgument() {
+        final CommandResult cr = shell.executeCommand("run");
+        Assert.assertNotNull(cr.getException());
+        Assert.assertEquals("You should specify file(otherwise known as option 'f') " +
+                "or bundle(otherwise known as option 'b').", cr.getException().getMessage());
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testRunFromBundle() throws Exception {
+        final long executionId = 1;
+        File bundle = File.createTempFile("content", ".csb");
+        bundle.deleteOnExit();
+        CompilationArtifactBundle.write(Lists.newArrayList(createArtifact("a.flow1"), createArtifact("a.flow2")),
+                bundle);
+        when(scoreServicesMock
+                .triggerSync(any(CompilationArtifact.class), anyMapOf(String.class, Value.class),
+                        anySetOf(SystemProperty.class), eq(false), eq(false))).thenReturn(executionId);
+
+        CommandResult cr = shell.executeCommand("run --b " + bundle.getAbsolutePath() + " --e a.flow2");
+
+        ArgumentCaptor<CompilationArtifact> artifactCaptor = ArgumentCaptor.forClass(CompilationArtifact.class);
+        verify(scoreServicesMock).triggerSync(artifactCaptor.capture(), anyMapOf(String.class, Value.class),
+                anySetOf(SystemProperty.class), eq(false), eq(false));
+        assertEquals("a.flow2", artifactCaptor.getValue().getExecutionPlan().getFlowUuid());
+        assertEquals("method threw exception", null, cr.getException());
+        assertEquals("success should be true", true, cr.isSuccess());
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testRunFromBundleNeedsExecutable() throws Exception {
+        File bundle = File.createTempFile("content", ".csb");
+        bundle.deleteOnExit();
+        CompilationArtifactBundle.write(Lists.newArrayList(createArtifact("a.flow1"), createArtifact("a.flow2")),
+                bundle);
+
+        CommandResult cr = shell.executeCommand("run --b " + bundle.getAbsolutePath());
+
+        Assert.assertNotNull(cr.getException());
+        Assert.assertTrue(cr.getException().getMessage().contains("[a.flow1, a.flow2]"));
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testGetFlowInputsFromBundle() throws Exception {
+        File bundle = File.createTempFile("content", ".csb");
+        bundle.deleteOnExit();
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid("a.flow1");
+        List<Input> inputsList = Lists.newArrayList(new Input.InputBuilder("input1", "expression1").build());
+        CompilationArtifactBundle.write(Lists.newArrayList(new CompilationArtifact(executionPlan,
+                new HashMap<String, ExecutionPlan>(), inputsList, new HashSet<String>())), bundle);
+
+        CommandResult cr = shell.executeCommand("inputs --b " + bundle.getAbsolutePath());
+
+        assertEquals("method threw exception", null, cr.getException());
+        assertEquals("input list mismatch", Lists.newArrayList("input1"), cr.getResult());
+        verify(compilerHelperMock, never()).compile(anyString(), anyListOf(String.class));
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testBundle() throws Exception {
+        File bundle = File.createTempFile("content", ".csb");
+        bundle.deleteOnExit();
+        CompilationModellingResult result = new CompilationModellingResult(createArtifact("a.flow1"),
+                new ArrayList<RuntimeException>());
+        result.setFile(new File("flow1.sl"));
+        when(compilerHelperMock.compileFolders(anyListOf(String.class))).thenReturn(Lists.newArrayList(result));
+
+        CommandResult cr = shell.executeCommand("bundle --d " + bundle.getParent() + " --o " +
+                bundle.getAbsolutePath());
+
+        assertEquals("method threw exception", null, cr.getException());
+        assertEquals("Bundled 1 executables to " + bundle.getAbsolutePath(), cr.getResult());
+        assertEquals(Collections.singleton("a.flow1"), CompilationArtifactBundle.read(bundle).keySet());
+    }
+
+    private CompilationArtifact createArtifact(String executableId) {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid(executableId);
+        return new CompilationArtifact(executionPlan, new HashMap<String, ExecutionPlan>(),
+                new ArrayList<Input>(), new HashSet<String>());
+    }
 }
@@ -20,6 +20,8 @@ import io.cloudslang.lang.commons.services.impl.SlangCompilationServiceImpl;
 import io.cloudslang.lang.commons.services.impl.SlangSourceServiceImpl;
 import io.cloudslang.lang.compiler.PrecompileStrategy;
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.entities.encryption.DummyEncryptor;
@@ -33,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.fusesource.jansi.Ansi;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
@@ -46,6 +49,8 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -97,6 +102,23 @@ public class CompilerHelperTest {
     @Before
     public void resetMocks() {
         reset(slang);
+        // the flows of the test resources are all named basic_flow and call user.ops.test_op
+        when(slang.preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE)))
+                .thenAnswer(new Answer<ExecutableModellingResult>() {
+                    @Override
+                    public ExecutableModellingResult answer(InvocationOnMock invocation) {
+                        SlangSource source = (SlangSource) invocation.getArguments()[0];
+                        Executable executable = mock(Executable.class);
+                        if (source.getContent().contains("flow:")) {
+                            when(executable.getId()).thenReturn("user.ops.basic_flow");
+                            when(executable.getExecutableDependencies()).thenReturn(newHashSet("user.ops.test_op"));
+                        } else {
+                            when(executable.getId()).thenReturn("user.ops.test_op");
+                            when(executable.getExecutableDependencies()).thenReturn(new HashSet<String>());
+                        }
+                        return new ExecutableModellingResult(executable, new ArrayList<RuntimeException>());
+                    }
+                });
     }
 
     @Test
@@ -114,12 +136,15 @@ public class CompilerHelperTest {
         final URI opPath = getClass().getResource("/executables/dir3/dir3_1/test_op.sl").toURI();
         compilerHelper.compile(flowPath.getPath(), null);
         InOrder inOrder = inOrder(slang);
+        inOrder.verify(slang, atLeastOnce())
+                .preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE));
         inOrder.verify(slang).compile(
                 SlangSource.fromFile(flowPath),
                 newHashSet(
                         SlangSource.fromFile(opPath),
                         SlangSource.fromFile(flowPath)
-                )
+                ),
+                PrecompileStrategy.WITH_CACHE
         );
         inOrder.verifyNoMoreInteractions();
     }
@@ -133,26 +158,18 @@ public class CompilerHelperTest {
 
         final URI flowPath = getClass().getResource("/executables/dir3/flow.sl").toURI();
         final URI opPath = getClass().getResource("/executables/dir3/dir3_1/test_op.sl").toURI();
-        verify(slang).compileSource(
-                SlangSource.fromFile(opPath),
-                newHashSet(
-                        SlangSource.fromFile(opPath),
-                        SlangSource.fromFile(flowPath)
-                ),
-                PrecompileStrategy.WITH_CACHE
-        );
         InOrder inOrderConsolePrinter = inOrder(consolePrinter);
         inOrderConsolePrinter.verify(consolePrinter, times(2)).printWithColor(any(Ansi.Color.class), anyString());
         inOrderConsolePrinter.verify(consolePrinter).waitForAllPrintTasksToFinish();
         inOrderConsolePrinter.verifyNoMoreInteractions();
         InOrder inOrder = inOrder(slang);
-        inOrder.verify(slang, atLeastOnce()).compileSource(
-                SlangSource.fromFile(flowPath),
-                newHashSet(
+        inOrder.verify(slang).compileSources(
+                eq(newHashSet(
                         SlangSource.fromFile(opPath),
                         SlangSource.fromFile(flowPath)
-                ),
-                PrecompileStrategy.WITH_CACHE
+                )),
+                eq(PrecompileStrategy.WITH_CACHE),
+                any(Consumer.class)
         );
         inOrder.verify(slang).invalidateAllInPreCompileCache();
         inOrder.verifyNoMoreInteractions();
@@ -165,8 +182,10 @@ public class CompilerHelperTest {
         final URI flow2FilePath = getClass().getResource("/executables/dir1/flow2.sl").toURI();
         compilerHelper.compile(flowFilePath.getPath(), Lists.newArrayList(folderPath.getPath()));
         InOrder inOrder = inOrder(slang);
+        inOrder.verify(slang, atLeastOnce())
+                .preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE));
         inOrder.verify(slang).compile(SlangSource.fromFile(flowFilePath),
-                newHashSet(SlangSource.fromFile(flow2FilePath)));
+                newHashSet(SlangSource.fromFile(flow2FilePath)), PrecompileStrategy.WITH_CACHE);
         inOrder.verifyNoMoreInteractions();
     }
 
@@ -180,12 +199,15 @@ public class CompilerHelperTest {
                 .getResource("/mixed_sl_files/configuration/properties/executables/test_op.sl").toURI();
         compilerHelper.compile(flowFilePath.getPath(), Lists.newArrayList(folderPath.getPath()));
         InOrder inOrder = inOrder(slang);
+        inOrder.verify(slang, atLeastOnce())
+                .preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE));
         inOrder.verify(slang).compile(
                 SlangSource.fromFile(flowFilePath),
                 newHashSet(
                         SlangSource.fromFile(dependency1),
                         SlangSource.fromFile(dependency2)
-                )
+                ),
+                PrecompileStrategy.WITH_CACHE
         );
         inOrder.verifyNoMoreInteractions();
     }
@@ -201,9 +223,12 @@ public class CompilerHelperTest {
                 .getResource("/executables/dir2/flowprop.sl").toURI();
         compilerHelper.compile(flowFilePath.getPath(), Lists.newArrayList(folderPath.getPath()));
         InOrder inOrder = inOrder(slang);
+        inOrder.verify(slang, atLeastOnce())
+                .preCompileSource(any(SlangSource.class), eq(PrecompileStrategy.WITH_CACHE));
         inOrder.verify(slang).compile(
                 SlangSource.fromFile(flowFilePath),
-                newHashSet(SlangSource.fromFile(flow2FilePath))
+                newHashSet(SlangSource.fromFile(flow2FilePath)),
+                PrecompileStrategy.WITH_CACHE
         );
         inOrder.verifyNoMoreInteractions();
     }
@@ -387,6 +412,11 @@ public class CompilerHelperTest {
             return new SlangCompilationServiceImpl();
         }
 
+        @Bean
+        public ContentWatcher contentWatcher() {
+            return mock(ContentWatcher.class);
+        }
+
     }
 
     private Matcher<String> containsIgnoreCase(final String element) {
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.cli.utils;
+
+import io.cloudslang.lang.api.Slang;
+import io.cloudslang.lang.commons.services.api.CompilationHelper;
+import io.cloudslang.lang.commons.services.api.SlangCompilationService;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ContentWatcherImplTest {
+
+    private static final long EVENT_TIMEOUT = 20000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @InjectMocks
+    private ContentWatcherImpl contentWatcher;
+
+    @Mock
+    private Slang slang;
+
+    @Mock
+    private SlangCompilationService slangCompilationService;
+
+    @Mock
+    private CompilationHelper compilationHelper;
+
+    private File contentRoot;
+
+    private File operation;
+
+    @Before
+    public void setUp() throws Exception {
+        contentRoot = temporaryFolder.newFolder("content").getCanonicalFile();
+        operation = new File(contentRoot, "op.sl");
+        FileUtils.writeStringToFile(operation, "namespace: a", StandardCharsets.UTF_8);
+        when(slangCompilationService.listSlangFiles(any(File.class), eq(true)))
+                .thenAnswer(new Answer<Collection<File>>() {
+                    @Override
+                    public Collection<File> answer(InvocationOnMock invocation) throws Throwable {
+                        File directory = (File) invocation.getArguments()[0];
+                        return FileUtils.listFiles(directory, new String[]{"sl"}, true);
+                    }
+                });
+        when(slangCompilationService.recompileFiles(anyCollectionOf(File.class), anyCollectionOf(File.class),
+                any(CompilationHelper.class))).thenReturn(new ArrayList<CompilationModellingResult>());
+    }
+
+    @After
+    public void tearDown() {
+        contentWatcher.stop();
+    }
+
+    @Test
+    public void testWatchCompilesContent() {
+        contentWatcher.watch(Collections.singletonList(contentRoot.getPath()));
+
+        assertTrue(contentWatcher.isWatching());
+        assertEquals(Collections.singleton(contentRoot.getPath()), contentWatcher.getContentRoots());
+        verify(slangCompilationService).recompileFiles(argThat(contains(operation)),
+                eq(Collections.<File>emptySet()), eq(compilationHelper));
+    }
+
+    @Test
+    public void testChangesAreRecompiled() throws Exception {
+        contentWatcher.watch(Collections.singletonList(contentRoot.getPath()));
+
+        File subFolder = new File(contentRoot, "flows");
+        File flow = new File(subFolder, "flow.sl");
+        FileUtils.writeStringToFile(flow, "namespace: a", StandardCharsets.UTF_8);
+        verify(slangCompilationService, timeout(EVENT_TIMEOUT)).recompileFiles(argThat(contains(flow)),
+                anyCollectionOf(File.class), any(CompilationHelper.class));
+
+        assertTrue(operation.delete());
+        verify(slangCompilationService, timeout(EVENT_TIMEOUT)).recompileFiles(anyCollectionOf(File.class),
+                argThat(contains(operation)), any(CompilationHelper.class));
+    }
+
+    @Test
+    public void testGetCompiledSource() throws Exception {
+        CompilationModellingResult result = new CompilationModellingResult(null, new ArrayList<RuntimeException>());
+        when(slang.getCompiledSource(operation.getPath())).thenReturn(result);
+        assertNull(contentWatcher.getCompiledSource(operation, null));
+
+        contentWatcher.watch(Collections.singletonList(contentRoot.getPath()));
+
+        assertSame(result, contentWatcher.getCompiledSource(operation, null));
+        assertSame(result, contentWatcher.getCompiledSource(operation,
+                Collections.singletonList(contentRoot.getPath())));
+        assertNull(contentWatcher.getCompiledSource(operation,
+                Collections.singletonList(temporaryFolder.getRoot().getPath())));
+        assertNull(contentWatcher.getCompiledSource(temporaryFolder.newFile("other.sl"), null));
+    }
+
+    @Test
+    public void testGetCompiledSourceRecompilesOutdatedFile() throws Exception {
+        when(slang.getCompiledSlangSource(operation.getPath())).thenReturn(SlangSource.fromFile(operation));
+        contentWatcher.watch(Collections.singletonList(contentRoot.getPath()));
+
+        contentWatcher.getCompiledSource(operation, null);
+        verify(slangCompilationService, times(1)).recompileFiles(anyCollectionOf(File.class),
+                anyCollectionOf(File.class), any(CompilationHelper.class));
+
+        // same length and modification time, the events of the save may not be handled yet
+        long lastModified = operation.lastModified();
+        FileUtils.writeStringToFile(operation, "namespace: b", StandardCharsets.UTF_8);
+        assertTrue(operation.setLastModified(lastModified));
+
+        contentWatcher.getCompiledSource(operation, null);
+        verify(slangCompilationService, atLeast(2)).recompileFiles(argThat(contains(operation)),
+                anyCollectionOf(File.class), any(CompilationHelper.class));
+    }
+
+    @Test
+    public void testStop() {
+        contentWatcher.watch(Collections.singletonList(contentRoot.getPath()));
+
+        contentWatcher.stop();
+
+        assertFalse(contentWatcher.isWatching());
+        assertTrue(contentWatcher.getContentRoots().isEmpty());
+        verify(slang).clearCompiledSources();
+    }
+
+    private static Matcher<Collection<File>> contains(final File file) {
+        return new BaseMatcher<Collection<File>>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof Collection && ((Collection<?>) item).contains(file);
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("collection containing " + file);
+            }
+        };
+    }
+}
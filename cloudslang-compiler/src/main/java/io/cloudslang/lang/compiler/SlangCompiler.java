@@ -9,6 +9,7 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler;
 
+import io.cloudslang.lang.compiler.caching.CacheStatistics;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
@@ -17,7 +18,9 @@ import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.SensitivityLevel;
 import io.cloudslang.lang.entities.SystemProperty;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface SlangCompiler {
 
@@ -59,6 +62,71 @@ public interface SlangCompiler {
      */
     CompilationModellingResult compileSource(SlangSource source, Set<SlangSource> path);
 
+    /**
+     * Compile every CloudSlang source of a set, using the set itself as the dependency path.
+     * Each source is modelled once and the execution plan of each dependency is built once,
+     * so the cost grows linearly with the number of sources.
+     * The errors of a result are the ones found in its own source: modelling errors, duplicate executable ids
+     *     and the errors of linking it to its dependencies.
+     *
+     * @param sources            the CloudSlang sources to compile
+     * @param precompileStrategy with / without cache
+     * @return a {@link CompilationModellingResult} for every source, in the iteration order of the sources
+     */
+    Map<SlangSource, CompilationModellingResult> compileSources(Set<SlangSource> sources,
+                                                                PrecompileStrategy precompileStrategy);
+
+    /**
+     * Same as {@link #compileSources(Set, PrecompileStrategy)}, reporting the progress of the compilation.
+     * Modelling is the costly part of compiling a set, so the listener is called after each source is modelled;
+     *     it may be called concurrently when sources are pre-compiled in parallel.
+     *
+     * @param sources            the CloudSlang sources to compile
+     * @param precompileStrategy with / without cache
+     * @param precompileListener called with every source once it is modelled
+     * @return a {@link CompilationModellingResult} for every source, in the iteration order of the sources
+     */
+    Map<SlangSource, CompilationModellingResult> compileSources(Set<SlangSource> sources,
+                                                                PrecompileStrategy precompileStrategy,
+                                                                Consumer<SlangSource> precompileListener);
+
+    /**
+     * Compile sources incrementally against the content compiled by the previous calls of this method.
+     * The changed sources are modelled again, and only the sources whose transitive dependencies include an
+     *     added, changed or removed executable are linked again. The compiler keeps a dependency graph with a
+     *     reverse index of the content for that purpose; the first call compiles the content given as changed.
+     * Sources are identified by their file path.
+     *
+     * @param sources            the added or changed CloudSlang sources
+     * @param removedFilePaths   the file paths of the removed sources
+     * @param precompileStrategy with / without cache
+     * @return a {@link CompilationModellingResult} for every source that was linked again
+     */
+    Map<SlangSource, CompilationModellingResult> recompileSources(Set<SlangSource> sources,
+                                                                  Set<String> removedFilePaths,
+                                                                  PrecompileStrategy precompileStrategy);
+
+    /**
+     * Get the last result of a source compiled by {@link #recompileSources(Set, Set, PrecompileStrategy)}.
+     *
+     * @param filePath the file path of the source
+     * @return the result, or null if the source was not compiled or was removed
+     */
+    CompilationModellingResult getCompiledSource(String filePath);
+
+    /**
+     * Get the source that the last result of {@link #getCompiledSource(String)} was compiled from.
+     *
+     * @param filePath the file path of the source
+     * @return the source, or null if the source was not compiled or was removed
+     */
+    SlangSource getCompiledSlangSource(String filePath);
+
+    /**
+     * Forget the content compiled by {@link #recompileSources(Set, Set, PrecompileStrategy)}.
+     */
+    void clearCompiledSources();
+
     /**
      * Compile a CloudSlang source and its dependencies to a
      *     {@link io.cloudslang.lang.entities.CompilationArtifact} object
@@ -134,6 +202,13 @@ public interface SlangCompiler {
      */
     void invalidateAllInPreCompileCache();
 
+    /**
+     * Get the lookup and eviction counters of the pre-compile cache.
+     *
+     * @return the {@link CacheStatistics} of the pre-compile cache
+     */
+    CacheStatistics getPreCompileCacheStatistics();
+
     /**
      * Validate that the given {@link io.cloudslang.lang.compiler.modeller.model.Executable} is valid regarding
      * its wiring to its dependencies
@@ -10,8 +10,12 @@
 package io.cloudslang.lang.compiler;
 
 import io.cloudslang.lang.compiler.caching.CacheResult;
+import io.cloudslang.lang.compiler.caching.CacheStatistics;
 import io.cloudslang.lang.compiler.caching.CacheValueState;
+import io.cloudslang.lang.compiler.caching.CachedExecutionPlanService;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileService;
+import io.cloudslang.lang.compiler.caching.PersistentPrecompileService;
+import io.cloudslang.lang.compiler.modeller.DependencyGraph;
 import io.cloudslang.lang.compiler.modeller.SlangModeller;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
@@ -35,11 +39,20 @@ import org.apache.commons.lang3.NotImplementedException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static io.cloudslang.lang.compiler.SlangTextualKeys.SENSITIVE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.VALUE_KEY;
@@ -61,6 +74,10 @@ public class SlangCompilerImpl implements SlangCompiler {
             "System property key must be string. Found: ";
     public static final String DUPLICATE_SYSTEM_PROPERTY_KEY_ERROR_MESSAGE_PREFIX =
             "Duplicate system property key: '";
+    public static final String PRECOMPILE_PARALLELISM_PROPERTY = "cslang.compiler.precompile.parallelism";
+
+    private static final Consumer<SlangSource> NO_PRECOMPILE_LISTENER = source -> {
+    };
 
     private YamlParser yamlParser;
 
@@ -74,8 +91,23 @@ public class SlangCompilerImpl implements SlangCompiler {
 
     private CachedPrecompileService cachedPrecompileService;
 
+    private PersistentPrecompileService persistentPrecompileService;
+
+    private CachedExecutionPlanService cachedExecutionPlanService;
+
     private MetadataExtractor metadataExtractor;
 
+    private volatile int precompileParallelism = Integer.getInteger(PRECOMPILE_PARALLELISM_PROPERTY, 1);
+
+    private ForkJoinPool precompilePool;
+
+    // state of recompileSources, by file path
+    private final Object compiledSourcesLock = new Object();
+    private final DependencyGraph compiledSourcesGraph = new DependencyGraph();
+    private final Map<String, SlangSource> compiledSources = new HashMap<>();
+    private final Map<String, ExecutableModellingResult> compiledModels = new HashMap<>();
+    private final Map<String, CompilationModellingResult> compiledResults = new HashMap<>();
+
     @Override
     public CompilationArtifact compile(SlangSource source, Set<SlangSource> dependencySources) {
         return compile(source, dependencySources, PrecompileStrategy.WITHOUT_CACHE);
@@ -134,9 +166,13 @@ public class SlangCompilerImpl implements SlangCompiler {
         executablePairs.put(executableModellingResult.getExecutable(), source);
 
         if (CollectionUtils.isNotEmpty(path)) {
-            for (SlangSource currentSource : path) {
-                ExecutableModellingResult result = preCompileSource(currentSource, precompileStrategy,
-                        sensitivityLevel);
+            List<SlangSource> pathSources = new ArrayList<>(path);
+            List<ExecutableModellingResult> pathResults = preCompileSources(pathSources, precompileStrategy,
+                    sensitivityLevel, NO_PRECOMPILE_LISTENER);
+            // merged in path order so that errors and duplicate detection do not depend on scheduling
+            for (int i = 0; i < pathSources.size(); i++) {
+                SlangSource currentSource = pathSources.get(i);
+                ExecutableModellingResult result = pathResults.get(i);
                 Executable preCompiledCurrentSource = result.getExecutable();
                 errors.addAll(result.getErrors());
 
@@ -154,6 +190,237 @@ public class SlangCompilerImpl implements SlangCompiler {
         return new CompilationModellingResult(result.getCompilationArtifact(), errors);
     }
 
+    @Override
+    public Map<SlangSource, CompilationModellingResult> compileSources(Set<SlangSource> sources,
+                                                                       PrecompileStrategy precompileStrategy) {
+        return compileSources(sources, precompileStrategy, NO_PRECOMPILE_LISTENER);
+    }
+
+    @Override
+    public Map<SlangSource, CompilationModellingResult> compileSources(Set<SlangSource> sources,
+                                                                       PrecompileStrategy precompileStrategy,
+                                                                       Consumer<SlangSource> precompileListener) {
+        Validate.notNull(sources, "You must supply the sources to compile");
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+        Validate.notNull(precompileListener, "Pre-compile listener can not be null");
+
+        List<SlangSource> sourceList = new ArrayList<>(sources);
+        List<ExecutableModellingResult> modellingResults = preCompileSources(sourceList, precompileStrategy,
+                CompilerConstants.DEFAULT_SENSITIVITY_LEVEL, precompileListener);
+
+        // group by id so that duplicates are only searched among executables with the same id
+        List<Executable> executables = new ArrayList<>();
+        Map<String, Map<Executable, SlangSource>> executablesById = new HashMap<>();
+        for (int i = 0; i < sourceList.size(); i++) {
+            Executable executable = modellingResults.get(i).getExecutable();
+            if (executable != null) {
+                executables.add(executable);
+                executablesById
+                        .computeIfAbsent(executable.getId().toLowerCase(Locale.ENGLISH),
+                                key -> new IdentityHashMap<>())
+                        .put(executable, sourceList.get(i));
+            }
+        }
+        return linkSources(sourceList, modellingResults, new HashSet<>(executables), executablesById);
+    }
+
+    @Override
+    public Map<SlangSource, CompilationModellingResult> recompileSources(Set<SlangSource> sources,
+                                                                         Set<String> removedFilePaths,
+                                                                         PrecompileStrategy precompileStrategy) {
+        Validate.notNull(sources, "You must supply the changed sources");
+        Validate.notNull(removedFilePaths, "You must supply the removed file paths");
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+        for (SlangSource changedSource : sources) {
+            Validate.notNull(changedSource.getFilePath(), "Source " + changedSource.getName() +
+                    " can not be recompiled since it has no file path");
+        }
+
+        List<SlangSource> changedList = new ArrayList<>(sources);
+        List<ExecutableModellingResult> changedModels = preCompileSources(changedList, precompileStrategy,
+                CompilerConstants.DEFAULT_SENSITIVITY_LEVEL, NO_PRECOMPILE_LISTENER);
+
+        synchronized (compiledSourcesLock) {
+            // ids that were added, changed or removed, their dependents have to be linked again
+            Set<String> changedIds = new HashSet<>();
+            for (String removedFilePath : removedFilePaths) {
+                addExecutableId(changedIds, compiledModels.remove(removedFilePath));
+                compiledSources.remove(removedFilePath);
+                compiledResults.remove(removedFilePath);
+                compiledSourcesGraph.removeNode(removedFilePath);
+            }
+            Set<String> affectedPaths = new LinkedHashSet<>();
+            for (int i = 0; i < changedList.size(); i++) {
+                SlangSource changedSource = changedList.get(i);
+                ExecutableModellingResult changedModel = changedModels.get(i);
+                String filePath = changedSource.getFilePath();
+                addExecutableId(changedIds, compiledModels.put(filePath, changedModel));
+                addExecutableId(changedIds, changedModel);
+                compiledSources.put(filePath, changedSource);
+                Executable executable = changedModel.getExecutable();
+                if (executable == null) {
+                    compiledSourcesGraph.putNode(filePath, null, Collections.<String>emptySet());
+                } else {
+                    Set<String> dependencies = executable.getExecutableDependencies();
+                    compiledSourcesGraph.putNode(filePath, executable.getId(),
+                            dependencies == null ? Collections.<String>emptySet() : dependencies);
+                }
+                affectedPaths.add(filePath);
+            }
+            affectedPaths.addAll(compiledSourcesGraph.getAffectedNodes(changedIds));
+
+            List<SlangSource> affectedSources = new ArrayList<>(affectedPaths.size());
+            List<ExecutableModellingResult> affectedModels = new ArrayList<>(affectedPaths.size());
+            Map<String, Map<Executable, SlangSource>> executablesById = new HashMap<>();
+            for (String affectedPath : affectedPaths) {
+                ExecutableModellingResult affectedModel = compiledModels.get(affectedPath);
+                affectedSources.add(compiledSources.get(affectedPath));
+                affectedModels.add(affectedModel);
+                Executable executable = affectedModel.getExecutable();
+                if (executable != null) {
+                    executablesById.computeIfAbsent(executable.getId().toLowerCase(Locale.ENGLISH),
+                            key -> getCompiledExecutablesWithId(executable.getId()));
+                }
+            }
+            Set<Executable> path = new HashSet<>();
+            for (ExecutableModellingResult compiledModel : compiledModels.values()) {
+                if (compiledModel.getExecutable() != null) {
+                    path.add(compiledModel.getExecutable());
+                }
+            }
+
+            Map<SlangSource, CompilationModellingResult> results =
+                    linkSources(affectedSources, affectedModels, path, executablesById);
+            for (Map.Entry<SlangSource, CompilationModellingResult> result : results.entrySet()) {
+                compiledResults.put(result.getKey().getFilePath(), result.getValue());
+            }
+            return results;
+        }
+    }
+
+    @Override
+    public CompilationModellingResult getCompiledSource(String filePath) {
+        synchronized (compiledSourcesLock) {
+            return compiledResults.get(filePath);
+        }
+    }
+
+    @Override
+    public SlangSource getCompiledSlangSource(String filePath) {
+        synchronized (compiledSourcesLock) {
+            return compiledSources.get(filePath);
+        }
+    }
+
+    @Override
+    public void clearCompiledSources() {
+        synchronized (compiledSourcesLock) {
+            compiledSourcesGraph.clear();
+            compiledSources.clear();
+            compiledModels.clear();
+            compiledResults.clear();
+        }
+    }
+
+    private void addExecutableId(Set<String> ids, ExecutableModellingResult modellingResult) {
+        if (modellingResult != null && modellingResult.getExecutable() != null) {
+            ids.add(modellingResult.getExecutable().getId());
+        }
+    }
+
+    private Map<Executable, SlangSource> getCompiledExecutablesWithId(String id) {
+        Map<Executable, SlangSource> executables = new IdentityHashMap<>();
+        for (String provider : compiledSourcesGraph.getProviders(id)) {
+            executables.put(compiledModels.get(provider).getExecutable(), compiledSources.get(provider));
+        }
+        return executables;
+    }
+
+    /**
+     * Link the modelled sources against the path and collect the errors of every source.
+     *
+     * @param executablesById executables that may be duplicates of the modelled ones, by lower case id
+     */
+    private Map<SlangSource, CompilationModellingResult> linkSources(
+            List<SlangSource> sources,
+            List<ExecutableModellingResult> modellingResults,
+            Set<Executable> path,
+            Map<String, Map<Executable, SlangSource>> executablesById) {
+        List<Executable> executables = new ArrayList<>();
+        for (ExecutableModellingResult modellingResult : modellingResults) {
+            if (modellingResult.getExecutable() != null) {
+                executables.add(modellingResult.getExecutable());
+            }
+        }
+        List<CompilationModellingResult> linkedResults = scoreCompiler.compileSources(executables, path);
+
+        Map<SlangSource, CompilationModellingResult> results = new LinkedHashMap<>();
+        int compiledIndex = 0;
+        for (int i = 0; i < sources.size(); i++) {
+            SlangSource source = sources.get(i);
+            ExecutableModellingResult modellingResult = modellingResults.get(i);
+            List<RuntimeException> errors = new ArrayList<>(modellingResult.getErrors());
+            Executable executable = modellingResult.getExecutable();
+            if (executable == null) {
+                results.put(source, new CompilationModellingResult(null, errors));
+                continue;
+            }
+            errors.addAll(compileValidator.validateNoDuplicateExecutables(executable, source,
+                    executablesById.get(executable.getId().toLowerCase(Locale.ENGLISH))));
+            CompilationModellingResult linkedResult = linkedResults.get(compiledIndex++);
+            errors.addAll(linkedResult.getErrors());
+            results.put(source, new CompilationModellingResult(linkedResult.getCompilationArtifact(), errors));
+        }
+        return results;
+    }
+
+    /**
+     * @param precompileListener called after each source is modelled, from the pre-compile threads
+     */
+    private List<ExecutableModellingResult> preCompileSources(List<SlangSource> sources,
+                                                              final PrecompileStrategy precompileStrategy,
+                                                              final SensitivityLevel sensitivityLevel,
+                                                              final Consumer<SlangSource> precompileListener) {
+        if (precompileParallelism <= 1 || sources.size() < 2) {
+            List<ExecutableModellingResult> results = new ArrayList<>(sources.size());
+            for (SlangSource source : sources) {
+                results.add(preCompileSource(source, precompileStrategy, sensitivityLevel, precompileListener));
+            }
+            return results;
+        }
+        try {
+            return getPrecompilePool().submit(() -> sources.parallelStream()
+                    .map(source -> preCompileSource(source, precompileStrategy, sensitivityLevel,
+                            precompileListener))
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while pre-compiling dependency sources", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private ExecutableModellingResult preCompileSource(SlangSource source, PrecompileStrategy precompileStrategy,
+                                                       SensitivityLevel sensitivityLevel,
+                                                       Consumer<SlangSource> precompileListener) {
+        ExecutableModellingResult result = preCompileSource(source, precompileStrategy, sensitivityLevel);
+        precompileListener.accept(source);
+        return result;
+    }
+
+    private synchronized ForkJoinPool getPrecompilePool() {
+        if (precompilePool == null) {
+            precompilePool = new ForkJoinPool(precompileParallelism);
+        }
+        return precompilePool;
+    }
+
     @Override
     public Executable preCompile(SlangSource source) {
         return preCompile(source, PrecompileStrategy.WITHOUT_CACHE);
@@ -198,7 +465,12 @@ public class SlangCompilerImpl implements SlangCompiler {
             return cacheResult.getExecutableModellingResult();
         }
 
-        ExecutableModellingResult executableModellingResult = preCompileModel(source, sensitivityLevel);
+        ExecutableModellingResult executableModellingResult =
+                persistentCachePreExecute(source, precompileStrategy, sensitivityLevel);
+        if (executableModellingResult == null) {
+            executableModellingResult = preCompileModel(source, sensitivityLevel);
+            persistentCachePostExecute(source, precompileStrategy, sensitivityLevel, executableModellingResult);
+        }
 
         // handle caching
         precompileCachePostExecute(source, precompileStrategy, filePath, executableModellingResult);
@@ -209,6 +481,13 @@ public class SlangCompilerImpl implements SlangCompiler {
     @Override
     public void invalidateAllInPreCompileCache() {
         cachedPrecompileService.invalidateAll();
+        persistentPrecompileService.invalidateAll();
+        cachedExecutionPlanService.invalidateAll();
+    }
+
+    @Override
+    public CacheStatistics getPreCompileCacheStatistics() {
+        return cachedPrecompileService.getStatistics();
     }
 
     @Override
@@ -265,6 +544,26 @@ public class SlangCompilerImpl implements SlangCompiler {
         return cacheResult;
     }
 
+    private ExecutableModellingResult persistentCachePreExecute(
+            SlangSource source,
+            PrecompileStrategy precompileStrategy,
+            SensitivityLevel sensitivityLevel) {
+        if (precompileStrategy == PrecompileStrategy.WITH_CACHE && persistentPrecompileService.isEnabled()) {
+            return persistentPrecompileService.getValueFromCache(source, sensitivityLevel);
+        }
+        return null;
+    }
+
+    private void persistentCachePostExecute(
+            SlangSource source,
+            PrecompileStrategy precompileStrategy,
+            SensitivityLevel sensitivityLevel,
+            ExecutableModellingResult executableModellingResult) {
+        if (precompileStrategy == PrecompileStrategy.WITH_CACHE && persistentPrecompileService.isEnabled()) {
+            persistentPrecompileService.cacheValue(source, sensitivityLevel, executableModellingResult);
+        }
+    }
+
     private String generatePreCompileTypeErrorMessage(PrecompileStrategy precompileStrategy) {
         return "Precompile type[" + precompileStrategy + "] not yet implemented";
     }
@@ -275,7 +574,14 @@ public class SlangCompilerImpl implements SlangCompiler {
         ParseModellingResult parseModellingResult = yamlParser.validate(parsedSlang);
 
         // Then we transform the parsed Slang source to a Slang model
-        return slangModeller.createModel(parseModellingResult, sensitivityLevel);
+        ExecutableModellingResult executableModellingResult =
+                slangModeller.createModel(parseModellingResult, sensitivityLevel);
+        if (executableModellingResult != null && executableModellingResult.getExecutable() != null) {
+            // the model depends only on the content and the sensitivity level, it keys the cached execution plans
+            executableModellingResult.getExecutable()
+                    .setSourceFingerprint(source.getContentFingerprint() + "/" + sensitivityLevel);
+        }
+        return executableModellingResult;
     }
 
     private boolean isValidCachedValue(CacheResult cacheResult) {
@@ -501,7 +807,27 @@ public class SlangCompilerImpl implements SlangCompiler {
         this.cachedPrecompileService = cachedPrecompileService;
     }
 
+    public void setPersistentPrecompileService(PersistentPrecompileService persistentPrecompileService) {
+        this.persistentPrecompileService = persistentPrecompileService;
+    }
+
+    public void setCachedExecutionPlanService(CachedExecutionPlanService cachedExecutionPlanService) {
+        this.cachedExecutionPlanService = cachedExecutionPlanService;
+    }
+
     public void setMetadataExtractor(MetadataExtractor metadataExtractor) {
         this.metadataExtractor = metadataExtractor;
     }
+
+    /**
+     * @param precompileParallelism number of threads used to pre-compile the dependency path,
+     *                              1 or less pre-compiles it on the calling thread
+     */
+    public synchronized void setPrecompileParallelism(int precompileParallelism) {
+        this.precompileParallelism = precompileParallelism;
+        if (precompilePool != null) {
+            precompilePool.shutdown();
+            precompilePool = null;
+        }
+    }
 }
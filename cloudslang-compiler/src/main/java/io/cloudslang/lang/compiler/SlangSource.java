@@ -10,6 +10,7 @@
 package io.cloudslang.lang.compiler;
 
 import io.cloudslang.lang.entities.properties.SlangSystemPropertyConstant;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -24,10 +25,15 @@ import java.nio.charset.StandardCharsets;
 
 public class SlangSource {
 
+    private static final long UNKNOWN = -1L;
+
     private final String content;
     private final String name;
     private final String filePath;
     private final Extension fileExtension;
+    private final long fileLastModified;
+    private final long fileLength;
+    private volatile String contentFingerprint;
 
     public SlangSource(String content, String name) {
         Validate.notNull(content, "Source cannot be null");
@@ -35,15 +41,20 @@ public class SlangSource {
         this.name = name;
         this.filePath = null;
         this.fileExtension = null;
+        this.fileLastModified = UNKNOWN;
+        this.fileLength = UNKNOWN;
     }
 
-    private SlangSource(String content, String name, String filePath, Extension fileExtension) {
+    private SlangSource(String content, String name, String filePath, Extension fileExtension,
+                        long fileLastModified, long fileLength) {
         Validate.notNull(content, "Source cannot be null");
 
         this.content = content;
         this.name = name;
         this.filePath = filePath;
         this.fileExtension = fileExtension;
+        this.fileLastModified = fileLastModified;
+        this.fileLength = fileLength;
     }
 
     public static SlangSource fromFile(File file) {
@@ -51,6 +62,9 @@ public class SlangSource {
         Validate.isTrue(file.isFile(), "File content: " + file.getName() +
                 " doesn't lead to a file, directories are not supported");
 
+        // read before the content so that a concurrent write can only make the source look outdated
+        long lastModified = file.lastModified();
+        long length = file.length();
         String content;
         try {
             content = readFileToString(file);
@@ -63,7 +77,8 @@ public class SlangSource {
         String filePath = getCanonicalFilePath(file);
 
         Extension extension = Extension.findExtension(fileName);
-        return new SlangSource(content, fileName, filePath, extension);
+        return new SlangSource(content, fileName, filePath, extension,
+                lastModified == 0L ? UNKNOWN : lastModified, length);
     }
 
     public static SlangSource fromFile(URI uri) {
@@ -112,6 +127,53 @@ public class SlangSource {
         return filePath;
     }
 
+    /**
+     * @return the modification time of the file read before its content, or -1 if unknown
+     */
+    public long getFileLastModified() {
+        return fileLastModified;
+    }
+
+    /**
+     * @return the length of the file read before its content, or -1 if unknown
+     */
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    /**
+     * @return SHA-256 hex digest of the content, computed on first call only
+     */
+    public String getContentFingerprint() {
+        String fingerprint = contentFingerprint;
+        if (fingerprint == null) {
+            fingerprint = DigestUtils.sha256Hex(content);
+            contentFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Compares the content of two sources without copying it: the content length and then the content fingerprint
+     * are compared. File times are not trusted, they can be as coarse as seconds.
+     *
+     * @param other the source to compare with
+     * @return true if both sources have the same name, path, extension and content
+     */
+    public boolean hasSameContent(SlangSource other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null ||
+                !StringUtils.equals(name, other.name) ||
+                !StringUtils.equals(filePath, other.filePath) ||
+                fileExtension != other.fileExtension) {
+            return false;
+        }
+        return content.length() == other.content.length() &&
+                getContentFingerprint().equals(other.getContentFingerprint());
+    }
+
     @Override
     public String toString() {
         return "SlangSource{" +
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+/**
+ * Snapshot of the pre-compile cache counters.
+ * Lookups are counted per {@link CacheValueState}.
+ */
+public class CacheStatistics {
+
+    private final long validCount;
+    private final long missingCount;
+    private final long outdatedCount;
+    private final long evictionCount;
+    private final long size;
+
+    public CacheStatistics(long validCount, long missingCount, long outdatedCount, long evictionCount, long size) {
+        this.validCount = validCount;
+        this.missingCount = missingCount;
+        this.outdatedCount = outdatedCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public long getValidCount() {
+        return validCount;
+    }
+
+    public long getMissingCount() {
+        return missingCount;
+    }
+
+    public long getOutdatedCount() {
+        return outdatedCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLookupCount() {
+        return validCount + missingCount + outdatedCount;
+    }
+
+    /**
+     * @return ratio of lookups that returned a {@link CacheValueState#VALID} value, 1.0 if there were no lookups
+     */
+    public double getHitRate() {
+        long lookupCount = getLookupCount();
+        return lookupCount == 0 ? 1.0 : (double) validCount / lookupCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "validCount=" + validCount +
+                ", missingCount=" + missingCount +
+                ", outdatedCount=" + outdatedCount +
+                ", evictionCount=" + evictionCount +
+                ", size=" + size +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CacheStatistics that = (CacheStatistics) o;
+
+        return new EqualsBuilder()
+                .append(validCount, that.validCount)
+                .append(missingCount, that.missingCount)
+                .append(outdatedCount, that.outdatedCount)
+                .append(evictionCount, that.evictionCount)
+                .append(size, that.size)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(validCount)
+                .append(missingCount)
+                .append(outdatedCount)
+                .append(evictionCount)
+                .append(size)
+                .toHashCode();
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.score.api.ExecutionPlan;
+
+/**
+ * Process wide cache of the execution plans built for executables.
+ * Entries are keyed by executable id, the fingerprint of the source the model was created from and the
+ * navigation the compiler adds to the on failure step, so a plan is reused only for a model with the same
+ * content as the one it was built from.
+ */
+public interface CachedExecutionPlanService {
+    /**
+     * Cache a value.
+     *
+     * @param executable    the model the plan was built from
+     * @param executionPlan actual value to cache
+     */
+    void cacheValue(Executable executable, ExecutionPlan executionPlan);
+
+    /**
+     * Get a value from the cache.
+     *
+     * @param executable the model to get the plan for
+     * @return the execution plan built from a model with the same content, or null if there is none
+     */
+    ExecutionPlan getValueFromCache(Executable executable);
+
+    /**
+     * Remove all cached values.
+     */
+    void invalidateAll();
+}
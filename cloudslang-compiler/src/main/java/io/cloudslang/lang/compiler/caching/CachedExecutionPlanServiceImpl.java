@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.model.Step;
+import io.cloudslang.score.api.ExecutionPlan;
+
+import javax.annotation.PostConstruct;
+
+public class CachedExecutionPlanServiceImpl implements CachedExecutionPlanService {
+
+    public static final String MAX_ENTRIES_PROPERTY = "cslang.compiler.execution.plan.cache.max.entries";
+
+    private static final long DEFAULT_MAX_ENTRIES = 2000;
+
+    private boolean enabled;
+
+    private Cache<String, ExecutionPlan> cache;
+
+    @PostConstruct
+    public void init() {
+        long maxEntries = Long.getLong(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES);
+        enabled = maxEntries > 0;
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maxEntries, 0))
+                .build();
+    }
+
+    @Override
+    public void cacheValue(Executable executable, ExecutionPlan executionPlan) {
+        String key = getKey(executable);
+        if (key != null && executionPlan != null) {
+            cache.put(key, executionPlan);
+        }
+    }
+
+    @Override
+    public ExecutionPlan getValueFromCache(Executable executable) {
+        String key = getKey(executable);
+        return key == null ? null : cache.getIfPresent(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private String getKey(Executable executable) {
+        if (!enabled || executable == null || executable.getId() == null ||
+                executable.getSourceFingerprint() == null) {
+            // the plan of a model that was not created from a source is simply not cached
+            return null;
+        }
+        StringBuilder key = new StringBuilder(executable.getId())
+                .append('@')
+                .append(executable.getSourceFingerprint());
+        if (executable instanceof Flow) {
+            // the only change made to a model after it is created
+            for (Step step : ((Flow) executable).getWorkflow().getSteps()) {
+                if (step.isOnFailureStep()) {
+                    synchronized (step) {
+                        key.append('@').append(step.getNavigationStrings());
+                    }
+                }
+            }
+        }
+        return key.toString();
+    }
+}
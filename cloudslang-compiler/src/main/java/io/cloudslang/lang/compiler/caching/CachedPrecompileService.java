@@ -46,4 +46,11 @@ public interface CachedPrecompileService {
      * Remove all cached values.
      */
     void invalidateAll();
+
+    /**
+     * Get the lookup and eviction counters of the cache.
+     *
+     * @return {@link CacheStatistics} since the cache was created
+     */
+    CacheStatistics getStatistics();
 }
@@ -11,24 +11,64 @@ package io.cloudslang.lang.compiler.caching;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
 import java.util.concurrent.TimeUnit;
-import org.apache.commons.codec.digest.DigestUtils;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 
 public class CachedPrecompileServiceImpl implements CachedPrecompileService {
 
+    public static final String MAX_ENTRIES_PROPERTY = "cslang.precompile.cache.max.entries";
+    public static final String MAX_WEIGHT_PROPERTY = "cslang.precompile.cache.max.weight";
+    public static final String EXPIRY_MINUTES_PROPERTY = "cslang.precompile.cache.expiry.minutes";
+    public static final String EXPIRY_POLICY_PROPERTY = "cslang.precompile.cache.expiry.policy";
+    public static final String CONCURRENCY_LEVEL_PROPERTY = "cslang.precompile.cache.concurrency.level";
+
+    public static final String EXPIRY_POLICY_AFTER_WRITE = "write";
+    public static final String EXPIRY_POLICY_AFTER_ACCESS = "access";
+
+    private static final long DEFAULT_MAX_ENTRIES = 500;
+    private static final long DEFAULT_EXPIRY_MINUTES = 60;
+
     private Cache<String, CacheValue> cache;
 
+    private final AtomicLong validCount = new AtomicLong();
+    private final AtomicLong missingCount = new AtomicLong();
+    private final AtomicLong outdatedCount = new AtomicLong();
+
     @PostConstruct
     public void init() {
-        cache = CacheBuilder.newBuilder()
-                .maximumSize(500)
-                .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
-                .expireAfterWrite(60, TimeUnit.MINUTES)
-                .build();
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+                .concurrencyLevel(Integer.getInteger(CONCURRENCY_LEVEL_PROPERTY,
+                        2 * Runtime.getRuntime().availableProcessors()))
+                .recordStats();
+
+        // weight is the length of the cached source, which bounds memory better than the entry count
+        long maxWeight = Long.getLong(MAX_WEIGHT_PROPERTY, -1L);
+        if (maxWeight > 0) {
+            cacheBuilder.maximumWeight(maxWeight).weigher(new SourceLengthWeigher());
+        } else {
+            cacheBuilder.maximumSize(Long.getLong(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+        }
+
+        long expiryMinutes = Long.getLong(EXPIRY_MINUTES_PROPERTY, DEFAULT_EXPIRY_MINUTES);
+        if (expiryMinutes > 0) {
+            String expiryPolicy = System.getProperty(EXPIRY_POLICY_PROPERTY, EXPIRY_POLICY_AFTER_WRITE);
+            if (EXPIRY_POLICY_AFTER_ACCESS.equalsIgnoreCase(expiryPolicy)) {
+                cacheBuilder.expireAfterAccess(expiryMinutes, TimeUnit.MINUTES);
+            } else if (EXPIRY_POLICY_AFTER_WRITE.equalsIgnoreCase(expiryPolicy)) {
+                cacheBuilder.expireAfterWrite(expiryMinutes, TimeUnit.MINUTES);
+            } else {
+                throw new IllegalArgumentException("Unknown value '" + expiryPolicy + "' for " +
+                        EXPIRY_POLICY_PROPERTY + ". Supported values are: " + EXPIRY_POLICY_AFTER_WRITE + ", " +
+                        EXPIRY_POLICY_AFTER_ACCESS + ".");
+            }
+        }
+
+        cache = cacheBuilder.build();
     }
 
     @Override
@@ -50,11 +90,14 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
 
         if (cachedValue == null) {
             state = CacheValueState.MISSING;
+            missingCount.incrementAndGet();
         } else {
             if (hasChangedSinceCached(currentSource, cachedValue.getSource())) {
                 state = CacheValueState.OUTDATED;
+                outdatedCount.incrementAndGet();
             } else {
                 state = CacheValueState.VALID;
+                validCount.incrementAndGet();
                 executableModellingResult = cachedValue.getExecutableModellingResult();
             }
         }
@@ -73,12 +116,21 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
         cache.invalidateAll();
     }
 
+    @Override
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(validCount.get(), missingCount.get(), outdatedCount.get(),
+                cache.stats().evictionCount(), cache.size());
+    }
+
     boolean hasChangedSinceCached(SlangSource source1, SlangSource source2) {
-        String source1AsStr = source1.toString();
-        String source2AsStr = source2.toString();
-        return (source1AsStr.length() != source2AsStr.length()) ||
-                (!DigestUtils.md5Hex(source1AsStr).equals(DigestUtils.md5Hex(source2AsStr))) ||
-                (!DigestUtils.sha256Hex(source1AsStr).equals(DigestUtils.sha256Hex(source2AsStr)));
+        return !source1.hasSameContent(source2);
     }
 
+    private static class SourceLengthWeigher implements Weigher<String, CacheValue> {
+        @Override
+        public int weigh(String key, CacheValue value) {
+            SlangSource source = value.getSource();
+            return source == null ? 1 : Math.max(1, source.getContent().length());
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Identifies the compiler build that wrote a cache entry, so that persisted models do not outlive
+ * the model classes they were serialized from.
+ */
+public final class CompilerVersion {
+
+    private CompilerVersion() {
+    }
+
+    /**
+     * Released jars carry an implementation version, otherwise the size and timestamp of the jar are used.
+     * When the classes are loaded from a directory (a development build) the names, sizes and timestamps
+     * of all the files under it are hashed, so that recompiling any class changes the version.
+     *
+     * @param type a class of the compiler build
+     * @return the version of the build, or {@code null} if the location of the class cannot be determined
+     */
+    public static String of(Class<?> type) {
+        String version = type.getPackage() == null ? null : type.getPackage().getImplementationVersion();
+        if (StringUtils.isNotEmpty(version)) {
+            return version;
+        }
+        try {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            File location = new File(codeSource.getLocation().toURI());
+            if (location.isFile()) {
+                return Long.toHexString(location.length()) + "-" + Long.toHexString(location.lastModified());
+            } else if (location.isDirectory()) {
+                return "dir-" + hashDirectory(location);
+            }
+        } catch (Exception ignore) {
+            // the location is unknown
+        }
+        return null;
+    }
+
+    private static String hashDirectory(File directory) {
+        List<String> fileStamps = new ArrayList<>();
+        String root = directory.getAbsolutePath();
+        for (File file : FileUtils.listFiles(directory, null, true)) {
+            fileStamps.add(file.getAbsolutePath().substring(root.length()) + ":" + file.length() + ":" +
+                    file.lastModified());
+        }
+        Collections.sort(fileStamps);
+        return DigestUtils.sha256Hex(StringUtils.join(fileStamps, "\n")).substring(0, 16);
+    }
+}
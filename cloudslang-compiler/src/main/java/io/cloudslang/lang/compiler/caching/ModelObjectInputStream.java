@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads models persisted by the compiler caches. The cache directories can be shared, so only the classes
+ * a model is made of can be deserialized: the model classes, CloudSlang entities, the collections the
+ * modeller builds them from and values.
+ */
+public class ModelObjectInputStream extends ObjectInputStream {
+
+    private static final List<String> ALLOWED_PACKAGES = Arrays.asList(
+            "io.cloudslang.lang.compiler.modeller.model.",
+            "io.cloudslang.lang.entities.",
+            // the serialized forms of the immutable collections shared by the models
+            "com.google.common.collect.Immutable"
+    );
+
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.Object", "java.lang.String", "java.lang.Enum", "java.lang.Number",
+            "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.math.BigInteger", "java.math.BigDecimal",
+            "java.util.ArrayList", "java.util.LinkedList", "java.util.ArrayDeque", "java.util.Arrays$ArrayList",
+            "java.util.HashMap", "java.util.LinkedHashMap", "java.util.HashSet", "java.util.LinkedHashSet",
+            "java.util.Collections$EmptyList", "java.util.Collections$EmptySet", "java.util.Collections$EmptyMap",
+            "java.util.Collections$SingletonList", "java.util.Collections$SingletonSet",
+            "java.util.Collections$SingletonMap", "java.util.Collections$UnmodifiableCollection",
+            "java.util.Collections$UnmodifiableList", "java.util.Collections$UnmodifiableRandomAccessList",
+            "java.util.Collections$UnmodifiableSet", "java.util.Collections$UnmodifiableMap",
+            // the on failure navigation of a step
+            "java.util.concurrent.CopyOnWriteArrayList"
+    ));
+
+    public ModelObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+        if (!isAllowed(desc.getName())) {
+            throw new InvalidClassException(desc.getName(), "is not allowed in a cached model");
+        }
+        return super.resolveClass(desc);
+    }
+
+    private static boolean isAllowed(String className) {
+        String elementClassName = className;
+        while (elementClassName.startsWith("[")) {
+            elementClassName = elementClassName.substring(1);
+        }
+        if (elementClassName.startsWith("L") && elementClassName.endsWith(";")) {
+            elementClassName = elementClassName.substring(1, elementClassName.length() - 1);
+        } else if (elementClassName.length() == 1 && elementClassName.length() < className.length()) {
+            // an array of primitives
+            return true;
+        }
+        if (ALLOWED_CLASSES.contains(elementClassName)) {
+            return true;
+        }
+        for (String allowedPackage : ALLOWED_PACKAGES) {
+            if (elementClassName.startsWith(allowedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
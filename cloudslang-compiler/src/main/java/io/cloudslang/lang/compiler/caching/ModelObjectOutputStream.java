@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.entities.bindings.values.SensitiveValue;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Writes models for the compiler caches and records whether a sensitive value was written.
+ * A sensitive value is stored encrypted with the current key of the encryption provider, which the caches
+ * cannot identify, so models holding one are not persisted.
+ */
+public class ModelObjectOutputStream extends ObjectOutputStream {
+
+    private boolean sensitiveValueWritten;
+
+    public ModelObjectOutputStream(OutputStream out) throws IOException {
+        super(out);
+        enableReplaceObject(true);
+    }
+
+    public boolean isSensitiveValueWritten() {
+        return sensitiveValueWritten;
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+        if (obj instanceof SensitiveValue) {
+            sensitiveValueWritten = true;
+        }
+        return obj;
+    }
+}
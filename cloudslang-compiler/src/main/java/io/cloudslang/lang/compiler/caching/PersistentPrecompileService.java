@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.SensitivityLevel;
+
+/**
+ * On-disk pre-compile cache that survives JVM restarts.
+ * Entries are keyed by a hash of the source content, so a moved or re-read file still hits.
+ */
+public interface PersistentPrecompileService {
+
+    String CACHE_DIR_PROPERTY = "cslang.precompile.cache.dir";
+
+    /**
+     * @return true if a cache directory is configured through {@link #CACHE_DIR_PROPERTY}
+     */
+    boolean isEnabled();
+
+    /**
+     * Store a modelling result on disk. Results containing errors are not stored.
+     *
+     * @param source           the source that was modelled
+     * @param sensitivityLevel the sensitivity level used for modelling
+     * @param modellingResult  actual value to cache
+     */
+    void cacheValue(SlangSource source, SensitivityLevel sensitivityLevel, ExecutableModellingResult modellingResult);
+
+    /**
+     * Get a value from the disk cache.
+     *
+     * @param source           the source to look up
+     * @param sensitivityLevel the sensitivity level used for modelling
+     * @return the cached {@link ExecutableModellingResult} or null if missing or unreadable
+     */
+    ExecutableModellingResult getValueFromCache(SlangSource source, SensitivityLevel sensitivityLevel);
+
+    /**
+     * Remove all entries written by the current compiler version.
+     */
+    void invalidateAll();
+}
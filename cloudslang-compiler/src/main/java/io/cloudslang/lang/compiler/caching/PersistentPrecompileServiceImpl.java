@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.SensitivityLevel;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+/**
+ * Stores serialized {@link Executable} models under
+ * {@code <cslang.precompile.cache.dir>/<format>-<compiler version>/<xx>/<hash>.bin}.
+ * Every I/O or deserialization failure is treated as a cache miss, the cache never fails a compilation.
+ * Models holding sensitive values are not stored, see {@link ModelObjectOutputStream}.
+ */
+public class PersistentPrecompileServiceImpl implements PersistentPrecompileService {
+
+    static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_EXTENSION = ".bin";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private final String compilerVersion = CompilerVersion.of(PersistentPrecompileServiceImpl.class);
+
+    @Override
+    public boolean isEnabled() {
+        return compilerVersion != null && StringUtils.isNotEmpty(System.getProperty(CACHE_DIR_PROPERTY));
+    }
+
+    @Override
+    public void cacheValue(SlangSource source, SensitivityLevel sensitivityLevel,
+                           ExecutableModellingResult modellingResult) {
+        if (!isEnabled() || modellingResult == null || modellingResult.getExecutable() == null ||
+                !modellingResult.getErrors().isEmpty()) {
+            return;
+        }
+        String key = computeKey(source, sensitivityLevel);
+        File entryFile = getEntryFile(key);
+        File tempFile = new File(entryFile.getPath() + "." + Thread.currentThread().getId() + TEMP_EXTENSION);
+        try {
+            FileUtils.forceMkdir(entryFile.getParentFile());
+            boolean sensitiveValueWritten;
+            try (ModelObjectOutputStream out = new ModelObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeObject(modellingResult.getExecutable());
+                sensitiveValueWritten = out.isSensitiveValueWritten();
+            }
+            if (sensitiveValueWritten) {
+                FileUtils.deleteQuietly(tempFile);
+            } else {
+                moveAtomically(tempFile.toPath(), entryFile.toPath());
+            }
+        } catch (IOException | RuntimeException ignore) {
+            // best effort: a value that cannot be written is simply modelled again next time
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public ExecutableModellingResult getValueFromCache(SlangSource source, SensitivityLevel sensitivityLevel) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = computeKey(source, sensitivityLevel);
+        File entryFile = getEntryFile(key);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        try (ModelObjectInputStream in = new ModelObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(entryFile.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                FileUtils.deleteQuietly(entryFile);
+                return null;
+            }
+            Executable executable = (Executable) in.readObject();
+            return new ExecutableModellingResult(executable, new ArrayList<RuntimeException>());
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            // corrupted, written by an incompatible model class or holding a class that is not allowed
+            FileUtils.deleteQuietly(entryFile);
+            return null;
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (isEnabled()) {
+            FileUtils.deleteQuietly(getVersionDirectory());
+        }
+    }
+
+    String computeKey(SlangSource source, SensitivityLevel sensitivityLevel) {
+        String header = source.getName() + "\n" + sensitivityLevel + "\n";
+        return DigestUtils.sha256Hex(header + source.getContentFingerprint());
+    }
+
+    private File getEntryFile(String key) {
+        File bucket = new File(getVersionDirectory(), key.substring(0, 2));
+        return new File(bucket, key + ENTRY_EXTENSION);
+    }
+
+    private File getVersionDirectory() {
+        return new File(System.getProperty(CACHE_DIR_PROPERTY), FORMAT_VERSION + "-" + compilerVersion);
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
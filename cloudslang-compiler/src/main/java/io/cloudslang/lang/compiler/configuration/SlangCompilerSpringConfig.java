@@ -18,8 +18,12 @@ import io.cloudslang.lang.compiler.MetadataExtractor;
 import io.cloudslang.lang.compiler.MetadataExtractorImpl;
 import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangCompilerImpl;
+import io.cloudslang.lang.compiler.caching.CachedExecutionPlanService;
+import io.cloudslang.lang.compiler.caching.CachedExecutionPlanServiceImpl;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileService;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileServiceImpl;
+import io.cloudslang.lang.compiler.caching.PersistentPrecompileService;
+import io.cloudslang.lang.compiler.caching.PersistentPrecompileServiceImpl;
 import io.cloudslang.lang.compiler.modeller.DependenciesHelper;
 import io.cloudslang.lang.compiler.modeller.ExecutableBuilder;
 import io.cloudslang.lang.compiler.modeller.MetadataModeller;
@@ -111,10 +115,12 @@ public class SlangCompilerSpringConfig {
 
     @Bean
     public YamlParser yamlParser() {
+        // Yaml is not thread safe but can be reused, so every thread keeps its own configured instance
+        final ThreadLocal<Yaml> threadYaml = ThreadLocal.withInitial(this::yaml);
         YamlParser yamlParser = new YamlParser() {
             @Override
             public Yaml getYaml() {
-                return yaml();
+                return threadYaml.get();
             }
         };
         yamlParser.setExecutableValidator(executableValidator());
@@ -127,6 +133,16 @@ public class SlangCompilerSpringConfig {
         return new CachedPrecompileServiceImpl();
     }
 
+    @Bean
+    public CachedExecutionPlanService cachedExecutionPlanService() {
+        return new CachedExecutionPlanServiceImpl();
+    }
+
+    @Bean
+    public PersistentPrecompileService persistentPrecompileService() {
+        return new PersistentPrecompileServiceImpl();
+    }
+
     @Bean
     public PreCompileValidator precompileValidator() {
         PreCompileValidatorImpl preCompileValidator = new PreCompileValidatorImpl();
@@ -237,6 +253,7 @@ public class SlangCompilerSpringConfig {
         scoreCompiler.setCompileValidator(compileValidator());
         scoreCompiler.setDependenciesHelper(dependenciesHelper());
         scoreCompiler.setExecutionPlanBuilder(executionPlanBuilder());
+        scoreCompiler.setCachedExecutionPlanService(cachedExecutionPlanService());
 
         return scoreCompiler;
     }
@@ -246,6 +263,8 @@ public class SlangCompilerSpringConfig {
         SlangCompilerImpl slangCompiler = new SlangCompilerImpl();
 
         slangCompiler.setCachedPrecompileService(cachedPrecompileService());
+        slangCompiler.setPersistentPrecompileService(persistentPrecompileService());
+        slangCompiler.setCachedExecutionPlanService(cachedExecutionPlanService());
         slangCompiler.setCompileValidator(compileValidator());
         slangCompiler.setScoreCompiler(scoreCompiler());
         slangCompiler.setSlangModeller(slangModeller());
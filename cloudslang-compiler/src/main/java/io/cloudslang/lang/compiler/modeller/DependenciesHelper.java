@@ -34,23 +34,29 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.Validate;
 
-import static ch.lambdaj.Lambda.having;
-import static ch.lambdaj.Lambda.on;
-import static ch.lambdaj.Lambda.selectFirst;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static org.hamcrest.Matchers.equalTo;
 
 public class DependenciesHelper {
 
     private PublishTransformer publishTransformer;
 
     public Set<String> fetchDependencies(Executable executable, Map<String, Executable> availableDependencies) {
+        return fetchDependencies(executable, availableDependencies, new IdentityHashMap<Executable, Set<String>>());
+    }
+
+    /**
+     * @param flowDependencies transitive dependencies of the flows already visited, so that a sub-flow
+     *                         referenced from several places is only walked once
+     */
+    private Set<String> fetchDependencies(Executable executable, Map<String, Executable> availableDependencies,
+                                          Map<Executable, Set<String>> flowDependencies) {
         Validate.notNull(executable);
         Validate.notNull(availableDependencies);
 
@@ -60,22 +66,30 @@ public class DependenciesHelper {
             case SlangTextualKeys.DECISION_TYPE:
                 return new HashSet<>();
             case SlangTextualKeys.FLOW_TYPE:
-                return processFlowForDependencies((Flow) executable, availableDependencies);
+                Set<String> dependencies = flowDependencies.get(executable);
+                if (dependencies == null) {
+                    dependencies = processFlowForDependencies((Flow) executable, availableDependencies,
+                            flowDependencies);
+                }
+                return new HashSet<>(dependencies);
             default:
                 throw new NotImplementedException(Messages.UNKNOWN_EXECUTABLE_TYPE);
         }
     }
 
-    private Set<String> processFlowForDependencies(Flow flow, Map<String, Executable> availableDependencies) {
-        Set<String> flowDependencies = new HashSet<>();
+    private Set<String> processFlowForDependencies(Flow flow, Map<String, Executable> availableDependencies,
+                                                   Map<Executable, Set<String>> flowDependencies) {
+        Set<String> dependencies = new HashSet<>();
+        // registered before the walk so that a recursive reference ends here instead of looping
+        flowDependencies.put(flow, dependencies);
         for (Step step : flow.getWorkflow().getSteps()) {
             String stepReferenceId = step.getRefId();
             Executable stepReference = availableDependencies.get(stepReferenceId);
 
-            flowDependencies.add(stepReferenceId);
-            flowDependencies.addAll(fetchDependencies(stepReference, availableDependencies));
+            dependencies.add(stepReferenceId);
+            dependencies.addAll(fetchDependencies(stepReference, availableDependencies, flowDependencies));
         }
-        return flowDependencies;
+        return dependencies;
     }
 
     /**
@@ -87,20 +101,38 @@ public class DependenciesHelper {
      */
     public Map<String, Executable> matchReferences(Executable executable,
                                                    Collection<Executable> availableDependencies) {
+        return matchReferences(executable, indexById(availableDependencies));
+    }
+
+    /**
+     * recursive matches executables with their references
+     *
+     * @param executable the executables
+     * @param availableDependenciesById the executables to match from, as returned by {@link #indexById}.
+     *                                  The executable itself is used for references to its own id that are
+     *                                  not in the index.
+     * @return a map of a the executables that were successfully matched
+     */
+    public Map<String, Executable> matchReferences(Executable executable,
+                                                   Map<String, Executable> availableDependenciesById) {
         Validate.isTrue(executable.getType().equals(SlangTextualKeys.FLOW_TYPE),
                 "Executable: \'" + executable.getId() + "\' is not a flow, therefore it has no references");
         Map<String, Executable> resolvedDependencies = new HashMap<>();
-        return fetchFlowReferences(executable, availableDependencies, resolvedDependencies);
+        fetchFlowReferences(executable, executable, availableDependenciesById, resolvedDependencies);
+        return resolvedDependencies;
     }
 
-    private Map<String, Executable> fetchFlowReferences(Executable executable,
-                                                        Collection<Executable> availableDependencies,
-                                                        Map<String, Executable> resolvedDependencies) {
+    private void fetchFlowReferences(Executable executable,
+                                     Executable rootExecutable,
+                                     Map<String, Executable> availableDependenciesById,
+                                     Map<String, Executable> resolvedDependencies) {
         for (String refId : executable.getExecutableDependencies()) {
             //if it is already in the references we do nothing
             if (resolvedDependencies.get(refId) == null) {
-                Executable matchingRef = selectFirst(availableDependencies,
-                        having(on(Executable.class).getId(), equalTo(refId)));
+                Executable matchingRef = availableDependenciesById.get(refId);
+                if (matchingRef == null && refId.equals(rootExecutable.getId())) {
+                    matchingRef = rootExecutable;
+                }
                 if (matchingRef == null) {
                     throw new RuntimeException("Reference: \'" + refId + "\' in executable: \'" +
                             executable.getName() + "\', wasn't found in path");
@@ -110,12 +142,25 @@ public class DependenciesHelper {
                 resolvedDependencies.put(matchingRef.getId(), matchingRef);
                 if (matchingRef.getType().equals(SlangTextualKeys.FLOW_TYPE)) {
                     //if it is a flow  we recursively
-                    resolvedDependencies
-                            .putAll(fetchFlowReferences(matchingRef, availableDependencies, resolvedDependencies));
+                    fetchFlowReferences(matchingRef, rootExecutable, availableDependenciesById,
+                            resolvedDependencies);
                 }
             }
         }
-        return resolvedDependencies;
+    }
+
+    /**
+     * @param executables the executables to index
+     * @return the executables by id, the first one wins if several have the same id. Null elements are skipped.
+     */
+    public Map<String, Executable> indexById(Collection<Executable> executables) {
+        Map<String, Executable> executablesById = new HashMap<>();
+        for (Executable executable : executables) {
+            if (executable != null && !executablesById.containsKey(executable.getId())) {
+                executablesById.put(executable.getId(), executable);
+            }
+        }
+        return executablesById;
     }
 
     public Set<String> getSystemPropertiesForFlow(
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency graph of a set of sources, with a reverse index from executable ids to the sources referencing them.
+ * <p>
+ * A node is a source, identified by a key (usually its file path). It provides at most one executable id
+ * (none if it could not be modelled) and references the ids of its dependencies. References to ids that
+ * no node provides are kept as well, so that adding the missing source affects the nodes waiting for it.
+ * Providers are matched case insensitively, like duplicate executables are detected.
+ * <p>
+ * Instances are thread safe.
+ */
+public class DependencyGraph {
+
+    private final Map<String, String> nodeIds = new HashMap<>();
+
+    private final Map<String, Set<String>> nodeDependencies = new HashMap<>();
+
+    private final Map<String, Set<String>> providers = new HashMap<>();
+
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+
+    /**
+     * Add a node or replace its id and dependencies.
+     *
+     * @param node          the node key
+     * @param id            the id of the executable the node provides, null if it has none
+     * @param dependencyIds the ids the node references
+     */
+    public synchronized void putNode(String node, String id, Collection<String> dependencyIds) {
+        removeNode(node);
+        nodeIds.put(node, id);
+        if (id != null) {
+            addToIndex(providers, toProviderKey(id), node);
+        }
+        Set<String> dependencies = new HashSet<>(dependencyIds);
+        nodeDependencies.put(node, dependencies);
+        for (String dependencyId : dependencies) {
+            addToIndex(dependents, dependencyId, node);
+        }
+    }
+
+    public synchronized void removeNode(String node) {
+        if (!nodeIds.containsKey(node)) {
+            return;
+        }
+        String id = nodeIds.remove(node);
+        if (id != null) {
+            removeFromIndex(providers, toProviderKey(id), node);
+        }
+        for (String dependencyId : nodeDependencies.remove(node)) {
+            removeFromIndex(dependents, dependencyId, node);
+        }
+    }
+
+    public synchronized boolean containsNode(String node) {
+        return nodeIds.containsKey(node);
+    }
+
+    /**
+     * @param node the node key
+     * @return the id the node provides, null if it has none or is unknown
+     */
+    public synchronized String getId(String node) {
+        return nodeIds.get(node);
+    }
+
+    /**
+     * @param id an executable id, matched case insensitively
+     * @return the nodes providing the id
+     */
+    public synchronized Set<String> getProviders(String id) {
+        return copyOf(providers.get(toProviderKey(id)));
+    }
+
+    /**
+     * @param id an executable id
+     * @return the nodes referencing the id directly
+     */
+    public synchronized Set<String> getDependents(String id) {
+        return copyOf(dependents.get(id));
+    }
+
+    /**
+     * Find the nodes whose compilation depends on the given ids: the nodes providing one of them and the nodes
+     * whose transitive dependencies include one of them.
+     *
+     * @param ids the ids of changed executables
+     * @return the affected nodes
+     */
+    public synchronized Set<String> getAffectedNodes(Collection<String> ids) {
+        Set<String> affectedNodes = new LinkedHashSet<>();
+        Set<String> visitedIds = new HashSet<>();
+        Deque<String> idsToVisit = new ArrayDeque<>(ids);
+        while (!idsToVisit.isEmpty()) {
+            String id = idsToVisit.poll();
+            if (!visitedIds.add(id)) {
+                continue;
+            }
+            Set<String> idProviders = providers.get(toProviderKey(id));
+            if (idProviders != null) {
+                affectedNodes.addAll(idProviders);
+            }
+            Set<String> idDependents = dependents.get(id);
+            if (idDependents != null) {
+                for (String dependent : idDependents) {
+                    affectedNodes.add(dependent);
+                    String dependentId = nodeIds.get(dependent);
+                    if (dependentId != null) {
+                        idsToVisit.add(dependentId);
+                    }
+                }
+            }
+        }
+        return affectedNodes;
+    }
+
+    public synchronized void clear() {
+        nodeIds.clear();
+        nodeDependencies.clear();
+        providers.clear();
+        dependents.clear();
+    }
+
+    private static String toProviderKey(String id) {
+        return id.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static void addToIndex(Map<String, Set<String>> index, String key, String node) {
+        Set<String> nodes = index.get(key);
+        if (nodes == null) {
+            nodes = new HashSet<>();
+            index.put(key, nodes);
+        }
+        nodes.add(node);
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String key, String node) {
+        Set<String> nodes = index.get(key);
+        if (nodes != null) {
+            nodes.remove(node);
+            if (nodes.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> copyOf(Set<String> nodes) {
+        return nodes == null ? Collections.<String>emptySet() : new HashSet<>(nodes);
+    }
+}
@@ -52,6 +52,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -78,6 +79,8 @@ import static io.cloudslang.lang.entities.ScoreLangConstants.SUCCESS_RESULT;
 import static io.cloudslang.lang.entities.ScoreLangConstants.WARNING_RESULT;
 import static io.cloudslang.lang.compiler.utils.SlangSourceUtils.getNavigationStepName;
 import static io.cloudslang.lang.compiler.utils.SlangSourceUtils.getNavigationTarget;
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.intern;
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.internSet;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.apache.commons.collections4.MapUtils.isNotEmpty;
@@ -183,7 +186,7 @@ public class ExecutableBuilder {
                                                            Map<String, Object> executableRawData,
                                                            SensitivityLevel sensitivityLevel) {
         List<RuntimeException> errors = new ArrayList<>();
-        String execName = preCompileValidator.validateExecutableRawData(parsedSlang, executableRawData, errors);
+        String execName = intern(preCompileValidator.validateExecutableRawData(parsedSlang, executableRawData, errors));
         String workerGroup = (String)executableRawData.get(SlangTextualKeys.WORKER_GROUP);
         errors.addAll(preCompileValidator.checkKeyWords(
                 execName,
@@ -219,7 +222,7 @@ public class ExecutableBuilder {
                 (List<Result>) postExecutableActionData.remove(SlangTextualKeys.RESULTS_KEY);
         results = results == null ? new ArrayList<Result>() : results;
 
-        String namespace = parsedSlang.getNamespace();
+        String namespace = intern(parsedSlang.getNamespace());
         Set<String> systemPropertyDependencies = new HashSet<>();
 
         Executable executable;
@@ -267,9 +270,9 @@ public class ExecutableBuilder {
                         inputs,
                         outputs,
                         results,
-                        executableDependencies,
-                        externalExecutableDependencies,
-                        systemPropertyDependencies
+                        internSet(executableDependencies),
+                        internSet(externalExecutableDependencies),
+                        internSet(systemPropertyDependencies)
                 );
 
                 break;
@@ -324,8 +327,8 @@ public class ExecutableBuilder {
                         inputs,
                         outputs,
                         results,
-                        executableDependencies,
-                        systemPropertyDependencies
+                        internSet(executableDependencies),
+                        internSet(systemPropertyDependencies)
                 );
 
                 break;
@@ -353,7 +356,7 @@ public class ExecutableBuilder {
                         outputs,
                         results,
                         Collections.<String>emptySet(),
-                        systemPropertyDependencies
+                        internSet(systemPropertyDependencies)
                 );
 
                 break;
@@ -685,26 +688,36 @@ public class ExecutableBuilder {
                             Map<String, Serializable> postStepData, List<Argument> arguments,
                             String workerGroup, String robotGroup, String refId,
                             List<Map<String, Serializable>> navigationStrings) {
+        if (onFailureSection) {
+            // the score compiler adds the custom results of the on failure reference while other
+            // compilations of the same model may be reading the navigation
+            List<Map<String, Serializable>> concurrentNavigationStrings =
+                    new CopyOnWriteArrayList<>(navigationStrings);
+            if (postStepData.get(NAVIGATION_KEY) == navigationStrings) {
+                postStepData.put(NAVIGATION_KEY, (Serializable) concurrentNavigationStrings);
+            }
+            navigationStrings = concurrentNavigationStrings;
+        }
         if (preStepData.containsKey(DO_EXTERNAL_KEY)) {
-            return new ExternalStep(stepName,
+            return new ExternalStep(intern(stepName),
                     preStepData,
                     postStepData,
                     arguments,
                     navigationStrings,
-                    refId,
-                    workerGroup,
+                    intern(refId),
+                    intern(workerGroup),
                     preStepData.containsKey(SlangTextualKeys.PARALLEL_LOOP_KEY),
                     onFailureSection);
         } else {
             return new Step(
-                    stepName,
+                    intern(stepName),
                     preStepData,
                     postStepData,
                     arguments,
                     navigationStrings,
-                    refId,
-                    workerGroup,
-                    robotGroup,
+                    intern(refId),
+                    intern(workerGroup),
+                    intern(robotGroup),
                     preStepData.containsKey(SlangTextualKeys.PARALLEL_LOOP_KEY),
                     onFailureSection);
         }
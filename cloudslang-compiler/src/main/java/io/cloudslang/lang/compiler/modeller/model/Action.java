@@ -18,7 +18,9 @@ package io.cloudslang.lang.compiler.modeller.model;
 import java.io.Serializable;
 import java.util.Map;
 
-public class Action {
+public class Action implements Serializable {
+
+    private static final long serialVersionUID = 5829343298631886456L;
 
     private final Map<String, Serializable> actionData;
 
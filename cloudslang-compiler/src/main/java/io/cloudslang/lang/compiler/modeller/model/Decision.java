@@ -25,6 +25,8 @@ import java.util.Set;
  */
 public class Decision extends Executable {
 
+    private static final long serialVersionUID = -665164790977472575L;
+
     public Decision(
             Map<String, Serializable> preExecActionData,
             Map<String, Serializable> postExecActionData,
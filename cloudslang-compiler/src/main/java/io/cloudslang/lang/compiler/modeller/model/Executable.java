@@ -16,6 +16,8 @@ import io.cloudslang.lang.entities.constants.Regex;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +27,9 @@ import java.util.Set;
 /*
  * Created by orius123 on 05/11/14.
  */
-public abstract class Executable {
+public abstract class Executable implements Serializable {
+
+    private static final long serialVersionUID = 6970126346341786989L;
 
     protected final Map<String, Serializable> preExecActionData;
     protected final Map<String, Serializable> postExecActionData;
@@ -38,6 +42,7 @@ public abstract class Executable {
     protected final Set<String> externalExecutableDependencies;
     protected final Set<String> systemPropertyDependencies;
     private transient String id;
+    private String sourceFingerprint;
 
     protected Executable(Map<String, Serializable> preExecActionData,
                          Map<String, Serializable> postExecActionData,
@@ -128,8 +133,25 @@ public abstract class Executable {
         return systemPropertyDependencies;
     }
 
+    /**
+     * @return the fingerprint of the source and options the model was created from, or null if unknown
+     */
+    public String getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public void setSourceFingerprint(String sourceFingerprint) {
+        this.sourceFingerprint = sourceFingerprint;
+    }
+
     public abstract String getType();
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // id is transient, so it is derived again after deserialization
+        this.id = namespace + Regex.NAMESPACE_PROPERTY_DELIMITER + name;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
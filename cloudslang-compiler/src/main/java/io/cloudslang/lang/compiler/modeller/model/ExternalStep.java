@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 public class ExternalStep extends Step {
+    private static final long serialVersionUID = 6772808007039181501L;
     private boolean validation;
 
     public ExternalStep(
@@ -9,7 +9,11 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler.modeller.transformers;
 
+import io.cloudslang.lang.entities.bindings.InOutParam;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.utils.ConstantExpressionUtils;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import org.apache.commons.collections4.CollectionUtils;
 
@@ -17,6 +21,8 @@ import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.internSet;
+
 public class AbstractInOutForTransformer {
 
     protected Accumulator extractFunctionData(Serializable... values) {
@@ -45,7 +51,25 @@ public class AbstractInOutForTransformer {
             }
         }
 
-        return new Accumulator(functionDependencies, systemPropertyDependencies);
+        return new Accumulator(internSet(functionDependencies), internSet(systemPropertyDependencies));
+    }
+
+    /**
+     * Evaluates the expression of the parameter now if it does not depend on the run context,
+     * so that the runtime does not need to evaluate it on every execution. Sensitive values are left to the runtime.
+     *
+     * @param valueType the type the runtime accepts for the value of the expression
+     */
+    protected <T extends InOutParam> T foldConstantExpression(T param, Class<? extends Serializable> valueType) {
+        Value value = param.getValue();
+        if (value != null && !value.isSensitive()) {
+            Serializable foldedValue =
+                    ConstantExpressionUtils.evaluate(ExpressionUtils.extractExpression(value.get()));
+            if (valueType.isInstance(foldedValue)) {
+                param.setFoldedValue(ValueFactory.create(foldedValue));
+            }
+        }
+        return param;
     }
 
     protected static class Accumulator {
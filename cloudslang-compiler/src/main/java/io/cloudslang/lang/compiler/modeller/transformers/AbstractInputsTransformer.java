@@ -34,6 +34,7 @@ import static io.cloudslang.lang.compiler.SlangTextualKeys.PROMPT_OPTIONS_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.PROMPT_TYPE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.REQUIRED_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.SENSITIVE_KEY;
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.intern;
 import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.collections4.MapUtils.isNotEmpty;
@@ -165,13 +166,14 @@ public abstract class AbstractInputsTransformer extends InOutTransformer {
         }
 
         Accumulator dependencyAccumulator = extractFunctionData(value, messageValue);
-        return new Input.InputBuilder(name, value, sensitive, sensitivityLevel)
+        Input input = new Input.InputBuilder(intern(name), value, sensitive, sensitivityLevel)
                 .withRequired(required)
                 .withPrivateInput(privateInput)
                 .withFunctionDependencies(dependencyAccumulator.getFunctionDependencies())
                 .withSystemPropertyDependencies(dependencyAccumulator.getSystemPropertyDependencies())
                 .withPrompt(prompt)
                 .build();
+        return foldConstantExpression(input, String.class);
     }
 
     public void setPreCompileValidator(PreCompileValidator preCompileValidator) {
@@ -29,6 +29,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.SENSITIVE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.VALUE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.SEQ_OUTPUT_ROBOT_KEY;
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.intern;
 import static java.lang.String.format;
 
 
@@ -107,12 +108,13 @@ public abstract class AbstractOutputsTransformer extends InOutTransformer {
         executableValidator.validateOutputName(outputName);
         preCompileValidator.validateStringValue(outputName, outputExpression, this);
         Accumulator accumulator = extractFunctionData(outputExpression);
-        return new Output(
-                outputName,
+        Output output = new Output(
+                intern(outputName),
                 ValueFactory.create(outputExpression, sensitive, sensitivityLevel),
                 accumulator.getFunctionDependencies(),
                 accumulator.getSystemPropertyDependencies()
         );
+        return foldConstantExpression(output, String.class);
     }
 
     Output createRefOutput(String rawOutput, boolean sensitive, SensitivityLevel sensitivityLevel) {
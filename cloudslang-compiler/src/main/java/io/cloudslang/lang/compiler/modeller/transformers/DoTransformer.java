@@ -34,6 +34,7 @@ import java.util.Map;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.PROMPT_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.SENSITIVE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.VALUE_KEY;
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.intern;
 import static java.lang.String.format;
 import static org.apache.commons.collections4.MapUtils.isNotEmpty;
 
@@ -208,7 +209,7 @@ public class DoTransformer extends InOutTransformer implements Transformer<Map<S
 
         Accumulator accumulator = extractFunctionData(entryValue, messageValue);
         return new Argument(
-                entryName,
+                intern(entryName),
                 ValueFactory.create(entryValue, sensitive, sensitivityLevel),
                 accumulator.getFunctionDependencies(),
                 accumulator.getSystemPropertyDependencies(),
@@ -34,6 +34,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.intern;
+import static io.cloudslang.lang.compiler.utils.ModelInternUtils.noExpressionResult;
+
 public class ResultsTransformer extends InOutTransformer implements Transformer<List, List<Result>> {
 
     private PreCompileValidator preCompileValidator;
@@ -129,15 +132,16 @@ public class ResultsTransformer extends InOutTransformer implements Transformer<
     private Result createExpressionResult(String resultName, Serializable resultValue) {
         executableValidator.validateResultName(resultName);
         if (resultValue == null) {
-            return new Result(resultName, null);
+            return noExpressionResult(resultName);
         } else {
             Accumulator accumulator = extractFunctionData(resultValue);
-            return new Result(
-                    resultName,
+            Result result = new Result(
+                    intern(resultName),
                     ValueFactory.create(resultValue),
                     accumulator.getFunctionDependencies(),
                     accumulator.getSystemPropertyDependencies()
             );
+            return foldConstantExpression(result, Boolean.class);
         }
     }
 
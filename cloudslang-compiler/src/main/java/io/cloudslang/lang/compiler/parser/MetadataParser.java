@@ -11,6 +11,8 @@ package io.cloudslang.lang.compiler.parser;
 
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.parser.model.ParsedDescriptionData;
+import io.cloudslang.lang.compiler.parser.utils.DescriptionLineScanner;
+import io.cloudslang.lang.compiler.parser.utils.DescriptionLineScanner.ScannedLine;
 import io.cloudslang.lang.compiler.parser.utils.ParserExceptionHandler;
 import io.cloudslang.lang.compiler.utils.MetadataUtils;
 import io.cloudslang.lang.compiler.utils.SlangSourceUtils;
@@ -18,71 +20,77 @@ import io.cloudslang.lang.compiler.validator.matcher.DescriptionPatternMatcher;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.Validate;
-import org.apache.commons.lang3.tuple.Pair;
 
 public class MetadataParser {
     private ParserExceptionHandler parserExceptionHandler;
     private DescriptionPatternMatcher descriptionPatternMatcher;
+    private DescriptionLineScanner descriptionLineScanner;
 
     public MetadataParser() {
         descriptionPatternMatcher = new DescriptionPatternMatcher();
+        descriptionLineScanner = new DescriptionLineScanner();
     }
 
     public ParsedDescriptionData parse(SlangSource source) {
         Validate.notNull(source.getContent(), "Source " + source.getName() + " cannot be null");
+        return parse(source, SlangSourceUtils.readLines(source));
+    }
+
+    /**
+     * Parses the description of a source whose content was already split into lines,
+     * so that callers running several passes over the same source read it only once.
+     *
+     * @param source the source, used for error messages
+     * @param lines  the lines of the source content, as returned by {@link SlangSourceUtils#readLines(SlangSource)}
+     * @return the parsed description data
+     */
+    public ParsedDescriptionData parse(SlangSource source, List<String> lines) {
+        Validate.notNull(lines, "Lines of source " + source.getName() + " cannot be null");
         try {
-            return extractDescriptionData(source);
+            return processRawLines(lines);
         } catch (Throwable e) {
             throw new RuntimeException("There was a problem parsing the description: " +
                     source.getName() + "." + System.lineSeparator() + parserExceptionHandler.getErrorMessage(e), e);
         }
     }
 
-    private ParsedDescriptionData extractDescriptionData(SlangSource source) {
-        List<String> lines = SlangSourceUtils.readLines(source);
-        return processRawLines(lines);
-    }
-
     private ParsedDescriptionData processRawLines(List<String> lines) {
         DescriptionBuilder descriptionBuilder = new DescriptionBuilder();
         for (int lineNrZeroBased = 0; lineNrZeroBased < lines.size(); lineNrZeroBased++) {
             String currentLine = lines.get(lineNrZeroBased);
+            ScannedLine scannedLine = descriptionLineScanner.scan(currentLine);
 
-            // block start -  #!!
-            if (descriptionPatternMatcher.matchesDescriptionStart(currentLine)) {
-                handleBlockStart(descriptionBuilder, lineNrZeroBased);
-            } else
+            switch (scannedLine.getType()) {
+                // block start -  #!!
+                case DESCRIPTION_START:
+                    handleBlockStart(descriptionBuilder, lineNrZeroBased);
+                    break;
                 // #!!#
-                if (descriptionPatternMatcher.matchesDescriptionEnd(currentLine)) {
+                case DESCRIPTION_END:
                     handleDescriptionEnd(descriptionBuilder, lines, lineNrZeroBased);
-                } else {
-                    // #! @tag var: content <=> @tag var
-                    if (descriptionPatternMatcher.matchesDescriptionVariableLine(currentLine)) {
-                        handleDescriptionLineVariableSyntax(descriptionBuilder, currentLine);
-                    } else
-                        // #! @tag: content
-                        if (descriptionPatternMatcher.matchesDescriptionGeneralLine(currentLine)) {
-                            handleDescriptionLineGeneralSyntax(descriptionBuilder, currentLine);
-                        } else {
-                            if (descriptionPatternMatcher.matchesVariableLineDeclarationOnlyLine(currentLine)) {
-                                handleDescriptionLineVariableDeclarationOnlySyntax(descriptionBuilder, currentLine);
-                            } else {
-                                // #! continued from previous line
-                                if (descriptionPatternMatcher.matchesDescriptionComplementaryLine(currentLine)) {
-                                    handleDescriptionLineComplementarySyntax(descriptionBuilder, currentLine);
-                                } else {
-                                    // check if line is allowed inside description
-                                    if (descriptionBuilder.descriptionOpened()) {
-                                        handleNonDescriptionLineInsideDescription(
-                                                descriptionBuilder,
-                                                currentLine,
-                                                lineNrZeroBased
-                                        );
-                                    }
-                                }
-                            }
-                        }
-                }
+                    break;
+                // #! @tag var: content <=> @tag var
+                // #! @tag: content
+                case VARIABLE_LINE:
+                case GENERAL_LINE:
+                case VARIABLE_DECLARATION_ONLY_LINE:
+                    handleDescriptionLineTagSyntax(descriptionBuilder, scannedLine);
+                    break;
+                // #! continued from previous line
+                case COMPLEMENTARY_LINE:
+                    handleDescriptionLineComplementarySyntax(descriptionBuilder, scannedLine);
+                    break;
+                default:
+                    // check if line is allowed inside description
+                    if (descriptionBuilder.descriptionOpened()) {
+                        handleNonDescriptionLineInsideDescription(
+                                descriptionBuilder,
+                                currentLine,
+                                lineNrZeroBased
+                        );
+                    }
+                    break;
+            }
         }
         return descriptionBuilder.build();
     }
@@ -133,9 +141,7 @@ public class MetadataParser {
 
             if (inRange(lineNr, nrOfLines)) {
                 // investigate line
-                if (descriptionPatternMatcher.matchesStepStartLine(currentLine)) {
-                    stepName = descriptionPatternMatcher.getStepName(currentLine);
-                }
+                stepName = descriptionLineScanner.getStepName(currentLine);
             }
         }
 
@@ -143,53 +149,29 @@ public class MetadataParser {
     }
 
     private boolean isIgnorableLine(String line) {
-        return StringUtils.isBlank(line) || descriptionPatternMatcher.matchesCommentLine(line);
+        return StringUtils.isBlank(line) || descriptionLineScanner.isCommentLine(line);
     }
 
     private boolean inRange(int nr, int nrOfLines) {
         return nr < nrOfLines;
     }
 
-    private void handleDescriptionLineComplementarySyntax(DescriptionBuilder descriptionBuilder, String currentLine) {
+    private void handleDescriptionLineComplementarySyntax(DescriptionBuilder descriptionBuilder,
+                                                          ScannedLine scannedLine) {
         // if description is opened
         if (descriptionBuilder.descriptionOpened()) {
             // add
-            String data = descriptionPatternMatcher.getDescriptionComplementaryLineData(currentLine);
-            data = data.trim();
+            String data = scannedLine.getContent().trim();
             descriptionBuilder.addToDescriptionToMostRecentlyUsedTag(data);
         }
         // otherwise ignore
     }
 
-    private void handleDescriptionLineGeneralSyntax(DescriptionBuilder descriptionBuilder, String currentLine) {
-        // if description is opened
-        if (descriptionBuilder.descriptionOpened()) {
-            // add
-            Pair<String, String> data = descriptionPatternMatcher.getDescriptionGeneralLineData(currentLine);
-            descriptionBuilder.addToDescription(data.getLeft(), data.getRight());
-        }
-        // otherwise ignore
-    }
-
-    private void handleDescriptionLineVariableSyntax(DescriptionBuilder descriptionBuilder, String currentLine) {
-        // if description is opened
-        if (descriptionBuilder.descriptionOpened()) {
-            // add
-            Pair<String, String> data = descriptionPatternMatcher.getDescriptionVariableLineData(currentLine);
-            descriptionBuilder.addToDescription(data.getLeft(), data.getRight());
-        }
-        // otherwise ignore
-    }
-
-    private void handleDescriptionLineVariableDeclarationOnlySyntax(
-            DescriptionBuilder descriptionBuilder,
-            String currentLine) {
+    private void handleDescriptionLineTagSyntax(DescriptionBuilder descriptionBuilder, ScannedLine scannedLine) {
         // if description is opened
         if (descriptionBuilder.descriptionOpened()) {
             // add
-            Pair<String, String> data =
-                    descriptionPatternMatcher.getDescriptionVariableLineDataDeclarationOnly(currentLine);
-            descriptionBuilder.addToDescription(data.getLeft(), data.getRight());
+            descriptionBuilder.addToDescription(scannedLine.getDeclaration(), scannedLine.getContent());
         }
         // otherwise ignore
     }
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser;
+
+import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.cloudslang.lang.compiler.SlangTextualKeys.EXTENSIONS_KEY;
+import static io.cloudslang.lang.compiler.SlangTextualKeys.NAMESPACE_KEY;
+import static io.cloudslang.lang.compiler.SlangTextualKeys.OBJECT_REPOSITORY_KEY;
+
+/**
+ * Builds a {@link ParsedSlang} straight from the SnakeYAML event stream, without composing a node graph
+ * and without bean introspection.
+ * <p>
+ * It produces the same maps, lists and scalars as the {@link org.yaml.snakeyaml.Yaml} loader for the
+ * constructs CloudSlang sources use. Anything else (explicit tags, merge keys, complex keys, unknown top level
+ * keys, several documents) makes {@link #read(String)} return null so that the caller can fall back to the
+ * full loader, which also produces the established error messages.
+ * Syntax errors are thrown as the usual SnakeYAML exceptions, with their line and column marks.
+ * <p>
+ * Instances are not thread safe.
+ */
+public class ParsedSlangEventReader {
+
+    private static final String IMPORTS_KEY = "imports";
+
+    private static final Set<Tag> SUPPORTED_SCALAR_TAGS = new HashSet<>(Arrays.asList(
+            Tag.STR, Tag.INT, Tag.FLOAT, Tag.BOOL, Tag.NULL, Tag.TIMESTAMP));
+
+    private final Resolver resolver = new Resolver();
+
+    private final ScalarConstructor scalarConstructor = new ScalarConstructor();
+
+    /**
+     * @param content YAML content of a CloudSlang source
+     * @return the parsed source, or null if the content needs the full loader
+     */
+    public ParsedSlang read(String content) {
+        Parser parser = new ParserImpl(new StreamReader(content));
+        try {
+            return readStream(parser);
+        } catch (UnsupportedConstructException ex) {
+            return null;
+        }
+    }
+
+    private ParsedSlang readStream(Parser parser) {
+        expect(parser.getEvent(), Event.ID.StreamStart);
+        expect(parser.getEvent(), Event.ID.DocumentStart);
+
+        Event rootEvent = parser.getEvent();
+        expect(rootEvent, Event.ID.MappingStart);
+        checkImplicitTag(((CollectionStartEvent) rootEvent).getTag());
+
+        Map<String, Object> anchors = new HashMap<>();
+        ParsedSlang parsedSlang = new ParsedSlang();
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Object key = readValue(parser, parser.getEvent(), anchors);
+            Object value = readValue(parser, parser.getEvent(), anchors);
+            setSection(parsedSlang, key, value);
+        }
+        parser.getEvent();
+
+        expect(parser.getEvent(), Event.ID.DocumentEnd);
+        expect(parser.getEvent(), Event.ID.StreamEnd);
+        return parsedSlang;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setSection(ParsedSlang parsedSlang, Object key, Object value) {
+        if (NAMESPACE_KEY.equals(key) && (value == null || value instanceof String)) {
+            parsedSlang.setNamespace((String) value);
+        } else if (IMPORTS_KEY.equals(key) && isStringMap(value)) {
+            parsedSlang.setImports((Map<String, String>) value);
+        } else if (ParsedSlang.Type.FLOW.key().equals(key) && value instanceof Map) {
+            parsedSlang.setFlow((Map<String, Object>) value);
+        } else if (ParsedSlang.Type.OPERATION.key().equals(key) && value instanceof Map) {
+            parsedSlang.setOperation((Map<String, Object>) value);
+        } else if (ParsedSlang.Type.DECISION.key().equals(key) && value instanceof Map) {
+            parsedSlang.setDecision((Map<String, Object>) value);
+        } else if (ParsedSlang.Type.SYSTEM_PROPERTY_FILE.key().equals(key)) {
+            parsedSlang.setProperties(value);
+        } else if (EXTENSIONS_KEY.equals(key)) {
+            parsedSlang.setExtensions(value);
+        } else if (OBJECT_REPOSITORY_KEY.equals(key) && value instanceof Map) {
+            parsedSlang.setObjectRepository((Map<String, Object>) value);
+        } else {
+            throw new UnsupportedConstructException();
+        }
+    }
+
+    /**
+     * Imports with keys or values of other types, such as {@code ops: 2017}, are left to the typed loader.
+     */
+    private boolean isStringMap(Object value) {
+        if (!(value instanceof Map)) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readValue(Parser parser, Event event, Map<String, Object> anchors) {
+        if (event.is(Event.ID.Alias)) {
+            String anchor = ((AliasEvent) event).getAnchor();
+            // an alias to an unfinished (recursive) anchor is left to the full loader
+            if (!anchors.containsKey(anchor)) {
+                throw new UnsupportedConstructException();
+            }
+            return anchors.get(anchor);
+        }
+
+        Object value;
+        if (event.is(Event.ID.Scalar)) {
+            value = constructScalar((ScalarEvent) event);
+        } else if (event.is(Event.ID.SequenceStart)) {
+            checkImplicitTag(((CollectionStartEvent) event).getTag());
+            value = readSequence(parser, anchors);
+        } else if (event.is(Event.ID.MappingStart)) {
+            checkImplicitTag(((CollectionStartEvent) event).getTag());
+            value = readMapping(parser, anchors);
+        } else {
+            throw new UnsupportedConstructException();
+        }
+
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) {
+            anchors.put(anchor, value);
+        }
+        return value;
+    }
+
+    private List<Object> readSequence(Parser parser, Map<String, Object> anchors) {
+        List<Object> sequence = new ArrayList<>();
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            sequence.add(readValue(parser, parser.getEvent(), anchors));
+        }
+        parser.getEvent();
+        return sequence;
+    }
+
+    private Map<Object, Object> readMapping(Parser parser, Map<String, Object> anchors) {
+        Map<Object, Object> mapping = new LinkedHashMap<>();
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Event keyEvent = parser.getEvent();
+            if (!keyEvent.is(Event.ID.Scalar)) {
+                throw new UnsupportedConstructException();
+            }
+            Object key = readValue(parser, keyEvent, anchors);
+            Object value = readValue(parser, parser.getEvent(), anchors);
+            // like the loader, the last duplicate key wins and takes the position of its last occurrence
+            mapping.remove(key);
+            mapping.put(key, value);
+        }
+        parser.getEvent();
+        return mapping;
+    }
+
+    private Object constructScalar(ScalarEvent event) {
+        checkImplicitTag(event.getTag());
+        String value = event.getValue();
+        Tag tag = resolver.resolve(NodeId.scalar, value, event.getImplicit().canOmitTagInPlainScalar());
+        if (Tag.STR.equals(tag)) {
+            return value;
+        }
+        if (!SUPPORTED_SCALAR_TAGS.contains(tag)) {
+            throw new UnsupportedConstructException();
+        }
+        return scalarConstructor.construct(new ScalarNode(tag, true, value,
+                event.getStartMark(), event.getEndMark(), event.getScalarStyle()));
+    }
+
+    private void checkImplicitTag(String tag) {
+        if (tag != null && !"!".equals(tag)) {
+            throw new UnsupportedConstructException();
+        }
+    }
+
+    private void expect(Event event, Event.ID id) {
+        if (!event.is(id)) {
+            throw new UnsupportedConstructException();
+        }
+    }
+
+    /**
+     * Exposes the standard scalar constructors, so int, float, bool, null and timestamp values
+     * are converted exactly as the loader converts them.
+     */
+    private static class ScalarConstructor extends SafeConstructor {
+        Object construct(ScalarNode node) {
+            return getConstructor(node).construct(node);
+        }
+    }
+
+    private static class UnsupportedConstructException extends RuntimeException {
+        UnsupportedConstructException() {
+            super(null, null, false, false);
+        }
+    }
+}
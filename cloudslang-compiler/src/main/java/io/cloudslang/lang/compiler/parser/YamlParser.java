@@ -23,6 +23,14 @@ import org.yaml.snakeyaml.Yaml;
 
 public abstract class YamlParser {
 
+    public static final String EVENT_PARSER_PROPERTY = "cslang.compiler.yaml.event.parser";
+
+    private final ThreadLocal<ParsedSlangEventReader> eventReader =
+            ThreadLocal.withInitial(ParsedSlangEventReader::new);
+
+    private boolean eventParserEnabled =
+            Boolean.parseBoolean(System.getProperty(EVENT_PARSER_PROPERTY, Boolean.TRUE.toString()));
+
     private ParserExceptionHandler parserExceptionHandler;
 
     private ExecutableValidator executableValidator;
@@ -58,7 +66,11 @@ public abstract class YamlParser {
         Validate.notEmpty(source.getContent(), "Source " + source.getName() + " cannot be empty");
 
         try {
-            ParsedSlang parsedSlang = getYaml().loadAs(source.getContent(), ParsedSlang.class);
+            ParsedSlang parsedSlang = eventParserEnabled ? eventReader.get().read(source.getContent()) : null;
+            if (parsedSlang == null) {
+                // constructs the event reader does not handle, and all error reporting, go through the loader
+                parsedSlang = getYaml().loadAs(source.getContent(), ParsedSlang.class);
+            }
             if (parsedSlang == null) {
                 throw new RuntimeException("Source " + source.getName() + " does not contain YAML content");
             }
@@ -79,4 +91,8 @@ public abstract class YamlParser {
     public void setExecutableValidator(ExecutableValidator executableValidator) {
         this.executableValidator = executableValidator;
     }
+
+    public void setEventParserEnabled(boolean eventParserEnabled) {
+        this.eventParserEnabled = eventParserEnabled;
+    }
 }
@@ -61,6 +61,38 @@ public class ParsedSlang {
         return decision;
     }
 
+    public void setImports(Map<String, String> imports) {
+        this.imports = imports;
+    }
+
+    public void setFlow(Map<String, Object> flow) {
+        this.flow = flow;
+    }
+
+    public void setOperation(Map<String, Object> operation) {
+        this.operation = operation;
+    }
+
+    public void setDecision(Map<String, Object> decision) {
+        this.decision = decision;
+    }
+
+    public void setProperties(Object properties) {
+        this.properties = properties;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public void setExtensions(Object extensions) {
+        this.extensions = extensions;
+    }
+
+    public void setObjectRepository(Map<String, Object> objectRepository) {
+        this.objectRepository = objectRepository;
+    }
+
     public Type getType() {
         if (flow != null) {
             return Type.FLOW;
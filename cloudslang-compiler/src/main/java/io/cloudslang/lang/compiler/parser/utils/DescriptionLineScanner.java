@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser.utils;
+
+import io.cloudslang.lang.entities.constants.Regex;
+
+/**
+ * Classifies description lines in a single pass over their characters.
+ * <p>
+ * The result is the same as trying the description patterns of
+ * {@link io.cloudslang.lang.compiler.validator.matcher.DescriptionPatternMatcher} one after the other,
+ * in the order of {@link LineType}, and extracting their groups: whitespace is the Unicode White_Space set
+ * and content may not span a line terminator, as in the patterns.
+ */
+public class DescriptionLineScanner {
+
+    private static final ScannedLine START_LINE = new ScannedLine(LineType.DESCRIPTION_START, null, null);
+    private static final ScannedLine END_LINE = new ScannedLine(LineType.DESCRIPTION_END, null, null);
+    private static final ScannedLine OTHER_LINE = new ScannedLine(LineType.OTHER, null, null);
+
+    public enum LineType {
+        // #!!
+        DESCRIPTION_START,
+        // #!!#
+        DESCRIPTION_END,
+        // #! @tag var: content
+        VARIABLE_LINE,
+        // #! @tag: content
+        GENERAL_LINE,
+        // #! @tag var
+        VARIABLE_DECLARATION_ONLY_LINE,
+        // #! continued from previous line
+        COMPLEMENTARY_LINE,
+        OTHER
+    }
+
+    public ScannedLine scan(String line) {
+        int length = line.length();
+        int tokenStart = skipWhitespace(line, 0);
+        if (!line.startsWith(Regex.DESCRIPTION_TOKEN, tokenStart)) {
+            return OTHER_LINE;
+        }
+
+        int dataStart = tokenStart + Regex.DESCRIPTION_TOKEN.length();
+        if (dataStart < length && line.charAt(dataStart) == '!') {
+            if (dataStart + 1 == length || line.charAt(dataStart + 1) != '#') {
+                return START_LINE;
+            }
+            return hasNoLineTerminator(line, dataStart + 2) ? END_LINE : OTHER_LINE;
+        }
+
+        ScannedLine tagLine = scanTagLine(line, skipWhitespace(line, dataStart));
+        if (tagLine != null) {
+            return tagLine;
+        }
+        // like the repeated pattern group, the data starts at the last line terminator
+        return new ScannedLine(LineType.COMPLEMENTARY_LINE, null,
+                line.substring(lastLineTerminatorIndex(line, dataStart)));
+    }
+
+    /**
+     * @return the step name of a '- step_name:' line, null for any other line
+     */
+    public String getStepName(String line) {
+        int length = line.length();
+        int dashIndex = skipWhitespace(line, 0);
+        if (dashIndex == length || line.charAt(dashIndex) != '-') {
+            return null;
+        }
+        int nameStart = skipWhitespace(line, dashIndex + 1);
+        if (nameStart == length || !Character.isLetter(line.codePointAt(nameStart))) {
+            return null;
+        }
+        int nameEnd = nameStart;
+        while (nameEnd < length) {
+            int codePoint = line.codePointAt(nameEnd);
+            if (!isWordCharacter(codePoint)) {
+                break;
+            }
+            nameEnd += Character.charCount(codePoint);
+        }
+        if (nameEnd == length || line.charAt(nameEnd) != ':' || !hasNoLineTerminator(line, nameEnd + 1)) {
+            return null;
+        }
+        return line.substring(nameStart, nameEnd);
+    }
+
+    public boolean isCommentLine(String line) {
+        int commentStart = skipWhitespace(line, 0);
+        return commentStart < line.length() && line.charAt(commentStart) == '#' &&
+                hasNoLineTerminator(line, commentStart + 1);
+    }
+
+    private ScannedLine scanTagLine(String line, int tagStart) {
+        int length = line.length();
+        if (tagStart == length || line.charAt(tagStart) != '@') {
+            return null;
+        }
+        int tagEnd = skipDeclarationPart(line, tagStart + 1);
+        if (tagEnd == tagStart + 1) {
+            return null;
+        }
+        if (tagEnd == length) {
+            return new ScannedLine(LineType.VARIABLE_DECLARATION_ONLY_LINE, line.substring(tagStart), "");
+        }
+        if (line.charAt(tagEnd) == ':') {
+            return contentLine(LineType.GENERAL_LINE, line, tagStart, tagEnd, tagEnd);
+        }
+
+        int nameStart = skipWhitespace(line, tagEnd);
+        int nameEnd = skipDeclarationPart(line, nameStart);
+        if (nameEnd == length) {
+            return new ScannedLine(LineType.VARIABLE_DECLARATION_ONLY_LINE, line.substring(tagStart), "");
+        }
+        if (nameEnd == nameStart) {
+            return contentLine(LineType.GENERAL_LINE, line, tagStart, tagEnd, nameStart);
+        }
+        int separatorIndex = skipWhitespace(line, nameEnd);
+        if (separatorIndex < length && line.charAt(separatorIndex) == ':') {
+            return contentLine(LineType.VARIABLE_LINE, line, tagStart, nameEnd, separatorIndex);
+        }
+        return null;
+    }
+
+    private ScannedLine contentLine(LineType type, String line, int declarationStart, int declarationEnd,
+                                    int separatorIndex) {
+        int contentStart = skipWhitespace(line, separatorIndex + 1);
+        if (!hasNoLineTerminator(line, contentStart)) {
+            return null;
+        }
+        return new ScannedLine(type, line.substring(declarationStart, declarationEnd),
+                line.substring(contentStart));
+    }
+
+    private int skipWhitespace(String line, int index) {
+        while (index < line.length() && isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private int skipDeclarationPart(String line, int index) {
+        while (index < line.length() && line.charAt(index) != ':' && !isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private boolean hasNoLineTerminator(String line, int index) {
+        for (; index < line.length(); index++) {
+            if (isLineTerminator(line.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lastLineTerminatorIndex(String line, int fromIndex) {
+        for (int index = line.length() - 1; index > fromIndex; index--) {
+            if (isLineTerminator(line.charAt(index))) {
+                return index;
+            }
+        }
+        return fromIndex;
+    }
+
+    /**
+     * Unicode White_Space, the \s class of the patterns.
+     */
+    private boolean isWhitespace(char character) {
+        switch (Character.getType(character)) {
+            case Character.SPACE_SEPARATOR:
+            case Character.LINE_SEPARATOR:
+            case Character.PARAGRAPH_SEPARATOR:
+                return true;
+            default:
+                return (character >= '\t' && character <= '\r') || character == '\u0085';
+        }
+    }
+
+    /**
+     * Characters not matched by the . of the patterns.
+     */
+    private boolean isLineTerminator(char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' ||
+                character == '\u2028' || character == '\u2029';
+    }
+
+    /**
+     * The \w class of the patterns.
+     */
+    private boolean isWordCharacter(int codePoint) {
+        if (Character.isAlphabetic(codePoint)) {
+            return true;
+        }
+        switch (Character.getType(codePoint)) {
+            case Character.NON_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+            case Character.COMBINING_SPACING_MARK:
+            case Character.DECIMAL_DIGIT_NUMBER:
+            case Character.CONNECTOR_PUNCTUATION:
+                return true;
+            default:
+                return codePoint == '\u200C' || codePoint == '\u200D';
+        }
+    }
+
+    public static class ScannedLine {
+        private final LineType type;
+        private final String declaration;
+        private final String content;
+
+        ScannedLine(LineType type, String declaration, String content) {
+            this.type = type;
+            this.declaration = declaration;
+            this.content = content;
+        }
+
+        public LineType getType() {
+            return type;
+        }
+
+        /**
+         * @return the tag, with the variable name if any, of the tag lines
+         */
+        public String getDeclaration() {
+            return declaration;
+        }
+
+        /**
+         * @return the content of the tag and complementary lines
+         */
+        public String getContent() {
+            return content;
+        }
+    }
+}
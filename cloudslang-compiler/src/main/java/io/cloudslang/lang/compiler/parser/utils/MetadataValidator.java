@@ -10,8 +10,16 @@
 package io.cloudslang.lang.compiler.parser.utils;
 
 import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.parser.model.ParsedDescriptionData;
 import java.util.List;
 
 public interface MetadataValidator {
     List<RuntimeException> validateCheckstyle(SlangSource source);
+
+    /**
+     * Same as {@link #validateCheckstyle(SlangSource)}, reusing the lines and the description data
+     * that the caller already extracted from the source.
+     */
+    List<RuntimeException> validateCheckstyle(SlangSource source, List<String> lines,
+                                              ParsedDescriptionData parsedDescriptionData);
 }
@@ -51,6 +51,17 @@ public interface ScoreCompiler {
      */
     CompilationModellingResult compileSource(Executable source, Set<Executable> path);
 
+    /**
+     * Compile several {@link io.cloudslang.lang.compiler.modeller.model.Executable}s against the same path.
+     * The execution plan of every dependency is built once and shared by all the artifacts that use it.
+     * Does not fail but returns all the accumulated exceptions per executable.
+     *
+     * @param sources the {@link Executable}s to compile
+     * @param path    a set of {@link Executable}s containing the dependencies of all sources
+     * @return a modelling result for every source, in the order of the sources
+     */
+    List<CompilationModellingResult> compileSources(List<Executable> sources, Set<Executable> path);
+
     /**
      * Validate that the given {@link io.cloudslang.lang.compiler.modeller.model.Executable} is valid regarding
      * its wiring to its dependencies
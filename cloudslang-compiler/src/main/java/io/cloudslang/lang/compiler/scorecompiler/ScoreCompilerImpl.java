@@ -9,8 +9,8 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler.scorecompiler;
 
-import ch.lambdaj.function.convert.Converter;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.caching.CachedExecutionPlanService;
 import io.cloudslang.lang.compiler.modeller.DependenciesHelper;
 import io.cloudslang.lang.compiler.modeller.model.Decision;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
@@ -30,14 +30,13 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang.Validate;
 
-import static ch.lambdaj.Lambda.convertMap;
-
 
 public class ScoreCompilerImpl implements ScoreCompiler {
 
@@ -47,6 +46,8 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
     private CompileValidator compileValidator;
 
+    private CachedExecutionPlanService cachedExecutionPlanService;
+
     @Override
     public CompilationArtifact compile(Executable source, Set<Executable> path) {
         CompilationModellingResult compilationModellingResult = compileSource(source, path);
@@ -59,6 +60,27 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
     @Override
     public CompilationModellingResult compileSource(Executable executable, Set<Executable> path) {
+        return compileSource(executable, path, null, new IdentityHashMap<Executable, ExecutionPlan>());
+    }
+
+    @Override
+    public List<CompilationModellingResult> compileSources(List<Executable> sources, Set<Executable> path) {
+        Map<String, Executable> pathById = path == null ? null : dependenciesHelper.indexById(path);
+        Map<Executable, ExecutionPlan> dependencyPlans = new IdentityHashMap<>();
+        List<CompilationModellingResult> results = new ArrayList<>(sources.size());
+        for (Executable source : sources) {
+            results.add(compileSource(source, path, pathById, dependencyPlans));
+        }
+        return results;
+    }
+
+    /**
+     * @param pathById        the path indexed by executable id, null to index it here
+     * @param dependencyPlans execution plans of dependencies that were already built, keyed by model instance
+     */
+    private CompilationModellingResult compileSource(Executable executable, Set<Executable> path,
+                                                     Map<String, Executable> pathById,
+                                                     Map<Executable, ExecutionPlan> dependencyPlans) {
         List<RuntimeException> exceptions = new ArrayList<>();
         Map<String, Executable> filteredDependencies = new HashMap<>();
         //we handle dependencies only if the file has imports
@@ -73,13 +95,13 @@ public class ScoreCompilerImpl implements ScoreCompiler {
                 exceptions.add(ex);
             }
 
-            //we add the current executable since a dependency can require it
-            List<Executable> availableExecutables = new ArrayList<>(path);
-            availableExecutables.add(executable);
-
             try {
-                //than we match the references to the actual dependencies
-                filteredDependencies = dependenciesHelper.matchReferences(executable, availableExecutables);
+                if (pathById == null) {
+                    pathById = dependenciesHelper.indexById(path);
+                }
+                //than we match the references to the actual dependencies,
+                //the current executable is matched as well since a dependency can require it
+                filteredDependencies = dependenciesHelper.matchReferences(executable, pathById);
 
                 handleOnFailureCustomResults(executable, filteredDependencies);
 
@@ -97,13 +119,15 @@ public class ScoreCompilerImpl implements ScoreCompiler {
             ExecutionPlan executionPlan = compileToExecutionPlan(executable);
 
             //and also create execution plans for all other dependencies
-            Converter<Executable, ExecutionPlan> converter = new Converter<Executable, ExecutionPlan>() {
-                @Override
-                public ExecutionPlan convert(Executable compiledExecutable) {
-                    return compileToExecutionPlan(compiledExecutable);
+            Map<String, ExecutionPlan> dependencies = new HashMap<>();
+            for (Map.Entry<String, Executable> dependency : filteredDependencies.entrySet()) {
+                ExecutionPlan dependencyPlan = dependencyPlans.get(dependency.getValue());
+                if (dependencyPlan == null) {
+                    dependencyPlan = getDependencyExecutionPlan(dependency.getValue());
+                    dependencyPlans.put(dependency.getValue(), dependencyPlan);
                 }
-            };
-            Map<String, ExecutionPlan> dependencies = convertMap(filteredDependencies, converter);
+                dependencies.put(dependency.getKey(), dependencyPlan);
+            }
             Collection<Executable> executables = new ArrayList<>(filteredDependencies.values());
             executables.add(executable);
 
@@ -132,10 +156,15 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         Step onFailureStep = getOnFailureStep(executable);
         if (onFailureStep != null) {
             Executable onFailureDependency = filteredDependencies.get(onFailureStep.getRefId());
-            for (Result result : onFailureDependency.getResults()) {
-                Map<String, Serializable> navigationString = new HashMap<>();
-                navigationString.put(result.getName(), ScoreLangConstants.FAILURE_RESULT);
-                onFailureStep.getNavigationStrings().add(navigationString);
+            // the same model can be compiled several times, also concurrently, when it is shared or cached
+            synchronized (onFailureStep) {
+                for (Result result : onFailureDependency.getResults()) {
+                    Map<String, Serializable> navigationString = new HashMap<>();
+                    navigationString.put(result.getName(), ScoreLangConstants.FAILURE_RESULT);
+                    if (!onFailureStep.getNavigationStrings().contains(navigationString)) {
+                        onFailureStep.getNavigationStrings().add(navigationString);
+                    }
+                }
             }
         }
     }
@@ -183,6 +212,19 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         }
     }
 
+    /**
+     * Dependency plans are not changed after the compilation, unlike the plan of the compiled executable,
+     * so they are shared between compilations through the {@link CachedExecutionPlanService}.
+     */
+    private ExecutionPlan getDependencyExecutionPlan(Executable dependency) {
+        ExecutionPlan executionPlan = cachedExecutionPlanService.getValueFromCache(dependency);
+        if (executionPlan == null) {
+            executionPlan = compileToExecutionPlan(dependency);
+            cachedExecutionPlanService.cacheValue(dependency, executionPlan);
+        }
+        return executionPlan;
+    }
+
     private Set<String> getSystemPropertiesFromExecutables(Collection<Executable> executables) {
         Set<String> result = new HashSet<>();
         for (Executable executable : executables) {
@@ -202,4 +244,8 @@ public class ScoreCompilerImpl implements ScoreCompiler {
     public void setCompileValidator(CompileValidator compileValidator) {
         this.compileValidator = compileValidator;
     }
+
+    public void setCachedExecutionPlanService(CachedExecutionPlanService cachedExecutionPlanService) {
+        this.cachedExecutionPlanService = cachedExecutionPlanService;
+    }
 }
@@ -11,21 +11,155 @@ package io.cloudslang.lang.compiler.utils;
 
 import org.apache.commons.lang.StringUtils;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+/**
+ * Finds the {@code def execute(<params>):} signature of external python scripts.
+ * The signature starts at the beginning of a line and is followed by a line break; parameters are
+ * identifiers separated by a comma directly after the identifier, and by whitespace.
+ * The script is scanned once, without backtracking, whatever the length of a malformed signature.
+ */
 public class ExternalPythonScriptUtils {
-    private static final String METHOD_SIGNATURE_REGEX = "^def\\s+execute\\((([a-zA-Z0-9_]+,?\\s*)*)\\):\\s*\\R";
-    private static final Pattern methodSignaturePattern = Pattern.compile(METHOD_SIGNATURE_REGEX,
-            Pattern.UNICODE_CHARACTER_CLASS | Pattern.DOTALL | Pattern.MULTILINE);
+
+    private static final String DEF_KEYWORD = "def";
+    private static final String EXECUTE_METHOD_NAME = "execute(";
+    private static final String SIGNATURE_END = "):";
 
     public static String[] getScriptParams(String script) {
-        Matcher matcher = methodSignaturePattern.matcher(script);
-        matcher.find();
-        String scriptInputsString = matcher.group(1);
+        ExecuteMethodSignature signature = findExecuteMethodSignature(script, 0);
+        if (signature == null) {
+            throw new IllegalStateException("No match found");
+        }
+        String scriptInputsString = signature.getParams();
         if (StringUtils.isBlank(scriptInputsString)) {
             return new String[]{};
         }
-        return scriptInputsString.replaceAll("\\s", "").split(",");
+        return removeAsciiWhitespace(scriptInputsString).split(",");
+    }
+
+    /**
+     * @param fromIndex index in the script to start the search from
+     * @return the first signature of the execute method starting at or after fromIndex, null if there is none
+     */
+    public static ExecuteMethodSignature findExecuteMethodSignature(String script, int fromIndex) {
+        for (int lineStart = fromIndex; lineStart < script.length(); lineStart++) {
+            if (isLineStart(script, lineStart)) {
+                ExecuteMethodSignature signature = matchExecuteMethodSignature(script, lineStart);
+                if (signature != null) {
+                    return signature;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ExecuteMethodSignature matchExecuteMethodSignature(String script, int start) {
+        int length = script.length();
+        if (!script.startsWith(DEF_KEYWORD, start)) {
+            return null;
+        }
+        int index = start + DEF_KEYWORD.length();
+        int whitespaceStart = index;
+        while (index < length && isWhitespace(script.charAt(index))) {
+            index++;
+        }
+        if (index == whitespaceStart || !script.startsWith(EXECUTE_METHOD_NAME, index)) {
+            return null;
+        }
+        index += EXECUTE_METHOD_NAME.length();
+
+        int paramsStart = index;
+        while (index < length && isParamsChar(script.charAt(index))) {
+            char current = script.charAt(index);
+            // every parameter starts with an identifier, and a comma directly follows an identifier
+            boolean afterIdentifier = index > paramsStart && isIdentifierChar(script.charAt(index - 1));
+            if (index == paramsStart ? !isIdentifierChar(current) : current == ',' && !afterIdentifier) {
+                return null;
+            }
+            index++;
+        }
+        int paramsEnd = index;
+        if (!script.startsWith(SIGNATURE_END, index)) {
+            return null;
+        }
+        index += SIGNATURE_END.length();
+
+        int end = -1;
+        while (index < length && isWhitespace(script.charAt(index))) {
+            if (isLineBreak(script.charAt(index))) {
+                end = index + 1;
+            }
+            index++;
+        }
+        if (end < 0) {
+            return null;
+        }
+        return new ExecuteMethodSignature(start, end, script.substring(paramsStart, paramsEnd));
+    }
+
+    private static boolean isLineStart(String script, int index) {
+        if (index == 0) {
+            return true;
+        }
+        char previous = script.charAt(index - 1);
+        if (previous == '\r') {
+            return script.charAt(index) != '\n';
+        }
+        return previous == '\n' || previous == '\u0085' || previous == '\u2028' || previous == '\u2029';
+    }
+
+    private static boolean isLineBreak(char c) {
+        return (c >= '\n' && c <= '\r') || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Unicode white space, as matched by {@code \s} with {@link java.util.regex.Pattern#UNICODE_CHARACTER_CLASS}.
+     */
+    private static boolean isWhitespace(char c) {
+        return Character.isSpaceChar(c) || (c >= '\t' && c <= '\r') || c == '\u0085';
+    }
+
+    private static boolean isParamsChar(char c) {
+        return isIdentifierChar(c) || c == ',' || isWhitespace(c);
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static String removeAsciiWhitespace(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != ' ' && (c < '\t' || c > '\r')) {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    public static class ExecuteMethodSignature {
+        private final int start;
+        private final int end;
+        private final String params;
+
+        private ExecuteMethodSignature(int start, int end, String params) {
+            this.start = start;
+            this.end = end;
+            this.params = params;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return the index following the line break that ends the signature
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        public String getParams() {
+            return params;
+        }
     }
 }
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.utils;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.cloudslang.lang.entities.bindings.Result;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Canonical instances for the pieces of the models that repeat across executables:
+ * names, namespaces and references, dependency sets and results without an expression.
+ * The instances are weakly held, so they are released together with the last model using them.
+ * Everything returned is shared and must not be modified.
+ */
+public abstract class ModelInternUtils {
+
+    private static final Interner<String> STRING_INTERNER = Interners.newWeakInterner();
+    private static final Interner<Set<?>> SET_INTERNER = Interners.newWeakInterner();
+    private static final Interner<Result> RESULT_INTERNER = Interners.newWeakInterner();
+
+    public static String intern(String value) {
+        return value == null ? null : STRING_INTERNER.intern(value);
+    }
+
+    /**
+     * @return an immutable set equal to the given one, the same instance for all equal sets
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Set<T> internSet(Set<T> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+        for (T value : values) {
+            builder.add(value instanceof String ? (T) intern((String) value) : value);
+        }
+        return (Set<T>) SET_INTERNER.intern(builder.build());
+    }
+
+    /**
+     * @return a result without an expression, the same instance for all results with the given name
+     */
+    public static Result noExpressionResult(String name) {
+        return RESULT_INTERNER.intern(new Result(intern(name), null,
+                Collections.emptySet(), Collections.emptySet()));
+    }
+}
@@ -10,32 +10,18 @@
 package io.cloudslang.lang.compiler.validator;
 
 import io.cloudslang.lang.compiler.utils.ExternalPythonScriptUtils;
+import io.cloudslang.lang.compiler.utils.ExternalPythonScriptUtils.ExecuteMethodSignature;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class ExternalPythonScriptValidatorImpl implements ExternalPythonScriptValidator {
 
-    private static final String METHOD_SIGNATURE_REGEX = "^def\\s+execute\\((([a-zA-Z0-9_]+,?\\s*)*)\\):\\s*\\R";
-    private Pattern methodSignaturePattern = Pattern.compile(METHOD_SIGNATURE_REGEX,
-            Pattern.UNICODE_CHARACTER_CLASS | Pattern.DOTALL | Pattern.MULTILINE);
-
-    private static final String METHOD_CONTENT_REGEX = METHOD_SIGNATURE_REGEX + "(.*)";
-    private Pattern methodContentPattern = Pattern.compile(METHOD_CONTENT_REGEX,
-            Pattern.UNICODE_CHARACTER_CLASS | Pattern.DOTALL | Pattern.MULTILINE);
-
-    private static final String SINGLE_COMMENT_REGEX = "#.*?\n";
-    private Pattern singleCommentPattern = Pattern.compile(SINGLE_COMMENT_REGEX,
-            Pattern.UNICODE_CHARACTER_CLASS | Pattern.DOTALL | Pattern.MULTILINE);
-
-    private static final String MULTILINE_COMMENT_REGEX = "'''.*?'''";
-    private Pattern multilineCommentPattern = Pattern.compile(MULTILINE_COMMENT_REGEX,
-            Pattern.UNICODE_CHARACTER_CLASS | Pattern.DOTALL);
+    private static final String SINGLE_COMMENT_START = "#";
+    private static final String MULTILINE_COMMENT_DELIMITER = "'''";
 
     private static final String INPUTS_ARE_MISSING_ERROR = "Inputs are not defined for all execute method parameters.";
 
@@ -46,13 +32,13 @@ public class ExternalPythonScriptValidatorImpl implements ExternalPythonScriptVa
 
     @Override
     public void validateExecutionMethodAndInputs(String script, List<String> inputs) {
-        Matcher matcher = methodSignaturePattern.matcher(script);
+        ExecuteMethodSignature signature = ExternalPythonScriptUtils.findExecuteMethodSignature(script, 0);
 
-        if (!matcher.find()) {
+        if (signature == null) {
             throw new IllegalArgumentException("Method {execute} is missing or is invalid.");
         }
 
-        if (matcher.find()) {
+        if (ExternalPythonScriptUtils.findExecuteMethodSignature(script, signature.getEnd()) != null) {
             throw new IllegalArgumentException("Overload of the execution method is not allowed.");
         }
 
@@ -84,16 +70,36 @@ public class ExternalPythonScriptValidatorImpl implements ExternalPythonScriptVa
     }
 
     private boolean isExecuteMethodBlank(String script) {
-        String noSingleComments = singleCommentPattern.matcher(script + "\n").replaceAll("");
-        String noComments = multilineCommentPattern.matcher(noSingleComments).replaceAll("");
-        Matcher matcher = methodContentPattern.matcher(noComments);
+        String noSingleComments = removeDelimited(script + "\n", SINGLE_COMMENT_START, "\n");
+        String noComments = removeDelimited(noSingleComments, MULTILINE_COMMENT_DELIMITER,
+                MULTILINE_COMMENT_DELIMITER);
+        ExecuteMethodSignature signature = ExternalPythonScriptUtils.findExecuteMethodSignature(noComments, 0);
         String result = null;
-        if (matcher.find()) {
-            result = matcher.group(3);
+        if (signature != null) {
+            result = noComments.substring(signature.getEnd());
         }
         return StringUtils.isBlank(result);
     }
 
+    /**
+     * Removes every section from the start delimiter to the nearest following end delimiter, both included.
+     * A start delimiter without an end delimiter is kept.
+     */
+    private String removeDelimited(String value, String startDelimiter, String endDelimiter) {
+        StringBuilder result = new StringBuilder(value.length());
+        int index = 0;
+        while (index < value.length()) {
+            int start = value.indexOf(startDelimiter, index);
+            int end = start < 0 ? -1 : value.indexOf(endDelimiter, start + startDelimiter.length());
+            if (end < 0) {
+                break;
+            }
+            result.append(value, index, start);
+            index = end + endDelimiter.length();
+        }
+        return result.append(value, index, value.length()).toString();
+    }
+
     private void validateInputNames(Set<String> inputs) {
         List<String> illegalNames = inputs.stream()
                 .filter(RESERVED_KEYWORDS::contains)
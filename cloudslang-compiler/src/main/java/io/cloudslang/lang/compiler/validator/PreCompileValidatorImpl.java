@@ -29,9 +29,11 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -403,7 +405,6 @@ public class PreCompileValidatorImpl extends AbstractValidator implements PreCom
             List<RuntimeException> validationErrors = new ArrayList<>();
 
             validateNavigation(
-                    compiledFlow.getWorkflow().getSteps().getFirst(),
                     steps,
                     resultNames,
                     reachableStepNames,
@@ -425,44 +426,39 @@ public class PreCompileValidatorImpl extends AbstractValidator implements PreCom
         }
     }
 
+    /**
+     * Walks the navigation graph of the flow depth first from its first step, visiting every step
+     * and navigation once. Steps are looked up by name in an index built for the walk, and an explicit
+     * stack replaces recursion so long chains of steps do not overflow the call stack.
+     */
     private void validateNavigation(
-            Step currentStep,
             Deque<Step> steps,
             List<String> resultNames,
             Set<String> reachableStepNames,
             Set<String> reachableResultNames,
             List<RuntimeException> errors) {
-        validateNavigation(
-                currentStep,
-                steps,
-                resultNames,
-                reachableStepNames,
-                reachableResultNames,
-                errors,
-                new ArrayList<>()
-        );
-    }
-
-    private void validateNavigation(
-            Step currentStep,
-            Deque<Step> steps,
-            List<String> resultNames,
-            Set<String> reachableStepNames,
-            Set<String> reachableResultNames,
-            List<RuntimeException> errors,
-            List<String> stepResultCollisionNames) {
-        String currentStepName = currentStep.getName();
-        reachableStepNames.add(currentStepName);
-        for (Map<String, Serializable> map : currentStep.getNavigationStrings()) {
-            Map.Entry<String, Serializable> entry = map.entrySet().iterator().next();
+        Map<String, Step> stepsByName = indexStepsByName(steps);
+        Set<String> resultNameSet = new HashSet<>(resultNames);
+        Set<String> stepResultCollisionNames = new HashSet<>();
+
+        Deque<NavigationFrame> navigationStack = new ArrayDeque<>();
+        Step firstStep = steps.getFirst();
+        reachableStepNames.add(firstStep.getName());
+        navigationStack.push(new NavigationFrame(firstStep));
+        while (!navigationStack.isEmpty()) {
+            NavigationFrame currentFrame = navigationStack.peek();
+            if (!currentFrame.navigations.hasNext()) {
+                navigationStack.pop();
+                continue;
+            }
+            Map.Entry<String, Serializable> entry = currentFrame.navigations.next().entrySet().iterator().next();
             String navigationTarget = getNavigationStepName(entry.getValue());
 
-            boolean isResult = resultNames.contains(navigationTarget);
-            Step nextStepToCompile = selectNextStepToCompile(steps, navigationTarget);
-            boolean isStep = nextStepToCompile != null;
+            boolean isResult = resultNameSet.contains(navigationTarget);
+            Step nextStep = stepsByName.get(navigationTarget);
+            boolean isStep = nextStep != null;
 
-            if (isStep && isResult && !stepResultCollisionNames.contains(navigationTarget)) {
-                stepResultCollisionNames.add(navigationTarget);
+            if (isStep && isResult && stepResultCollisionNames.add(navigationTarget)) {
                 errors.add(
                         new RuntimeException(
                                 "Navigation target: '" + navigationTarget +
@@ -473,50 +469,30 @@ public class PreCompileValidatorImpl extends AbstractValidator implements PreCom
             if (isResult) {
                 reachableResultNames.add(navigationTarget);
             }
-            if (!isProcessed(navigationTarget, isStep, reachableStepNames, reachableResultNames)) {
-                if (isStep) {
-                    validateNavigation(
-                            nextStepToCompile,
-                            steps,
-                            resultNames,
-                            reachableStepNames,
-                            reachableResultNames,
-                            errors,
-                            stepResultCollisionNames
-                    );
-                } else if (!isResult) {
-                    errors.add(
-                            new RuntimeException(
-                                    "Failed to compile step: " + currentStepName +
-                                            ". The step/result name: " + entry.getValue() +
-                                            " of navigation: " + entry.getKey() + " -> " + entry.getValue() +
-                                            " is missing"
-                            )
-                    );
+            if (isStep) {
+                if (reachableStepNames.add(navigationTarget)) {
+                    navigationStack.push(new NavigationFrame(nextStep));
                 }
+            } else if (!isResult) {
+                errors.add(
+                        new RuntimeException(
+                                "Failed to compile step: " + currentFrame.step.getName() +
+                                        ". The step/result name: " + entry.getValue() +
+                                        " of navigation: " + entry.getKey() + " -> " + entry.getValue() +
+                                        " is missing"
+                        )
+                );
             }
         }
     }
 
-    private Step selectNextStepToCompile(Deque<Step> steps, String navigationTarget) {
+    private Map<String, Step> indexStepsByName(Deque<Step> steps) {
+        Map<String, Step> stepsByName = new HashMap<>();
         for (Step step : steps) {
-            if (org.apache.commons.lang.StringUtils.equals(step.getName(), navigationTarget)) {
-                return step;
-            }
-        }
-        return null;
-    }
-
-    private boolean isProcessed(
-            String navigationTarget,
-            boolean pointsToStep,
-            Set<String> reachableStepNames,
-            Set<String> reachableResultNames) {
-        if (pointsToStep) {
-            return reachableStepNames.contains(navigationTarget);
-        } else {
-            return reachableResultNames.contains(navigationTarget);
+            // the first step declared with a name is the navigation target, as when the steps are scanned
+            stepsByName.putIfAbsent(step.getName(), step);
         }
+        return stepsByName;
     }
 
     private void validateStepsAreReachable(
@@ -587,4 +563,14 @@ public class PreCompileValidatorImpl extends AbstractValidator implements PreCom
     public void setExecutableValidator(ExecutableValidator executableValidator) {
         this.executableValidator = executableValidator;
     }
+
+    private static class NavigationFrame {
+        private final Step step;
+        private final Iterator<Map<String, Serializable>> navigations;
+
+        private NavigationFrame(Step step) {
+            this.step = step;
+            this.navigations = step.getNavigationStrings().iterator();
+        }
+    }
 }
@@ -9,7 +9,9 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler;
 
+import com.google.common.collect.Sets;
 import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.score.api.ExecutionPlan;
@@ -26,12 +28,16 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 /*
@@ -98,6 +104,121 @@ public class CompileDependenciesTest {
                 not(Matchers.hasKey("slang.sample.flows.SimpleFlow")));
     }
 
+    @Test
+    public void parallelPrecompileOfPathGivesSameDependencies() throws Exception {
+        final URI flow = getClass().getResource("/basic_flow.yaml").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(getClass().getResource("/flow_with_data.yaml").toURI()));
+        path.add(SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI()));
+        path.add(SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI()));
+
+        CompilationArtifact sequentialArtifact = compiler.compile(SlangSource.fromFile(flow), path);
+        ((SlangCompilerImpl) compiler).setPrecompileParallelism(4);
+        try {
+            CompilationArtifact parallelArtifact = compiler.compile(SlangSource.fromFile(flow), path);
+
+            assertEquals(sequentialArtifact.getDependencies().keySet(),
+                    parallelArtifact.getDependencies().keySet());
+            assertEquals(sequentialArtifact.getExecutionPlan().getSteps().size(),
+                    parallelArtifact.getExecutionPlan().getSteps().size());
+        } finally {
+            ((SlangCompilerImpl) compiler).setPrecompileParallelism(1);
+        }
+    }
+
+    @Test
+    public void compileSourcesGivesSameArtifactsAsCompileSource() throws Exception {
+        SlangSource flow = SlangSource.fromFile(getClass().getResource("/basic_flow.yaml").toURI());
+        SlangSource operation = SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI());
+        SlangSource operation2 = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        Set<SlangSource> sources = new HashSet<>();
+        sources.add(flow);
+        sources.add(operation);
+        sources.add(operation2);
+
+        Map<SlangSource, CompilationModellingResult> results =
+                compiler.compileSources(sources, PrecompileStrategy.WITHOUT_CACHE);
+
+        assertEquals(3, results.size());
+        for (SlangSource source : sources) {
+            CompilationModellingResult batchResult = results.get(source);
+            CompilationModellingResult singleResult = compiler.compileSource(source, sources);
+            assertEquals(source.getName(), singleResult.getErrors().size(), batchResult.getErrors().size());
+            assertEquals(singleResult.getCompilationArtifact().getDependencies().keySet(),
+                    batchResult.getCompilationArtifact().getDependencies().keySet());
+            assertEquals(singleResult.getCompilationArtifact().getSystemProperties(),
+                    batchResult.getCompilationArtifact().getSystemProperties());
+        }
+    }
+
+    @Test
+    public void compileSourcesReportsDuplicateExecutables() throws Exception {
+        final URI operation = getClass().getResource("/test_op.sl").toURI();
+        SlangSource source = SlangSource.fromFile(operation);
+        SlangSource duplicate = new SlangSource(source.getContent() + "\n", source.getName());
+        Set<SlangSource> sources = new HashSet<>();
+        sources.add(source);
+        sources.add(duplicate);
+
+        Map<SlangSource, CompilationModellingResult> results =
+                compiler.compileSources(sources, PrecompileStrategy.WITHOUT_CACHE);
+
+        assertEquals(1, results.get(source).getErrors().size());
+        assertThat(results.get(source).getErrors().get(0).getMessage(), containsString("user.ops.test_op"));
+        assertEquals(1, results.get(duplicate).getErrors().size());
+        assertThat(results.get(duplicate).getErrors().get(0).getMessage(), containsString("user.ops.test_op"));
+    }
+
+    @Test
+    public void recompileSourcesLinksOnlyAffectedSources() throws Exception {
+        SlangSource parentFlow = SlangSource.fromFile(
+                getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI());
+        SlangSource childFlow = SlangSource.fromFile(
+                getClass().getResource("/circular-dependencies/child_flow.yaml").toURI());
+        SlangSource operation = SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI());
+        SlangSource unrelatedOperation = SlangSource.fromFile(getClass().getResource("/check_Weather.sl").toURI());
+        Set<SlangSource> sources = new HashSet<>();
+        sources.add(parentFlow);
+        sources.add(childFlow);
+        sources.add(operation);
+        sources.add(unrelatedOperation);
+
+        compiler.clearCompiledSources();
+        try {
+            Map<SlangSource, CompilationModellingResult> results = compiler.recompileSources(sources,
+                    Collections.<String>emptySet(), PrecompileStrategy.WITHOUT_CACHE);
+            assertEquals(sources, results.keySet());
+            assertEquals(0, results.get(parentFlow).getErrors().size());
+            assertEquals(2, results.get(parentFlow).getCompilationArtifact().getDependencies().size());
+
+            results = compiler.recompileSources(Collections.singleton(operation),
+                    Collections.<String>emptySet(), PrecompileStrategy.WITHOUT_CACHE);
+            assertEquals(Sets.newHashSet(operation, childFlow, parentFlow), results.keySet());
+
+            results = compiler.recompileSources(Collections.singleton(unrelatedOperation),
+                    Collections.<String>emptySet(), PrecompileStrategy.WITHOUT_CACHE);
+            assertEquals(Collections.singleton(unrelatedOperation), results.keySet());
+
+            results = compiler.recompileSources(Collections.<SlangSource>emptySet(),
+                    Collections.singleton(childFlow.getFilePath()), PrecompileStrategy.WITHOUT_CACHE);
+            assertEquals(Collections.singleton(parentFlow), results.keySet());
+            assertEquals(1, results.get(parentFlow).getErrors().size());
+            assertThat(results.get(parentFlow).getErrors().get(0).getMessage(),
+                    containsString("user.flows.circular.child_flow"));
+            assertNull(compiler.getCompiledSource(childFlow.getFilePath()));
+            assertSame(results.get(parentFlow), compiler.getCompiledSource(parentFlow.getFilePath()));
+            assertNull(compiler.getCompiledSlangSource(childFlow.getFilePath()));
+            assertSame(parentFlow, compiler.getCompiledSlangSource(parentFlow.getFilePath()));
+
+            results = compiler.recompileSources(Collections.singleton(childFlow),
+                    Collections.<String>emptySet(), PrecompileStrategy.WITHOUT_CACHE);
+            assertEquals(Sets.newHashSet(childFlow, parentFlow), results.keySet());
+            assertEquals(0, results.get(parentFlow).getErrors().size());
+        } finally {
+            compiler.clearCompiledSources();
+        }
+    }
+
     @Test
     public void sourceFileIsADirectory() throws Exception {
         final URI dir = getClass().getResource("/").toURI();
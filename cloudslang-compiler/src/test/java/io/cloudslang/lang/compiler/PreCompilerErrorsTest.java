@@ -646,6 +646,34 @@ public class PreCompilerErrorsTest {
                 errors.get(0).getMessage());
     }
 
+    @Test
+    public void testFlowWithLongStepChain() throws Exception {
+        int numberOfSteps = 2000;
+        StringBuilder content = new StringBuilder("namespace: io.cloudslang\n\n" +
+                "imports:\n  ops: user.ops\n\n" +
+                "flow:\n  name: long_step_chain\n  workflow:\n");
+        for (int i = 0; i < numberOfSteps; i++) {
+            String nextTarget = i == numberOfSteps - 1 ? "MISSING" : "step_" + (i + 1);
+            content.append("    - step_").append(i).append(":\n")
+                    .append("        do:\n          ops.test_op:\n            - alla: 'message'\n")
+                    .append("        navigate:\n")
+                    .append("          - SUCCESS: ").append(nextTarget).append("\n")
+                    .append("          - FAILURE: FAILURE\n");
+        }
+        content.append("  results:\n    - SUCCESS\n    - FAILURE\n");
+
+        ExecutableModellingResult result = compiler.preCompileSource(
+                new SlangSource(content.toString(), "long_step_chain.sl"));
+
+        List<RuntimeException> errors = result.getErrors();
+        assertEquals(1, errors.size());
+        assertEquals("Flow long_step_chain has errors:\n" +
+                        "Failed to compile step: step_1999. " +
+                        "The step/result name: MISSING of navigation: SUCCESS -> MISSING is missing\n" +
+                        "The following results are not wired: [SUCCESS].",
+                errors.get(0).getMessage());
+    }
+
     @Test
     public void testFlowWithUnreachableOnFailureStep() throws Exception {
         URI resource = getClass().getResource("/corrupted/unreachable_on_failure_step.sl").toURI();
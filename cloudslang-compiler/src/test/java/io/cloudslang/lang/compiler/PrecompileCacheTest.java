@@ -9,7 +9,9 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler;
 
+import io.cloudslang.lang.compiler.caching.CachedExecutionPlanService;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileService;
+import io.cloudslang.lang.compiler.caching.PersistentPrecompileService;
 import io.cloudslang.lang.compiler.modeller.SlangModeller;
 import io.cloudslang.lang.compiler.parser.YamlParser;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
@@ -25,6 +27,7 @@ import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PrecompileCacheTest {
@@ -51,6 +54,12 @@ public class PrecompileCacheTest {
     @Mock
     private CachedPrecompileService cachedPrecompileService;
 
+    @Mock
+    private PersistentPrecompileService persistentPrecompileService;
+
+    @Mock
+    private CachedExecutionPlanService cachedExecutionPlanService;
+
     @Test
     public void testPrecompileCacheEnabled() throws Exception {
         URL resource = getClass().getResource("/corrupted/op_without_namespace.sl");
@@ -86,5 +95,6 @@ public class PrecompileCacheTest {
         InOrder inOrderCache = inOrder(cachedPrecompileService);
         inOrderCache.verify(cachedPrecompileService).invalidateAll();
         inOrderCache.verifyNoMoreInteractions();
+        verify(cachedExecutionPlanService).invalidateAll();
     }
 }
\ No newline at end of file
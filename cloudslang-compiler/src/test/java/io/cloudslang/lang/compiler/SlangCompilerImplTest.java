@@ -10,8 +10,10 @@
 package io.cloudslang.lang.compiler;
 
 import com.google.common.collect.Sets;
+import io.cloudslang.lang.compiler.caching.CachedExecutionPlanService;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileService;
 import io.cloudslang.lang.compiler.caching.CachedPrecompileServiceImpl;
+import io.cloudslang.lang.compiler.caching.PersistentPrecompileService;
 import io.cloudslang.lang.compiler.modeller.SlangModeller;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.MetadataModellingResult;
@@ -173,6 +175,8 @@ public class SlangCompilerImplTest {
             SlangCompilerImpl slangCompiler = new SlangCompilerImpl();
 
             slangCompiler.setCachedPrecompileService(cachePrecompileService());
+            slangCompiler.setPersistentPrecompileService(persistentPrecompileService());
+            slangCompiler.setCachedExecutionPlanService(cachedExecutionPlanService());
             slangCompiler.setCompileValidator(compileValidator());
             slangCompiler.setScoreCompiler(scoreCompiler());
             slangCompiler.setSlangModeller(slangModeller());
@@ -188,6 +192,16 @@ public class SlangCompilerImplTest {
             return new CachedPrecompileServiceImpl();
         }
 
+        @Bean
+        public PersistentPrecompileService persistentPrecompileService() {
+            return mock(PersistentPrecompileService.class);
+        }
+
+        @Bean
+        public CachedExecutionPlanService cachedExecutionPlanService() {
+            return mock(CachedExecutionPlanService.class);
+        }
+
         @Bean
         public CompileValidator compileValidator() {
             return mock(CompileValidator.class);
@@ -264,4 +264,52 @@ public class SlangSourceTest {
                 Charset.forName(cslangEncoding);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testContentFingerprintIsStable() throws Exception {
+        SlangSource source = new SlangSource(content, name);
+        String fingerprint = source.getContentFingerprint();
+
+        Assert.assertEquals(64, fingerprint.length());
+        Assert.assertSame(fingerprint, source.getContentFingerprint());
+        Assert.assertEquals(fingerprint, new SlangSource(content, "other_name").getContentFingerprint());
+        Assert.assertNotEquals(fingerprint, new SlangSource(content + " ", name).getContentFingerprint());
+    }
+
+    @Test
+    public void testHasSameContent() throws Exception {
+        SlangSource source = new SlangSource(content, name);
+
+        Assert.assertTrue(source.hasSameContent(new SlangSource(content, name)));
+        Assert.assertFalse(source.hasSameContent(new SlangSource(content, "other_name")));
+        Assert.assertFalse(source.hasSameContent(new SlangSource("file_contenT", name)));
+        Assert.assertFalse(source.hasSameContent(null));
+    }
+
+    @Test
+    public void testHasSameContentFromFile() throws Exception {
+        File file = folder.newFile(name);
+        FileUtils.writeStringToFile(file, content);
+        SlangSource source = SlangSource.fromFile(file);
+
+        Assert.assertTrue(source.hasSameContent(SlangSource.fromFile(file)));
+
+        FileUtils.writeStringToFile(file, content + content);
+        Assert.assertTrue(file.setLastModified(file.lastModified() + 2000));
+        Assert.assertFalse(source.hasSameContent(SlangSource.fromFile(file)));
+    }
+
+    @Test
+    public void testHasSameContentIgnoresFileTimes() throws Exception {
+        File file = folder.newFile(name);
+        FileUtils.writeStringToFile(file, "content_1");
+        long lastModified = file.lastModified();
+        SlangSource source = SlangSource.fromFile(file);
+
+        // an edit within the same second keeps the length and the modification time
+        FileUtils.writeStringToFile(file, "content_2");
+        Assert.assertTrue(file.setLastModified(lastModified));
+
+        Assert.assertFalse(source.hasSameContent(SlangSource.fromFile(file)));
+    }
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.modeller.model.Action;
+import io.cloudslang.lang.compiler.modeller.model.Flow;
+import io.cloudslang.lang.compiler.modeller.model.Operation;
+import io.cloudslang.lang.compiler.modeller.model.Step;
+import io.cloudslang.lang.compiler.modeller.model.Workflow;
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.bindings.Argument;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.score.api.ExecutionPlan;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CachedExecutionPlanServiceImplTest {
+
+    private CachedExecutionPlanServiceImpl cachedExecutionPlanService;
+
+    @Before
+    public void setUp() {
+        cachedExecutionPlanService = new CachedExecutionPlanServiceImpl();
+        cachedExecutionPlanService.init();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(CachedExecutionPlanServiceImpl.MAX_ENTRIES_PROPERTY);
+    }
+
+    @Test
+    public void testSameContentSharesPlan() {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        cachedExecutionPlanService.cacheValue(createOperation("print 'hello'"), executionPlan);
+
+        assertSame(executionPlan, cachedExecutionPlanService.getValueFromCache(createOperation("print 'hello'")));
+    }
+
+    @Test
+    public void testChangedContentIsMiss() {
+        cachedExecutionPlanService.cacheValue(createOperation("print 'hello'"), new ExecutionPlan());
+
+        assertNull(cachedExecutionPlanService.getValueFromCache(createOperation("print 'bye'")));
+    }
+
+    @Test
+    public void testOtherSensitivityLevelIsMiss() {
+        cachedExecutionPlanService.cacheValue(createOperation("print 'hello'"), new ExecutionPlan());
+        Operation operation = createOperation("print 'hello'");
+        operation.setSourceFingerprint("print 'hello'/ALL");
+
+        assertNull(cachedExecutionPlanService.getValueFromCache(operation));
+    }
+
+    @Test
+    public void testModelWithoutSourceFingerprintIsNotCached() {
+        Operation operation = createOperation("print 'hello'");
+        operation.setSourceFingerprint(null);
+
+        cachedExecutionPlanService.cacheValue(operation, new ExecutionPlan());
+
+        assertNull(cachedExecutionPlanService.getValueFromCache(operation));
+    }
+
+    @Test
+    public void testOnFailureNavigationChangeIsMiss() {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        Flow flow = createFlow();
+        cachedExecutionPlanService.cacheValue(flow, executionPlan);
+        assertSame(executionPlan, cachedExecutionPlanService.getValueFromCache(createFlow()));
+
+        Map<String, Serializable> navigation = new HashMap<>();
+        navigation.put("CUSTOM", ScoreLangConstants.FAILURE_RESULT);
+        flow.getWorkflow().getSteps().getLast().getNavigationStrings().add(navigation);
+
+        assertNull(cachedExecutionPlanService.getValueFromCache(flow));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        Operation operation = createOperation("print 'hello'");
+        cachedExecutionPlanService.cacheValue(operation, new ExecutionPlan());
+
+        cachedExecutionPlanService.invalidateAll();
+
+        assertNull(cachedExecutionPlanService.getValueFromCache(operation));
+    }
+
+    @Test
+    public void testDisabled() {
+        System.setProperty(CachedExecutionPlanServiceImpl.MAX_ENTRIES_PROPERTY, "0");
+        cachedExecutionPlanService.init();
+        Operation operation = createOperation("print 'hello'");
+
+        cachedExecutionPlanService.cacheValue(operation, new ExecutionPlan());
+
+        assertNull(cachedExecutionPlanService.getValueFromCache(operation));
+    }
+
+    private Operation createOperation(String script) {
+        Map<String, Serializable> actionData = new HashMap<>();
+        actionData.put("pythonActionData", script);
+        Operation operation = new Operation(
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new Action(actionData),
+                "user.ops",
+                "op",
+                new ArrayList<>(Collections.singletonList(new Input.InputBuilder("input1", "value1").build())),
+                new ArrayList<>(Collections.singletonList(new Output("output1", null))),
+                new ArrayList<>(Collections.singletonList(new Result("SUCCESS", null))),
+                new HashSet<String>(),
+                new HashSet<String>()
+        );
+        // stands for the fingerprint of the source and the sensitivity level
+        operation.setSourceFingerprint(script + "/DEFAULT");
+        return operation;
+    }
+
+    private Flow createFlow() {
+        Deque<Step> steps = new ArrayDeque<>();
+        steps.add(createStep("step1", false));
+        steps.add(createStep("on_failure_step", true));
+        Flow flow = new Flow(
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new Workflow(steps),
+                "user.flows",
+                "flow",
+                null,
+                new ArrayList<Input>(),
+                new ArrayList<Output>(),
+                new ArrayList<>(Collections.singletonList(new Result("SUCCESS", null))),
+                new HashSet<>(Collections.singletonList("user.ops.op")),
+                new HashSet<String>()
+        );
+        flow.setSourceFingerprint("flow/DEFAULT");
+        return flow;
+    }
+
+    private Step createStep(String name, boolean onFailureStep) {
+        Map<String, Serializable> navigation = new HashMap<>();
+        navigation.put("SUCCESS", ScoreLangConstants.SUCCESS_RESULT);
+        return new Step(
+                name,
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new ArrayList<Argument>(),
+                new ArrayList<>(Collections.singletonList(navigation)),
+                "user.ops.op",
+                null,
+                null,
+                false,
+                onFailureStep
+        );
+    }
+}
@@ -217,4 +217,71 @@ public class CachedPrecompileServiceImplTest {
         Assert.assertNotNull(internalCache);
     }
 
+    @Test
+    public void testHasChangedSinceCached() {
+        SlangSource cachedSource = new SlangSource("content", "name");
+
+        Assert.assertFalse(cachedPrecompileServiceImpl
+                .hasChangedSinceCached(new SlangSource("content", "name"), cachedSource));
+        Assert.assertTrue(cachedPrecompileServiceImpl
+                .hasChangedSinceCached(new SlangSource("changed", "name"), cachedSource));
+        Assert.assertTrue(cachedPrecompileServiceImpl
+                .hasChangedSinceCached(new SlangSource("content", "other"), cachedSource));
+    }
+
+    @Test
+    public void testStatisticsCountLookupsByState() {
+        CachedPrecompileServiceImpl cachedPrecompileService = new CachedPrecompileServiceImpl();
+        cachedPrecompileService.init();
+        SlangSource source = new SlangSource("content", "name");
+        ExecutableModellingResult executableModellingResult = mock(ExecutableModellingResult.class);
+
+        cachedPrecompileService.getValueFromCache("path", source);
+        cachedPrecompileService.cacheValue("path", executableModellingResult, source);
+        cachedPrecompileService.getValueFromCache("path", source);
+        cachedPrecompileService.getValueFromCache("path", new SlangSource("changed", "name"));
+
+        CacheStatistics statistics = cachedPrecompileService.getStatistics();
+        assertEquals(1, statistics.getValidCount());
+        assertEquals(1, statistics.getMissingCount());
+        assertEquals(1, statistics.getOutdatedCount());
+        assertEquals(0, statistics.getEvictionCount());
+        assertEquals(1, statistics.getSize());
+        assertEquals(3, statistics.getLookupCount());
+    }
+
+    @Test
+    public void testInitWithMaxWeight() {
+        System.setProperty(CachedPrecompileServiceImpl.MAX_WEIGHT_PROPERTY, "10");
+        System.setProperty(CachedPrecompileServiceImpl.CONCURRENCY_LEVEL_PROPERTY, "1");
+        try {
+            CachedPrecompileServiceImpl cachedPrecompileService = new CachedPrecompileServiceImpl();
+            cachedPrecompileService.init();
+            ExecutableModellingResult executableModellingResult = mock(ExecutableModellingResult.class);
+
+            cachedPrecompileService.cacheValue("path1", executableModellingResult, new SlangSource("123456", "a"));
+            cachedPrecompileService.cacheValue("path2", executableModellingResult, new SlangSource("123456", "b"));
+
+            CacheStatistics statistics = cachedPrecompileService.getStatistics();
+            assertEquals(1, statistics.getEvictionCount());
+            assertEquals(1, statistics.getSize());
+        } finally {
+            System.clearProperty(CachedPrecompileServiceImpl.MAX_WEIGHT_PROPERTY);
+            System.clearProperty(CachedPrecompileServiceImpl.CONCURRENCY_LEVEL_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testInitWithUnknownExpiryPolicy() {
+        System.setProperty(CachedPrecompileServiceImpl.EXPIRY_POLICY_PROPERTY, "never");
+        try {
+            new CachedPrecompileServiceImpl().init();
+            fail("Expecting to throw exception");
+        } catch (IllegalArgumentException exc) {
+            Assert.assertTrue(exc.getMessage().contains(CachedPrecompileServiceImpl.EXPIRY_POLICY_PROPERTY));
+        } finally {
+            System.clearProperty(CachedPrecompileServiceImpl.EXPIRY_POLICY_PROPERTY);
+        }
+    }
+
 }
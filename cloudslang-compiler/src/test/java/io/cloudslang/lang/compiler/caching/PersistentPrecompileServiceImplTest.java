@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Action;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.model.Operation;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.SensitivityLevel;
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentPrecompileServiceImplTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PersistentPrecompileServiceImpl persistentPrecompileService;
+
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = temporaryFolder.newFolder("precompile-cache");
+        System.setProperty(PersistentPrecompileService.CACHE_DIR_PROPERTY, cacheDir.getAbsolutePath());
+        persistentPrecompileService = new PersistentPrecompileServiceImpl();
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(PersistentPrecompileService.CACHE_DIR_PROPERTY);
+    }
+
+    @Test
+    public void testIsEnabled() {
+        assertTrue(persistentPrecompileService.isEnabled());
+        System.clearProperty(PersistentPrecompileService.CACHE_DIR_PROPERTY);
+        assertFalse(persistentPrecompileService.isEnabled());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        SlangSource source = new SlangSource("content", "op.sl");
+        Executable operation = createOperation();
+
+        persistentPrecompileService.cacheValue(source, SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(operation, new ArrayList<RuntimeException>()));
+        ExecutableModellingResult cachedResult = persistentPrecompileService
+                .getValueFromCache(new SlangSource("content", "op.sl"), SensitivityLevel.ENCRYPTED);
+
+        assertNotNull(cachedResult);
+        assertTrue(cachedResult.getErrors().isEmpty());
+        assertEquals(operation, cachedResult.getExecutable());
+        assertEquals(operation.getId(), cachedResult.getExecutable().getId());
+    }
+
+    @Test
+    public void testChangedContentIsMiss() {
+        persistentPrecompileService.cacheValue(new SlangSource("content", "op.sl"), SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(createOperation(), new ArrayList<RuntimeException>()));
+
+        assertNull(persistentPrecompileService.getValueFromCache(new SlangSource("changed", "op.sl"),
+                SensitivityLevel.ENCRYPTED));
+        assertNull(persistentPrecompileService.getValueFromCache(new SlangSource("content", "op.sl"),
+                SensitivityLevel.OBFUSCATED));
+    }
+
+    @Test
+    public void testComputeKey() {
+        String key = persistentPrecompileService.computeKey(new SlangSource("content", "op.sl"),
+                SensitivityLevel.ENCRYPTED);
+
+        assertEquals(64, key.length());
+        assertEquals(key, persistentPrecompileService.computeKey(new SlangSource("content", "op.sl"),
+                SensitivityLevel.ENCRYPTED));
+        assertNotEquals(key, persistentPrecompileService.computeKey(new SlangSource("changed", "op.sl"),
+                SensitivityLevel.ENCRYPTED));
+        assertNotEquals(key, persistentPrecompileService.computeKey(new SlangSource("content", "other_op.sl"),
+                SensitivityLevel.ENCRYPTED));
+        assertNotEquals(key, persistentPrecompileService.computeKey(new SlangSource("content", "op.sl"),
+                SensitivityLevel.OBFUSCATED));
+    }
+
+    @Test
+    public void testResultWithSensitiveValueIsNotStored() {
+        SlangSource source = new SlangSource("content", "op.sl");
+        Operation operation = createOperation();
+        Input input = operation.getInputs().get(0);
+        // pre encrypted, so that no encryption provider is needed
+        operation.getInputs().set(0, new Input.InputBuilder(input,
+                ValueFactory.createEncryptedString("encrypted", true)).build());
+
+        persistentPrecompileService.cacheValue(source, SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(operation, new ArrayList<RuntimeException>()));
+
+        assertNull(persistentPrecompileService.getValueFromCache(source, SensitivityLevel.ENCRYPTED));
+        assertTrue(FileUtils.listFiles(cacheDir, null, true).isEmpty());
+    }
+
+    @Test
+    public void testEntryWithDisallowedClassIsMissAndRemoved() throws Exception {
+        SlangSource source = new SlangSource("content", "op.sl");
+        persistentPrecompileService.cacheValue(source, SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(createOperation(), new ArrayList<RuntimeException>()));
+        File entry = FileUtils.listFiles(cacheDir, null, true).iterator().next();
+        Operation operation = createOperation();
+        operation.getPreExecActionData().put("data", new TreeMap<String, String>());
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(entry.toPath()))) {
+            out.writeInt(PersistentPrecompileServiceImpl.FORMAT_VERSION);
+            out.writeUTF(persistentPrecompileService.computeKey(source, SensitivityLevel.ENCRYPTED));
+            out.writeObject(operation);
+        }
+
+        assertNull(persistentPrecompileService.getValueFromCache(source, SensitivityLevel.ENCRYPTED));
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    public void testResultWithErrorsIsNotStored() {
+        SlangSource source = new SlangSource("content", "op.sl");
+        ArrayList<RuntimeException> errors = new ArrayList<>();
+        errors.add(new RuntimeException("error"));
+
+        persistentPrecompileService.cacheValue(source, SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(createOperation(), errors));
+
+        assertNull(persistentPrecompileService.getValueFromCache(source, SensitivityLevel.ENCRYPTED));
+        assertTrue(FileUtils.listFiles(cacheDir, null, true).isEmpty());
+    }
+
+    @Test
+    public void testCorruptedEntryIsMissAndRemoved() throws Exception {
+        SlangSource source = new SlangSource("content", "op.sl");
+        persistentPrecompileService.cacheValue(source, SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(createOperation(), new ArrayList<RuntimeException>()));
+
+        Collection<File> entries = FileUtils.listFiles(cacheDir, null, true);
+        assertEquals(1, entries.size());
+        File entry = entries.iterator().next();
+        FileUtils.writeStringToFile(entry, "garbage", StandardCharsets.UTF_8);
+
+        assertNull(persistentPrecompileService.getValueFromCache(source, SensitivityLevel.ENCRYPTED));
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        SlangSource source = new SlangSource("content", "op.sl");
+        persistentPrecompileService.cacheValue(source, SensitivityLevel.ENCRYPTED,
+                new ExecutableModellingResult(createOperation(), new ArrayList<RuntimeException>()));
+
+        persistentPrecompileService.invalidateAll();
+
+        assertNull(persistentPrecompileService.getValueFromCache(source, SensitivityLevel.ENCRYPTED));
+    }
+
+    private Operation createOperation() {
+        Map<String, Serializable> actionData = new HashMap<>();
+        actionData.put("pythonActionData", "print 'hello'");
+        return new Operation(
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new Action(actionData),
+                "user.ops",
+                "op",
+                new ArrayList<>(Collections.singletonList(new Input.InputBuilder("input1", "value1").build())),
+                new ArrayList<>(Collections.singletonList(new Output("output1", null))),
+                new ArrayList<>(Collections.singletonList(new Result("SUCCESS", null))),
+                new HashSet<String>(),
+                new HashSet<String>()
+        );
+    }
+}
@@ -18,6 +18,7 @@ import io.cloudslang.lang.compiler.modeller.model.Step;
 import io.cloudslang.lang.compiler.modeller.model.Workflow;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -30,7 +31,10 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -97,4 +101,98 @@ public class DependenciesHelperTest {
         assertEquals(Sets.newHashSet(stepRefId), result);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFetchDependenciesSharedSubFlowIsWalkedOnce() throws Exception {
+        Operation operation = mock(Operation.class);
+        when(operation.getType()).thenReturn(SlangTextualKeys.OPERATION_TYPE);
+        Flow subFlow = mockFlow("a.sub_flow", "a.op");
+        Flow flow1 = mockFlow("a.flow_1", "a.sub_flow");
+        Flow flow2 = mockFlow("a.flow_2", "a.sub_flow");
+        Flow parentFlow = mockFlow("a.parent_flow", "a.flow_1", "a.flow_2");
+
+        Map<String, Executable> availableDependencies = new HashMap<>();
+        availableDependencies.put("a.op", operation);
+        availableDependencies.put("a.sub_flow", subFlow);
+        availableDependencies.put("a.flow_1", flow1);
+        availableDependencies.put("a.flow_2", flow2);
+
+        Set<String> result = dependenciesHelper.fetchDependencies(parentFlow, availableDependencies);
+
+        assertEquals(Sets.newHashSet("a.flow_1", "a.flow_2", "a.sub_flow", "a.op"), result);
+        verify(subFlow, times(1)).getWorkflow();
+    }
+
+    @Test
+    public void testMatchReferencesResolvesTransitively() throws Exception {
+        Executable operation = mockExecutable("a.op", SlangTextualKeys.OPERATION_TYPE);
+        Executable subFlow = mockExecutable("a.sub_flow", SlangTextualKeys.FLOW_TYPE, "a.op");
+        Executable flow = mockExecutable("a.flow", SlangTextualKeys.FLOW_TYPE, "a.sub_flow", "a.op");
+        Executable unrelated = mockExecutable("a.unrelated", SlangTextualKeys.OPERATION_TYPE);
+
+        Map<String, Executable> result = dependenciesHelper.matchReferences(flow,
+                Arrays.asList(unrelated, subFlow, operation));
+
+        Map<String, Executable> expected = new HashMap<>();
+        expected.put("a.op", operation);
+        expected.put("a.sub_flow", subFlow);
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testMatchReferencesResolvesRootExecutable() throws Exception {
+        Executable flow = mockExecutable("a.flow", SlangTextualKeys.FLOW_TYPE, "a.sub_flow");
+        Executable subFlow = mockExecutable("a.sub_flow", SlangTextualKeys.FLOW_TYPE, "a.flow");
+
+        Map<String, Executable> result = dependenciesHelper.matchReferences(flow,
+                dependenciesHelper.indexById(Collections.singletonList(subFlow)));
+
+        assertSame(flow, result.get("a.flow"));
+        assertSame(subFlow, result.get("a.sub_flow"));
+    }
+
+    @Test
+    public void testMatchReferencesMissingReference() throws Exception {
+        Executable flow = mockExecutable("a.flow", SlangTextualKeys.FLOW_TYPE, "a.missing");
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("Reference: 'a.missing' in executable: 'a.flow', wasn't found in path");
+        dependenciesHelper.matchReferences(flow, Collections.<Executable>emptyList());
+    }
+
+    @Test
+    public void testIndexByIdFirstWins() throws Exception {
+        Executable first = mockExecutable("a.op", SlangTextualKeys.OPERATION_TYPE);
+        Executable second = mockExecutable("a.op", SlangTextualKeys.OPERATION_TYPE);
+
+        Map<String, Executable> result = dependenciesHelper.indexById(Arrays.asList(first, null, second));
+
+        assertEquals(1, result.size());
+        assertSame(first, result.get("a.op"));
+    }
+
+    private Flow mockFlow(String id, String... stepRefIds) {
+        Flow flow = mock(Flow.class);
+        Workflow workflow = mock(Workflow.class);
+        Deque<Step> steps = new ArrayDeque<>();
+        for (String stepRefId : stepRefIds) {
+            Step step = mock(Step.class);
+            when(step.getRefId()).thenReturn(stepRefId);
+            steps.add(step);
+        }
+        when(flow.getId()).thenReturn(id);
+        when(flow.getType()).thenReturn(SlangTextualKeys.FLOW_TYPE);
+        when(flow.getWorkflow()).thenReturn(workflow);
+        when(workflow.getSteps()).thenReturn(steps);
+        return flow;
+    }
+
+    private Executable mockExecutable(String id, String type, String... dependencies) {
+        Executable executable = mock(Executable.class);
+        when(executable.getId()).thenReturn(id);
+        when(executable.getName()).thenReturn(id);
+        when(executable.getType()).thenReturn(type);
+        when(executable.getExecutableDependencies()).thenReturn(Sets.newHashSet(dependencies));
+        return executable;
+    }
+
+}
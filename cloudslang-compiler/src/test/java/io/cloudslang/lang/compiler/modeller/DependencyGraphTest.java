@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class DependencyGraphTest {
+
+    private DependencyGraph dependencyGraph;
+
+    @Before
+    public void setUp() {
+        dependencyGraph = new DependencyGraph();
+        dependencyGraph.putNode("op.sl", "a.op", Collections.<String>emptySet());
+        dependencyGraph.putNode("sub_flow.sl", "a.sub_flow", Sets.newHashSet("a.op"));
+        dependencyGraph.putNode("flow.sl", "a.flow", Sets.newHashSet("a.sub_flow"));
+        dependencyGraph.putNode("other_op.sl", "a.other_op", Collections.<String>emptySet());
+    }
+
+    @Test
+    public void testAffectedNodesAreTransitiveDependents() {
+        assertEquals(Sets.newHashSet("op.sl", "sub_flow.sl", "flow.sl"),
+                dependencyGraph.getAffectedNodes(Collections.singleton("a.op")));
+        assertEquals(Sets.newHashSet("flow.sl"),
+                dependencyGraph.getAffectedNodes(Collections.singleton("a.flow")));
+    }
+
+    @Test
+    public void testProvidersAreMatchedCaseInsensitively() {
+        dependencyGraph.putNode("op_copy.sl", "A.OP", Collections.<String>emptySet());
+
+        assertEquals(Sets.newHashSet("op.sl", "op_copy.sl"), dependencyGraph.getProviders("a.op"));
+    }
+
+    @Test
+    public void testReplaceNode() {
+        dependencyGraph.putNode("flow.sl", "a.flow", Sets.newHashSet("a.other_op"));
+
+        assertEquals(Collections.<String>emptySet(), dependencyGraph.getDependents("a.sub_flow"));
+        assertEquals(Sets.newHashSet("flow.sl"), dependencyGraph.getDependents("a.other_op"));
+    }
+
+    @Test
+    public void testMissingReferenceIsKept() {
+        dependencyGraph.removeNode("sub_flow.sl");
+
+        assertFalse(dependencyGraph.containsNode("sub_flow.sl"));
+        assertNull(dependencyGraph.getId("sub_flow.sl"));
+        assertEquals(Sets.newHashSet("flow.sl"),
+                dependencyGraph.getAffectedNodes(Collections.singleton("a.sub_flow")));
+    }
+
+    @Test
+    public void testNodeWithoutId() {
+        dependencyGraph.putNode("op.sl", null, Collections.<String>emptySet());
+
+        assertEquals(Collections.<String>emptySet(), dependencyGraph.getProviders("a.op"));
+        assertEquals(Sets.newHashSet("sub_flow.sl", "flow.sl"),
+                dependencyGraph.getAffectedNodes(Collections.singleton("a.op")));
+    }
+}
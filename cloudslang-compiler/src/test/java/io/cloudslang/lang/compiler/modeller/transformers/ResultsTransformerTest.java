@@ -24,6 +24,7 @@ import io.cloudslang.lang.compiler.validator.SystemPropertyValidator;
 import io.cloudslang.lang.compiler.validator.SystemPropertyValidatorImpl;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import junit.framework.Assert;
 import org.apache.commons.collections4.CollectionUtils;
 import org.junit.Before;
@@ -41,6 +42,8 @@ import org.yaml.snakeyaml.introspector.BeanAccess;
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -99,6 +102,17 @@ public class ResultsTransformerTest {
         Assert.assertEquals("${ true }", result.getValue().get());
     }
 
+    @Test
+    public void testConstantExpressionResultIsFolded() throws Exception {
+        List<Result> results = resultsTransformer.transform(Arrays.asList(
+                Collections.singletonMap("CONSTANT", "${ True }"),
+                Collections.singletonMap("FROM_CONTEXT", "${ x == 'a' }"),
+                Collections.singletonMap("NOT_BOOLEAN", "${ 'True' }"))).getTransformedData();
+        Assert.assertEquals(ValueFactory.create(true), results.get(0).getFoldedValue());
+        Assert.assertNull(results.get(1).getFoldedValue());
+        Assert.assertNull(results.get(2).getFoldedValue());
+    }
+
     @Test
     public void testNoExpressionResult() throws Exception {
         List<Result> results = resultsTransformer.transform(resultsMapOpWithData).getTransformedData();
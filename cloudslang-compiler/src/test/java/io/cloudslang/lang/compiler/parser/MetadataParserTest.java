@@ -11,6 +11,7 @@ package io.cloudslang.lang.compiler.parser;
 
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.parser.model.ParsedDescriptionData;
+import io.cloudslang.lang.compiler.utils.SlangSourceUtils;
 import java.net.URI;
 import java.util.LinkedHashMap;
 import org.junit.Assert;
@@ -85,4 +86,19 @@ public class MetadataParserTest {
         Assert.assertTrue(parseResult.getStepDescriptions().size() == 0);
         Assert.assertTrue(parseResult.getErrors().size() == 0);
     }
+
+    @Test
+    public void testParseLinesSameAsParseSource() throws Exception {
+        URI executable = getClass().getResource("/metadata/step/step_description_01.sl").toURI();
+        SlangSource source = SlangSource.fromFile(executable);
+
+        ParsedDescriptionData expected = metadataParser.parse(source);
+        ParsedDescriptionData actual = metadataParser.parse(source, SlangSourceUtils.readLines(source));
+
+        Assert.assertEquals(expected.getTopLevelDescriptions().get(0).getData(),
+                actual.getTopLevelDescriptions().get(0).getData());
+        Assert.assertEquals(expected.getStepDescriptions().get("step_1").getData(),
+                actual.getStepDescriptions().get("step_1").getData());
+        Assert.assertEquals(expected.getErrors().size(), actual.getErrors().size());
+    }
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.parser.model.ParsedSlang;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.scanner.ScannerException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParsedSlangEventReaderTest {
+
+    private final ParsedSlangEventReader eventReader = new ParsedSlangEventReader();
+
+    private final Yaml yaml = new SlangCompilerSpringConfig().yaml();
+
+    @Test
+    public void testSameResultAsLoaderForTestResources() throws Exception {
+        File resources = new File(getClass().getResource("/").toURI());
+        Collection<File> files = FileUtils.listFiles(resources, new String[]{"sl", "yaml", "yml"}, true);
+        assertTrue(files.size() > 0);
+
+        int readCount = 0;
+        for (File file : files) {
+            String content = SlangSource.fromFile(file).getContent();
+            ParsedSlang expected;
+            try {
+                expected = yaml.loadAs(content, ParsedSlang.class);
+            } catch (RuntimeException ex) {
+                assertReaderFails(file, content);
+                continue;
+            }
+            ParsedSlang actual = eventReader.read(content);
+            if (actual != null) {
+                assertSameSections(file.getName(), expected, actual);
+                readCount++;
+            }
+        }
+        assertTrue(readCount > 0);
+    }
+
+    @Test
+    public void testScalarTypes() {
+        ParsedSlang parsedSlang = eventReader.read("namespace: a.b\n" +
+                "operation:\n" +
+                "  int: 5\n" +
+                "  hex: 0x1F\n" +
+                "  float: 1.5\n" +
+                "  bool: true\n" +
+                "  empty:\n" +
+                "  quoted: '5'\n");
+
+        Map<String, Object> operation = parsedSlang.getOperation();
+        assertEquals("a.b", parsedSlang.getNamespace());
+        assertEquals(5, operation.get("int"));
+        assertEquals(31, operation.get("hex"));
+        assertEquals(1.5, operation.get("float"));
+        assertEquals(true, operation.get("bool"));
+        assertTrue(operation.containsKey("empty"));
+        assertNull(operation.get("empty"));
+        assertEquals("5", operation.get("quoted"));
+    }
+
+    @Test
+    public void testAnchorsAndAliases() {
+        ParsedSlang parsedSlang = eventReader.read("flow:\n" +
+                "  first: &shared\n" +
+                "    - a\n" +
+                "  second: *shared\n");
+
+        Map<String, Object> flow = parsedSlang.getFlow();
+        assertSame(flow.get("first"), flow.get("second"));
+    }
+
+    @Test
+    public void testDuplicateKeyTakesLastValueAndPosition() {
+        ParsedSlang parsedSlang = eventReader.read("flow:\n" +
+                "  a: 1\n" +
+                "  b: 2\n" +
+                "  a: 3\n");
+
+        List<Object> keys = new ArrayList<Object>(parsedSlang.getFlow().keySet());
+        assertEquals("b", keys.get(0));
+        assertEquals("a", keys.get(1));
+        assertEquals(3, parsedSlang.getFlow().get("a"));
+    }
+
+    @Test
+    public void testUnsupportedConstructsFallBack() {
+        assertNull(eventReader.read("flow:\n  base: &base {a: 1}\n  derived:\n    <<: *base\n"));
+        assertNull(eventReader.read("flow: !!map {a: 1}\n"));
+        assertNull(eventReader.read("flow:\n  ? [a, b]\n  : c\n"));
+        assertNull(eventReader.read("unknown_key: value\n"));
+        assertNull(eventReader.read("flow: just a string\n"));
+        assertNull(eventReader.read("- a\n- b\n"));
+        assertNull(eventReader.read("namespace: a\n---\nnamespace: b\n"));
+    }
+
+    @Test
+    public void testImportsThatAreNotStringsFallBack() {
+        assertNull(eventReader.read("imports:\n  ops: 2017\n"));
+        assertNull(eventReader.read("imports:\n  2017: user.ops\n"));
+        assertNull(eventReader.read("imports:\n  ops: [user.ops]\n"));
+
+        ParsedSlang parsedSlang = eventReader.read("imports:\n  ops: user.ops\n");
+        assertEquals("user.ops", parsedSlang.getImports().get("ops"));
+    }
+
+    @Test(expected = ScannerException.class)
+    public void testSyntaxErrorIsThrown() {
+        eventReader.read("flow:\n  name: a: b\n");
+    }
+
+    @Test
+    public void testObjectRepository() {
+        ParsedSlang parsedSlang = eventReader.read("object_repository:\n  objects: []\n");
+
+        assertNotNull(parsedSlang.getObjectRepository());
+        assertEquals(new ArrayList<>(), parsedSlang.getObjectRepository().get("objects"));
+    }
+
+    private void assertReaderFails(File file, String content) {
+        try {
+            ParsedSlang actual = eventReader.read(content);
+            assertNull(file.getName(), actual);
+        } catch (RuntimeException ignore) {
+            // syntax errors are reported by both
+        }
+    }
+
+    private void assertSameSections(String message, ParsedSlang expected, ParsedSlang actual) {
+        assertEquals(message, expected.getNamespace(), actual.getNamespace());
+        assertEquals(message, expected.getImports(), actual.getImports());
+        assertEquals(message, expected.getFlow(), actual.getFlow());
+        assertEquals(message, expected.getOperation(), actual.getOperation());
+        assertEquals(message, expected.getDecision(), actual.getDecision());
+        assertEquals(message, expected.getProperties(), actual.getProperties());
+        assertEquals(message, expected.getExtensions(), actual.getExtensions());
+        assertEquals(message, expected.getObjectRepository(), actual.getObjectRepository());
+        if (expected.getFlow() != null) {
+            assertEquals(message, new ArrayList<>(expected.getFlow().keySet()),
+                    new ArrayList<>(actual.getFlow().keySet()));
+        }
+    }
+}
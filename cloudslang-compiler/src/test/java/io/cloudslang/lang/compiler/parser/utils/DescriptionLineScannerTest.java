@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.parser.utils;
+
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.parser.utils.DescriptionLineScanner.LineType;
+import io.cloudslang.lang.compiler.parser.utils.DescriptionLineScanner.ScannedLine;
+import io.cloudslang.lang.compiler.utils.SlangSourceUtils;
+import io.cloudslang.lang.compiler.validator.matcher.DescriptionPatternMatcher;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DescriptionLineScannerTest {
+
+    private static final String[] LINE_PARTS = {" ", "\t", "\u000B", "\f", "\u00A0", "\u2003", "\u3000", "\u1680",
+        "\u0085", "\u2028", "\u2029", "\u001C", "#", "!", "@", ":", "-", "_", ".", "a", "Z", "1", "\u00E9", "\u0301",
+        "\u200C", "\u2160", "\uD835\uDC00", "\uD800", "#!", "#!!", "#!!#", "@input", "@description", "step_1"};
+
+    private final DescriptionLineScanner scanner = new DescriptionLineScanner();
+
+    private final DescriptionPatternMatcher patternMatcher = new DescriptionPatternMatcher();
+
+    @Test
+    public void testLineTypes() {
+        assertEquals(LineType.DESCRIPTION_START, scanner.scan("  #!!").getType());
+        assertEquals(LineType.DESCRIPTION_START, scanner.scan("#!! text").getType());
+        assertEquals(LineType.DESCRIPTION_END, scanner.scan("#!!#").getType());
+        assertEquals(LineType.OTHER, scanner.scan("#!!#\u2028").getType());
+        assertEquals(LineType.OTHER, scanner.scan("# comment").getType());
+        assertEquals(LineType.OTHER, scanner.scan("flow:").getType());
+
+        assertScanned(LineType.VARIABLE_LINE, "@input input_1", "content", "#! @input input_1: content");
+        assertScanned(LineType.VARIABLE_LINE, "@input  input_1", "", " #!@input  input_1 :  ");
+        assertScanned(LineType.GENERAL_LINE, "@description", "text: more", "#! @description: text: more");
+        assertScanned(LineType.GENERAL_LINE, "@result", "done", "#! @result  : done");
+        assertScanned(LineType.VARIABLE_DECLARATION_ONLY_LINE, "@input input_1", "", "#! @input input_1");
+        assertScanned(LineType.VARIABLE_DECLARATION_ONLY_LINE, "@input ", "", "#! @input ");
+        assertScanned(LineType.COMPLEMENTARY_LINE, null, " second line", "#! second line");
+        assertScanned(LineType.COMPLEMENTARY_LINE, null, "", "#!");
+        assertScanned(LineType.COMPLEMENTARY_LINE, null, " @input a b: c", "#! @input a b: c");
+    }
+
+    @Test
+    public void testStepName() {
+        assertEquals("step_1", scanner.getStepName("  - step_1:"));
+        assertEquals("\u00E9tape", scanner.getStepName("-\u00E9tape: data"));
+        assertNull(scanner.getStepName("  - 1step:"));
+        assertNull(scanner.getStepName("  - step_1"));
+        assertNull(scanner.getStepName("_step_1:"));
+        assertNull(scanner.getStepName("  - step_1:\u2029"));
+    }
+
+    @Test
+    public void testSameAsPatternsForRandomLines() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            StringBuilder line = new StringBuilder();
+            if (random.nextBoolean()) {
+                line.append(random.nextBoolean() ? "#!" : " #! @");
+            }
+            int nrOfParts = random.nextInt(12);
+            for (int part = 0; part < nrOfParts; part++) {
+                line.append(LINE_PARTS[random.nextInt(LINE_PARTS.length)]);
+            }
+            assertSameAsPatterns(line.toString());
+        }
+    }
+
+    @Test
+    public void testSameAsPatternsForTestResources() throws Exception {
+        File resources = new File(getClass().getResource("/").toURI());
+        Collection<File> files = FileUtils.listFiles(resources, new String[]{"sl", "yaml", "yml"}, true);
+        assertTrue(files.size() > 0);
+
+        for (File file : files) {
+            for (String line : SlangSourceUtils.readLines(SlangSource.fromFile(file))) {
+                assertSameAsPatterns(line);
+            }
+        }
+    }
+
+    private void assertScanned(LineType type, String declaration, String content, String line) {
+        ScannedLine scannedLine = scanner.scan(line);
+        assertEquals(line, type, scannedLine.getType());
+        assertEquals(line, declaration, scannedLine.getDeclaration());
+        assertEquals(line, content, scannedLine.getContent());
+    }
+
+    private void assertSameAsPatterns(String line) {
+        ScannedLine scannedLine = scanner.scan(line);
+        if (patternMatcher.matchesDescriptionStart(line)) {
+            assertScanned(LineType.DESCRIPTION_START, null, null, line);
+        } else if (patternMatcher.matchesDescriptionEnd(line)) {
+            assertScanned(LineType.DESCRIPTION_END, null, null, line);
+        } else if (patternMatcher.matchesDescriptionVariableLine(line)) {
+            Pair<String, String> data = patternMatcher.getDescriptionVariableLineData(line);
+            assertScanned(LineType.VARIABLE_LINE, data.getLeft(), data.getRight(), line);
+        } else if (patternMatcher.matchesDescriptionGeneralLine(line)) {
+            Pair<String, String> data = patternMatcher.getDescriptionGeneralLineData(line);
+            assertScanned(LineType.GENERAL_LINE, data.getLeft(), data.getRight(), line);
+        } else if (patternMatcher.matchesVariableLineDeclarationOnlyLine(line)) {
+            Pair<String, String> data = patternMatcher.getDescriptionVariableLineDataDeclarationOnly(line);
+            assertScanned(LineType.VARIABLE_DECLARATION_ONLY_LINE, data.getLeft(), data.getRight(), line);
+        } else if (patternMatcher.matchesDescriptionComplementaryLine(line)) {
+            String data = patternMatcher.getDescriptionComplementaryLineData(line);
+            assertScanned(LineType.COMPLEMENTARY_LINE, null, data, line);
+        } else {
+            assertEquals(line, LineType.OTHER, scannedLine.getType());
+        }
+
+        String stepName = patternMatcher.matchesStepStartLine(line) ? patternMatcher.getStepName(line) : null;
+        assertEquals(line, stepName, scanner.getStepName(line));
+        assertEquals(line, patternMatcher.matchesCommentLine(line), scanner.isCommentLine(line));
+    }
+}
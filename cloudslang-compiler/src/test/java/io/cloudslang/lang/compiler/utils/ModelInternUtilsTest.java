@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.utils;
+
+import com.google.common.collect.Sets;
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ModelInternUtilsTest {
+
+    @Test
+    public void testEqualStringsShareInstance() {
+        String first = new String("some_namespace");
+        String second = new String("some_namespace");
+
+        Assert.assertSame(ModelInternUtils.intern(first), ModelInternUtils.intern(second));
+        Assert.assertNull(ModelInternUtils.intern(null));
+    }
+
+    @Test
+    public void testEqualSetsShareInstance() {
+        Set<ScriptFunction> first = Sets.newHashSet(ScriptFunction.GET, ScriptFunction.GET_SYSTEM_PROPERTY);
+        Set<ScriptFunction> second = Sets.newHashSet(ScriptFunction.GET_SYSTEM_PROPERTY, ScriptFunction.GET);
+
+        Set<ScriptFunction> internedFirst = ModelInternUtils.internSet(first);
+        Assert.assertEquals(first, internedFirst);
+        Assert.assertSame(internedFirst, ModelInternUtils.internSet(second));
+        Assert.assertSame(ModelInternUtils.internSet(new HashSet<String>()),
+                ModelInternUtils.internSet(new HashSet<ScriptFunction>()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInternedSetIsImmutable() {
+        ModelInternUtils.internSet(Sets.newHashSet("a.b.prop")).add("a.b.other_prop");
+    }
+
+    @Test
+    public void testNoExpressionResultIsShared() {
+        Result result = ModelInternUtils.noExpressionResult(ScoreLangConstants.SUCCESS_RESULT);
+
+        Assert.assertEquals(new Result(ScoreLangConstants.SUCCESS_RESULT, null), result);
+        Assert.assertSame(result, ModelInternUtils.noExpressionResult(new String(ScoreLangConstants.SUCCESS_RESULT)));
+        Assert.assertNotSame(result, ModelInternUtils.noExpressionResult(ScoreLangConstants.FAILURE_RESULT));
+    }
+}
@@ -57,6 +57,37 @@ public class ExternalPythonScriptValidatorTest {
         validator.validateExecutionMethodAndInputs(generateScript(scriptInputs), inputs);
     }
 
+    @Test(timeout = 5000)
+    public void testLongMalformedMethodSignature() {
+        StringBuilder script = new StringBuilder("def execute(");
+        for (int i = 0; i < 100; i++) {
+            script.append("in").append(i).append(' ');
+        }
+        script.append("-):\n    return {}\n");
+        ExternalPythonScriptValidator validator = new ExternalPythonScriptValidatorImpl();
+        expectException("Method {execute} is missing or is invalid.");
+        validator.validateExecutionMethodAndInputs(script.toString(), Arrays.asList("in0"));
+    }
+
+    @Test
+    public void testMethodWithOnlyComments() {
+        String script = "def execute(in1):\n" +
+                "    # single line comment\n" +
+                "    '''\n    multiline comment\n    '''\n";
+        ExternalPythonScriptValidator validator = new ExternalPythonScriptValidatorImpl();
+        expectException("Method {execute} cannot be empty.");
+        validator.validateExecutionMethodAndInputs(script, Arrays.asList("in1"));
+    }
+
+    @Test
+    public void testOverloadedMethod() {
+        String script = "def execute(in1):\n    return {}\n" +
+                "def execute(in1, in2):\n    return {}\n";
+        ExternalPythonScriptValidator validator = new ExternalPythonScriptValidatorImpl();
+        expectException("Overload of the execution method is not allowed.");
+        validator.validateExecutionMethodAndInputs(script, Arrays.asList("in1", "in2"));
+    }
+
     private void expectException(String message) {
         exception.expect(RuntimeException.class);
         exception.expectMessage(message);
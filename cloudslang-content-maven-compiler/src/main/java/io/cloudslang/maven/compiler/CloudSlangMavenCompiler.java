@@ -14,8 +14,10 @@ import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.maven.compiler.DependencyModelCache.DependencyModel;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 import org.codehaus.plexus.compiler.AbstractCompiler;
 import org.codehaus.plexus.compiler.CompilerConfiguration;
 import org.codehaus.plexus.compiler.CompilerException;
@@ -41,10 +43,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 
 /**
  * Created by hanael on 10/07/2016.
@@ -55,6 +61,12 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
 
     private static String IGNORE_DEPENDENCIES = "ignore-dependencies";
     private static String IGNORE_ERRORS = "ignore-errors";
+    private static String PARALLELISM = "parallelism";
+    private static String FULL_BUILD = "full-build";
+    private static String DEPENDENCY_CACHE_DIR = "dependency-cache-dir";
+
+    // the manifest keys of the dependency sources, which are jar entry names, get this prefix
+    private static final String DEPENDENCY_KEY_PREFIX = "jar:";
 
     private SlangCompiler slangCompiler;
 
@@ -62,6 +74,12 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
 
     private CompilerMessage.Kind errorLevel;
 
+    private int parallelism;
+
+    private File manifestFile;
+
+    private DependencyModelCache dependencyModelCache;
+
     public CloudSlangMavenCompiler() {
         super(CompilerOutputStyle.ONE_OUTPUT_FILE_FOR_ALL_INPUT_FILES, null, null, null);
         ApplicationContext ctx = new AnnotationConfigApplicationContext(SlangCompilerSpringConfig.class);
@@ -84,13 +102,11 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
         //and the framework support only one via the inputFileEnding
         config.setSourceFiles(null);
         String[] sourceFiles = getSourceFiles(config);
-        Map<String, byte[]> dependenciesSourceFiles = getDependenciesSourceFiles(config);
         if (sourceFiles.length > 0) {
-            System.out.println("Compiling " + sourceFiles.length + " " +
-                    "source file" + (sourceFiles.length == 1 ? "" : "s"));
-            for (String sourceFile : sourceFiles) {
-                compilerMessage.addAll(compileFile(sourceFile, sourceFiles, dependenciesSourceFiles));
-            }
+            //the models of the dependencies are needed only to validate the flows with their dependencies
+            Map<String, DependencyModel> dependencyModels = compileWithDependencies ?
+                    getDependencyModels(config) : Collections.<String, DependencyModel>emptyMap();
+            compilerMessage.addAll(compileFiles(sourceFiles, dependencyModels));
 
             if (compilerMessage.size() > 0) {
                 compilerResult.setCompilerMessages(compilerMessage);
@@ -104,83 +120,300 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
         return compilerResult;
     }
 
-    private void init(CompilerConfiguration config) {
+    private void init(CompilerConfiguration config) throws CompilerException {
+        Map<String, String> customCompilerArguments = config.getCustomCompilerArgumentsAsMap();
         //This parameter is passed in the compiler plugin whether to compile the flow with its dependencies
-        compileWithDependencies = !config.getCustomCompilerArgumentsAsMap().containsKey(IGNORE_DEPENDENCIES);
+        compileWithDependencies = !customCompilerArguments.containsKey(IGNORE_DEPENDENCIES);
         //This parameter is used to control the error level. if not set only warnings will be shown
-        errorLevel = config.getCustomCompilerArgumentsAsMap().containsKey(IGNORE_ERRORS) ?
+        errorLevel = customCompilerArguments.containsKey(IGNORE_ERRORS) ?
                 CompilerMessage.Kind.WARNING : CompilerMessage.Kind.ERROR;
+        //The number of sources pre-compiled at the same time, all available processors if not set
+        String parallelismArgument = customCompilerArguments.get(PARALLELISM);
+        parallelism = StringUtils.isBlank(parallelismArgument) ?
+                Runtime.getRuntime().availableProcessors() : parseParallelism(parallelismArgument.trim());
+        //Unless a full build is requested, sources that did not change since the last build are not compiled again
+        File buildDirectory = config.getBuildDirectory();
+        manifestFile = customCompilerArguments.containsKey(FULL_BUILD) || buildDirectory == null ? null :
+                new File(buildDirectory, CompilationManifest.FILE_NAME);
+        //The models of the dependency jars are shared by all the modules built with the same local repository
+        String dependencyCacheDirectory = customCompilerArguments.get(DEPENDENCY_CACHE_DIR);
+        dependencyModelCache = new DependencyModelCache(StringUtils.isBlank(dependencyCacheDirectory) ?
+                getDefaultDependencyCacheDirectory() : new File(dependencyCacheDirectory.trim()));
     }
 
-    private List<CompilerMessage> compileFile(String sourceFile, String[] sourceFiles,
-                                              Map<String, byte[]> dependenciesSourceFiles) {
-        ExecutableModellingResult executableModellingResult;
-        List<CompilerMessage> compilerMessages = new ArrayList<>();
+    private int parseParallelism(String parallelismArgument) throws CompilerException {
+        try {
+            int value = Integer.parseInt(parallelismArgument);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignore) {
+            // reported below
+        }
+        throw new CompilerException("Invalid value of compiler argument '" + PARALLELISM + "': " +
+                parallelismArgument + ". A positive number of threads is expected.");
+    }
 
+    private File getDefaultDependencyCacheDirectory() {
+        String localRepository = System.getProperty("maven.repo.local");
+        File repository = StringUtils.isBlank(localRepository) ?
+                new File(System.getProperty("user.home"), ".m2/repository") : new File(localRepository);
+        return new File(repository, ".cache/cloudslang-compiler");
+    }
+
+    private List<CompilerMessage> compileFiles(String[] sourceFiles, Map<String, DependencyModel> dependencyModels) {
+        String settings = "compileWithDependencies=" + compileWithDependencies;
+        CompilationManifest previousManifest = manifestFile == null ? new CompilationManifest(settings) :
+                CompilationManifest.load(manifestFile, settings);
+        CompilationManifest manifest = new CompilationManifest(settings);
+        Map<String, List<CompilerMessage>> compilerMessages = new HashMap<>();
+
+        Map<String, SlangSource> sources = new HashMap<>();
+        for (String sourceFile : sourceFiles) {
+            try {
+                sources.put(sourceFile, SlangSource.fromFile(new File(sourceFile)));
+            } catch (Exception e) {
+                compilerMessages.put(sourceFile, singletonList(createMessage(sourceFile, e.getMessage())));
+            }
+        }
+
+        //the executable id of a source is known from the previous build as long as its content did not change
+        Map<String, SlangSource> sourcesToPreCompile = new HashMap<>();
+        for (Map.Entry<String, SlangSource> source : sources.entrySet()) {
+            String fingerprint = source.getValue().getContentFingerprint();
+            if (fingerprint.equals(previousManifest.getFingerprint(source.getKey()))) {
+                manifest.putSource(source.getKey(), fingerprint, previousManifest.getExecutableId(source.getKey()));
+            } else {
+                sourcesToPreCompile.put(source.getKey(), source.getValue());
+            }
+        }
+        Map<String, ExecutableModellingResult> modellingResults = preCompileSources(sourcesToPreCompile);
+        putPreCompiledSources(manifest, sources, modellingResults);
+        for (Map.Entry<String, DependencyModel> dependencyModel : dependencyModels.entrySet()) {
+            Executable executable = dependencyModel.getValue().getExecutable();
+            if (executable != null) {
+                String key = DEPENDENCY_KEY_PREFIX + dependencyModel.getKey();
+                manifest.putSource(key, dependencyModel.getValue().getFingerprint(), executable.getId());
+                modellingResults.put(key, new ExecutableModellingResult(executable,
+                        new ArrayList<RuntimeException>()));
+            } else {
+                this.getLogger().warn("Could not compile source: " + dependencyModel.getKey());
+            }
+        }
+
+        List<String> filesToCompile = new ArrayList<>();
+        int upToDateCount = 0;
+        for (String sourceFile : sourceFiles) {
+            if (!sources.containsKey(sourceFile)) {
+                continue;
+            }
+            if (manifest.isUpToDate(sourceFile, previousManifest)) {
+                manifest.putCompiledSource(sourceFile, previousManifest.getCompiledDependencies(sourceFile));
+                upToDateCount++;
+            } else {
+                filesToCompile.add(sourceFile);
+            }
+        }
+        System.out.println("Compiling " + filesToCompile.size() + " " +
+                "source file" + (filesToCompile.size() == 1 ? "" : "s") +
+                (upToDateCount > 0 ? ", " + upToDateCount + " up to date" : ""));
+
+        //pre-compile the files and dependencies that are still missing, each of them exactly once
+        Map<String, SlangSource> missingSources = new HashMap<>();
+        for (String sourceFile : filesToCompile) {
+            if (!modellingResults.containsKey(sourceFile)) {
+                missingSources.put(sourceFile, sources.get(sourceFile));
+            }
+        }
+        if (compileWithDependencies) {
+            Map<String, List<String>> providersById = getProvidersById(manifest);
+            for (String sourceFile : filesToCompile) {
+                ExecutableModellingResult modellingResult = modellingResults.get(sourceFile);
+                Executable executable = modellingResult == null ? null : modellingResult.getExecutable();
+                if (executable != null && isFlow(executable)) {
+                    for (String dependencyId : executable.getExecutableDependencies()) {
+                        addMissingProviders(providersById.get(dependencyId), sources, modellingResults,
+                                missingSources);
+                    }
+                }
+            }
+        }
+        Map<String, ExecutableModellingResult> missingResults = preCompileSources(missingSources);
+        modellingResults.putAll(missingResults);
+        putPreCompiledSources(manifest, sources, missingResults);
+
+        Map<String, List<String>> providersById = compileWithDependencies ?
+                getProvidersById(manifest) : Collections.<String, List<String>>emptyMap();
+        for (String sourceFile : filesToCompile) {
+            List<CompilerMessage> fileMessages = compileFile(sourceFile, modellingResults, providersById);
+            if (fileMessages.isEmpty()) {
+                Executable executable = modellingResults.get(sourceFile).getExecutable();
+                manifest.putCompiledSource(sourceFile, compileWithDependencies && executable != null &&
+                        isFlow(executable) ?
+                        executable.getExecutableDependencies() : Collections.<String>emptySet());
+            } else {
+                compilerMessages.put(sourceFile, fileMessages);
+            }
+        }
+
+        storeManifest(manifest);
+
+        List<CompilerMessage> result = new ArrayList<>();
+        for (String sourceFile : sourceFiles) {
+            List<CompilerMessage> fileMessages = compilerMessages.get(sourceFile);
+            if (fileMessages != null) {
+                result.addAll(fileMessages);
+            }
+        }
+        return result;
+    }
+
+    private List<CompilerMessage> compileFile(String sourceFile,
+                                              Map<String, ExecutableModellingResult> modellingResults,
+                                              Map<String, List<String>> providersById) {
+        List<CompilerMessage> compilerMessages = new ArrayList<>();
+        ExecutableModellingResult executableModellingResult = modellingResults.get(sourceFile);
 
         try {
-            SlangSource slangSource = SlangSource.fromFile(new File(sourceFile));
-            executableModellingResult = slangCompiler.preCompileSource(slangSource);
             if (!CollectionUtils.isEmpty(executableModellingResult.getErrors())) {
                 for (RuntimeException runtimeException : executableModellingResult.getErrors()) {
-                    compilerMessages.add(new CompilerMessage(sourceFile + ": " +
-                            runtimeException.getMessage(), errorLevel));
+                    compilerMessages.add(createMessage(sourceFile, runtimeException.getMessage()));
                 }
             } else {
                 if (compileWithDependencies) {
                     compilerMessages.addAll(validateSlangModelWithDependencies(executableModellingResult,
-                            sourceFiles, dependenciesSourceFiles, sourceFile));
+                            modellingResults, providersById, sourceFile));
                 }
             }
         } catch (Exception e) {
-            compilerMessages.add(new CompilerMessage(sourceFile + ": " + e.getMessage(), errorLevel));
+            compilerMessages.add(createMessage(sourceFile, e.getMessage()));
         }
 
         return compilerMessages;
     }
 
     private List<CompilerMessage> validateSlangModelWithDependencies(ExecutableModellingResult modellingResult,
-                                                                     String[] dependencies,
-                                                                     Map<String, byte[]> dependenciesSourceFiles,
+                                                                     Map<String, ExecutableModellingResult>
+                                                                             modellingResults,
+                                                                     Map<String, List<String>> providersById,
                                                                      String sourceFile) {
         List<CompilerMessage> compilerMessages = new ArrayList<>();
         Set<Executable> dependenciesExecutables = new HashSet<>();
 
         Executable executable = modellingResult.getExecutable();
         //we need to verify only flows
-        if (!executable.getType().equals("flow")) {
+        if (!isFlow(executable)) {
             return compilerMessages;
         }
 
-        for (String dependency : dependencies) {
-            try {
-                SlangSource slangSource = SlangSource.fromFile(new File(dependency));
-                modellingResult = slangCompiler.preCompileSource(slangSource);
-                dependenciesExecutables.add(modellingResult.getExecutable());
-            } catch (Exception e) {
-                this.getLogger().warn("Could not compile source: " + dependency);
-            }
-        }
-
-        for (Map.Entry<String, byte[]> dependencyEntry : dependenciesSourceFiles.entrySet()) {
-            try {
-                SlangSource slangSource = SlangSource.fromBytes(dependencyEntry.getValue(), dependencyEntry.getKey());
-                modellingResult = slangCompiler.preCompileSource(slangSource);
-                dependenciesExecutables.add(modellingResult.getExecutable());
-            } catch (Exception e) {
-                this.getLogger().warn("Could not compile source: " + dependencyEntry.getKey());
+        //only the direct dependencies take part in the validation
+        for (String dependencyId : executable.getExecutableDependencies()) {
+            List<String> providers = providersById.get(dependencyId);
+            if (providers != null) {
+                for (String provider : providers) {
+                    Executable dependency = modellingResults.get(provider).getExecutable();
+                    if (dependency != null) {
+                        dependenciesExecutables.add(dependency);
+                    }
+                }
             }
         }
 
         List<RuntimeException> exceptions = slangCompiler.validateSlangModelWithDirectDependencies(executable,
                 dependenciesExecutables);
         for (RuntimeException runtimeException : exceptions) {
-            compilerMessages.add(new CompilerMessage(sourceFile + ": " + runtimeException.getMessage(), errorLevel));
+            compilerMessages.add(createMessage(sourceFile, runtimeException.getMessage()));
         }
 
         return compilerMessages;
     }
 
+    /**
+     * Pre-compiles the sources on {@link #parallelism} threads.
+     * A source that cannot be pre-compiled gets a result without an executable, holding the failure.
+     */
+    private Map<String, ExecutableModellingResult> preCompileSources(final Map<String, SlangSource> sources) {
+        if (sources.isEmpty()) {
+            return new HashMap<>();
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> sources.entrySet().parallelStream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> preCompileSource(entry.getValue()))))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while pre-compiling sources", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ExecutableModellingResult preCompileSource(SlangSource source) {
+        try {
+            return slangCompiler.preCompileSource(source);
+        } catch (Exception e) {
+            return new ExecutableModellingResult(null,
+                    singletonList((RuntimeException) new RuntimeException(e.getMessage(), e)));
+        }
+    }
+
+    private void putPreCompiledSources(CompilationManifest manifest, Map<String, SlangSource> sources,
+                                       Map<String, ExecutableModellingResult> modellingResults) {
+        for (Map.Entry<String, ExecutableModellingResult> modellingResult : modellingResults.entrySet()) {
+            Executable executable = modellingResult.getValue().getExecutable();
+            if (executable != null) {
+                manifest.putSource(modellingResult.getKey(),
+                        sources.get(modellingResult.getKey()).getContentFingerprint(), executable.getId());
+            }
+        }
+    }
+
+    private void addMissingProviders(List<String> providers, Map<String, SlangSource> sources,
+                                     Map<String, ExecutableModellingResult> modellingResults,
+                                     Map<String, SlangSource> missingSources) {
+        if (providers != null) {
+            for (String provider : providers) {
+                if (!modellingResults.containsKey(provider)) {
+                    missingSources.put(provider, sources.get(provider));
+                }
+            }
+        }
+    }
+
+    private Map<String, List<String>> getProvidersById(CompilationManifest manifest) {
+        Map<String, List<String>> providersById = new HashMap<>();
+        for (String key : manifest.getSourceKeys()) {
+            providersById.computeIfAbsent(manifest.getExecutableId(key), id -> new ArrayList<>()).add(key);
+        }
+        return providersById;
+    }
+
+    private void storeManifest(CompilationManifest manifest) {
+        if (manifestFile != null) {
+            try {
+                manifest.store(manifestFile);
+            } catch (IOException e) {
+                this.getLogger().warn("Could not store the compilation manifest: " + manifestFile + ". " +
+                        e.getMessage());
+            }
+        }
+    }
+
+    private boolean isFlow(Executable executable) {
+        return executable.getType().equals("flow");
+    }
+
+    private CompilerMessage createMessage(String sourceFile, String message) {
+        return new CompilerMessage(sourceFile + ": " + message, errorLevel);
+    }
+
     public String[] createCommandLine(CompilerConfiguration config) throws CompilerException {
         return null;
     }
@@ -195,22 +428,52 @@ public class CloudSlangMavenCompiler extends AbstractCompiler {
         return sources.toArray(new String[sources.size()]);
     }
 
-    private static Map<String, byte[]> getDependenciesSourceFiles(CompilerConfiguration config)
+    private Map<String, DependencyModel> getDependencyModels(CompilerConfiguration config)
             throws CompilerException {
         if (config.getClasspathEntries().isEmpty()) {
             return Collections.emptyMap();
         }
 
-        Map<String, byte[]> sources = new HashMap<>();
+        Map<String, DependencyModel> models = new HashMap<>();
         for (String dependency : config.getClasspathEntries()) {
             try {
-                sources.putAll(getSourceFilesForDependencies(dependency));
+                models.putAll(getDependencyModels(dependency));
             } catch (IOException e) {
                 throw new CompilerException("Cannot load sources from: " + dependency + ". " + e.getMessage());
             }
         }
 
-        return sources;
+        return models;
+    }
+
+    /**
+     * The sources of a jar are modelled once and then taken from the {@link DependencyModelCache}
+     * as long as they do not change. Jars without CloudSlang sources are neither hashed nor cached.
+     */
+    private Map<String, DependencyModel> getDependencyModels(String dependency) throws IOException {
+        Map<String, SlangSource> sources = new HashMap<>();
+        for (Map.Entry<String, byte[]> sourceFile : getSourceFilesForDependencies(dependency).entrySet()) {
+            sources.put(sourceFile.getKey(), SlangSource.fromBytes(sourceFile.getValue(), sourceFile.getKey()));
+        }
+        if (sources.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String key = dependencyModelCache.computeKey(sources);
+        Map<String, DependencyModel> models = dependencyModelCache.getModels(key);
+        if (models != null) {
+            return models;
+        }
+
+        models = new HashMap<>();
+        for (Map.Entry<String, ExecutableModellingResult> modellingResult : preCompileSources(sources).entrySet()) {
+            models.put(modellingResult.getKey(), new DependencyModel(
+                    sources.get(modellingResult.getKey()).getContentFingerprint(),
+                    modellingResult.getValue().getExecutable()));
+        }
+        dependencyModelCache.putModels(key, models);
+
+        return models;
     }
 
     private static Map<String, byte[]> getSourceFilesForDependencies(String dependency) throws IOException {
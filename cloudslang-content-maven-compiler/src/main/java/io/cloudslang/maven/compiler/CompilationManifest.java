@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.maven.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Record of a build of the {@link CloudSlangMavenCompiler}, kept in the build directory.
+ * <p>
+ * It holds the content fingerprint and the executable id of every source, project and dependency jar alike,
+ * and for every project source that compiled without messages the ids of its direct dependencies.
+ * A source is up to date when its own fingerprint and the fingerprints of the sources providing its
+ * dependencies are the same as in the previous build.
+ */
+class CompilationManifest {
+
+    static final String FILE_NAME = "cloudslang-compiler.manifest";
+
+    private static final String FORMAT_VERSION = "1";
+
+    private static final String SETTINGS_KEY = "settings";
+    private static final String SOURCE_PREFIX = "source.";
+    private static final String COMPILED_PREFIX = "compiled.";
+    private static final String SEPARATOR = ",";
+
+    private final String settings;
+
+    // key -> {fingerprint, executable id}
+    private final Map<String, String[]> sources = new HashMap<>();
+
+    // project source path -> ids of its direct dependencies
+    private final Map<String, Set<String>> compiledSources = new HashMap<>();
+
+    // executable id -> fingerprints of the sources providing it, built on demand
+    private Map<String, String> providerFingerprints;
+
+    /**
+     * @param settings the compiler settings that affect the result of a build,
+     *                 a manifest written with other settings is not reused
+     */
+    CompilationManifest(String settings) {
+        this.settings = FORMAT_VERSION + SEPARATOR + settings;
+    }
+
+    /**
+     * @return the manifest stored in the file, or an empty one if the file is missing, unreadable
+     * or was written with other settings
+     */
+    static CompilationManifest load(File file, String settings) {
+        CompilationManifest manifest = new CompilationManifest(settings);
+        if (!file.isFile()) {
+            return manifest;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            properties.load(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            return manifest;
+        }
+        if (!manifest.settings.equals(properties.getProperty(SETTINGS_KEY))) {
+            return manifest;
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (key.startsWith(SOURCE_PREFIX)) {
+                String[] fingerprintAndId = value.split(SEPARATOR, 2);
+                if (fingerprintAndId.length == 2) {
+                    manifest.putSource(key.substring(SOURCE_PREFIX.length()), fingerprintAndId[0],
+                            fingerprintAndId[1]);
+                }
+            } else if (key.startsWith(COMPILED_PREFIX)) {
+                manifest.putCompiledSource(key.substring(COMPILED_PREFIX.length()), value.isEmpty() ?
+                        Collections.<String>emptySet() : new LinkedHashSet<>(Arrays.asList(value.split(SEPARATOR))));
+            }
+        }
+        return manifest;
+    }
+
+    void store(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(SETTINGS_KEY, settings);
+        for (Map.Entry<String, String[]> source : sources.entrySet()) {
+            properties.setProperty(SOURCE_PREFIX + source.getKey(),
+                    source.getValue()[0] + SEPARATOR + source.getValue()[1]);
+        }
+        for (Map.Entry<String, Set<String>> compiledSource : compiledSources.entrySet()) {
+            properties.setProperty(COMPILED_PREFIX + compiledSource.getKey(),
+                    StringUtils.join(compiledSource.getValue().iterator(), SEPARATOR));
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tempFile = File.createTempFile(FILE_NAME, ".tmp", parent);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempFile.toPath())) {
+                properties.store(outputStream, null);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    void putSource(String key, String fingerprint, String executableId) {
+        sources.put(key, new String[]{fingerprint, executableId});
+        providerFingerprints = null;
+    }
+
+    Set<String> getSourceKeys() {
+        return sources.keySet();
+    }
+
+    /**
+     * @return the fingerprint of the source, null if it is not in the manifest
+     */
+    String getFingerprint(String key) {
+        String[] source = sources.get(key);
+        return source == null ? null : source[0];
+    }
+
+    /**
+     * @return the executable id of the source, null if it is not in the manifest
+     */
+    String getExecutableId(String key) {
+        String[] source = sources.get(key);
+        return source == null ? null : source[1];
+    }
+
+    void putCompiledSource(String path, Set<String> dependencyIds) {
+        compiledSources.put(path, dependencyIds);
+    }
+
+    /**
+     * @return the ids of the direct dependencies of a source that compiled without messages,
+     * null if the source did not
+     */
+    Set<String> getCompiledDependencies(String path) {
+        return compiledSources.get(path);
+    }
+
+    /**
+     * @param previous the manifest of the previous build
+     * @return true if the source compiled without messages in the previous build and neither its content
+     * nor the content providing its dependencies changed since
+     */
+    boolean isUpToDate(String path, CompilationManifest previous) {
+        Set<String> dependencyIds = previous.getCompiledDependencies(path);
+        String fingerprint = getFingerprint(path);
+        if (dependencyIds == null || fingerprint == null || !fingerprint.equals(previous.getFingerprint(path))) {
+            return false;
+        }
+        for (String dependencyId : dependencyIds) {
+            if (!getProviderFingerprints(dependencyId).equals(previous.getProviderFingerprints(dependencyId))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getProviderFingerprints(String executableId) {
+        if (providerFingerprints == null) {
+            Map<String, SortedSet<String>> fingerprintsById = new HashMap<>();
+            for (String[] source : sources.values()) {
+                SortedSet<String> fingerprints = fingerprintsById.get(source[1]);
+                if (fingerprints == null) {
+                    fingerprints = new TreeSet<>();
+                    fingerprintsById.put(source[1], fingerprints);
+                }
+                fingerprints.add(source[0]);
+            }
+            providerFingerprints = new HashMap<>();
+            for (Map.Entry<String, SortedSet<String>> entry : fingerprintsById.entrySet()) {
+                providerFingerprints.put(entry.getKey(), StringUtils.join(entry.getValue().iterator(), SEPARATOR));
+            }
+        }
+        String fingerprints = providerFingerprints.get(executableId);
+        return fingerprints == null ? "" : fingerprints;
+    }
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.maven.compiler;
+
+import io.cloudslang.lang.compiler.SlangCompiler;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.caching.CompilerVersion;
+import io.cloudslang.lang.compiler.caching.ModelObjectInputStream;
+import io.cloudslang.lang.compiler.caching.ModelObjectOutputStream;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stores the models of the sources of a dependency jar under {@code <cache directory>/<key>.models},
+ * where the key is a hash of the jar sources and of the compiler version.
+ * Released content jars never change, so their sources are modelled once and the models are reused by every
+ * later build and module that depends on the same jar.
+ * Every I/O or deserialization failure is treated as a cache miss, the cache never fails a compilation.
+ * The models of a jar holding sensitive values are not stored, see {@link ModelObjectOutputStream}.
+ */
+class DependencyModelCache {
+
+    static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_EXTENSION = ".models";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private static final String COMPILER_VERSION = CompilerVersion.of(SlangCompiler.class);
+
+    private final File cacheDirectory;
+
+    DependencyModelCache(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param sources the sources of a jar by jar entry name
+     * @return the key of their models, null if the compiler version is unknown and nothing can be cached
+     */
+    String computeKey(Map<String, SlangSource> sources) {
+        if (COMPILER_VERSION == null) {
+            return null;
+        }
+        StringBuilder content = new StringBuilder(FORMAT_VERSION + "\n" + COMPILER_VERSION + "\n");
+        for (Map.Entry<String, SlangSource> source : new TreeMap<>(sources).entrySet()) {
+            content.append(source.getKey()).append('\n')
+                    .append(source.getValue().getContentFingerprint()).append('\n');
+        }
+        return DigestUtils.sha256Hex(content.toString());
+    }
+
+    /**
+     * @return the models of the jar sources by jar entry name, null if they are not in the cache
+     */
+    Map<String, DependencyModel> getModels(String key) {
+        if (key == null) {
+            return null;
+        }
+        File entryFile = getEntryFile(key);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        try (ModelObjectInputStream in = new ModelObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(entryFile.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                FileUtils.deleteQuietly(entryFile);
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, DependencyModel> models = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String entryName = in.readUTF();
+                String fingerprint = in.readUTF();
+                Executable executable = (Executable) in.readObject();
+                models.put(entryName, new DependencyModel(fingerprint, executable));
+            }
+            return models;
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            // corrupted, written by an incompatible model class or holding a class that is not allowed
+            FileUtils.deleteQuietly(entryFile);
+            return null;
+        }
+    }
+
+    void putModels(String key, Map<String, DependencyModel> models) {
+        if (key == null) {
+            return;
+        }
+        File entryFile = getEntryFile(key);
+        File tempFile = new File(entryFile.getPath() + "." + Thread.currentThread().getId() + TEMP_EXTENSION);
+        try {
+            FileUtils.forceMkdir(cacheDirectory);
+            boolean sensitiveValueWritten;
+            try (ModelObjectOutputStream out = new ModelObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeInt(models.size());
+                for (Map.Entry<String, DependencyModel> model : models.entrySet()) {
+                    out.writeUTF(model.getKey());
+                    out.writeUTF(model.getValue().getFingerprint());
+                    out.writeObject(model.getValue().getExecutable());
+                }
+                sensitiveValueWritten = out.isSensitiveValueWritten();
+            }
+            if (sensitiveValueWritten) {
+                FileUtils.deleteQuietly(tempFile);
+            } else {
+                moveAtomically(tempFile.toPath(), entryFile.toPath());
+            }
+        } catch (IOException | RuntimeException ignore) {
+            // best effort: models that cannot be written are simply created again next time
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    private File getEntryFile(String key) {
+        return new File(cacheDirectory, key + ENTRY_EXTENSION);
+    }
+
+    private void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Model of a dependency source, the executable is null if the source could not be modelled.
+     */
+    static class DependencyModel {
+
+        private final String fingerprint;
+        private final Executable executable;
+
+        DependencyModel(String fingerprint, Executable executable) {
+            this.fingerprint = fingerprint;
+            this.executable = executable;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+
+        Executable getExecutable() {
+            return executable;
+        }
+    }
+}
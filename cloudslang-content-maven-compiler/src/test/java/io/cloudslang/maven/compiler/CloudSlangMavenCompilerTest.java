@@ -9,12 +9,25 @@
  *******************************************************************************/
 package io.cloudslang.maven.compiler;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.io.FileUtils;
 import org.codehaus.plexus.compiler.AbstractCompilerTest;
 import org.codehaus.plexus.compiler.Compiler;
 import org.codehaus.plexus.compiler.CompilerConfiguration;
+import org.codehaus.plexus.compiler.CompilerException;
 
 /**
  * Created by hanael on 10/07/2016.
@@ -22,6 +35,34 @@ import org.codehaus.plexus.compiler.CompilerConfiguration;
 
 public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
 
+    private static final Pattern UP_TO_DATE_PATTERN = Pattern.compile("(\\d+) up to date");
+
+    private static final String INCREMENTAL_FLOW = "namespace: user.flows\n" +
+            "imports:\n" +
+            "  ops: user.ops\n" +
+            "\n" +
+            "flow:\n" +
+            "  name: incremental_flow\n" +
+            "  inputs:\n" +
+            "    - text\n" +
+            "  workflow:\n" +
+            "    - print_step:\n" +
+            "        do:\n" +
+            "          ops.incremental_op:\n" +
+            "            - text\n";
+
+    private static final String INCREMENTAL_OP = "namespace: user.ops\n" +
+            "\n" +
+            "operation:\n" +
+            "  name: incremental_op\n" +
+            "  inputs:\n" +
+            "    - text\n" +
+            "  python_action:\n" +
+            "    script: |\n" +
+            "      print text\n" +
+            "  results:\n" +
+            "    - SUCCESS: ${ text != \"\" }\n" +
+            "    - FAILURE\n";
 
     public CloudSlangMavenCompilerTest() {
         super();
@@ -58,9 +99,142 @@ public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
         assertEquals("Wrong number of compilation errors.", 0, numCompilerErrors);
     }
 
+    public void testIncrementalCompile() throws Exception {
+        File buildDirectory = new File(getBasedir(), "target/incremental-compile");
+        File sourceDirectory = new File(buildDirectory, "content");
+        FileUtils.deleteDirectory(buildDirectory);
+        FileUtils.copyDirectory(new File(getBasedir(), "src/test/resources/content"), sourceDirectory);
+        FileUtils.writeStringToFile(new File(sourceDirectory, "incremental_flow.sl"), INCREMENTAL_FLOW,
+                StandardCharsets.UTF_8);
+        File opFile = new File(sourceDirectory, "incremental_op.sl");
+        FileUtils.writeStringToFile(opFile, INCREMENTAL_OP, StandardCharsets.UTF_8);
+
+        CompilerConfiguration compilerConfig = new CompilerConfiguration();
+        compilerConfig.setClasspathEntries(this.getClasspath());
+        compilerConfig.addSourceLocation(sourceDirectory.getPath());
+        compilerConfig.setCustomCompilerArgumentsAsMap(getCustomCompilerArguments());
+        compilerConfig.setBuildDirectory(buildDirectory);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        List messages = new ArrayList();
+        String output = compile(compiler, compilerConfig, messages);
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+        assertEquals(0, getUpToDateCount(output));
+        assertTrue(new File(buildDirectory, CompilationManifest.FILE_NAME).isFile());
+
+        // the sources without errors are skipped, the others are reported again
+        messages.clear();
+        output = compile(compiler, compilerConfig, messages);
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+        int upToDateCount = getUpToDateCount(output);
+        assertTrue("The flow and the operation should be up to date: " + output, upToDateCount >= 2);
+
+        // a changed operation is compiled again together with the flow depending on it
+        FileUtils.writeStringToFile(opFile, INCREMENTAL_OP + "# changed\n", StandardCharsets.UTF_8);
+        messages.clear();
+        output = compile(compiler, compilerConfig, messages);
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+        assertEquals(upToDateCount - 2, getUpToDateCount(output));
+
+        messages.clear();
+        output = compile(compiler, compilerConfig, messages);
+
+        assertEquals(upToDateCount, getUpToDateCount(output));
+    }
+
+    public void testInvalidParallelism() throws Exception {
+        Map<String, String> customCompilerArguments = getCustomCompilerArguments();
+        customCompilerArguments.put("parallelism", "many");
+        CompilerConfiguration compilerConfig = getCompilerConfigurationShallowCompile();
+        compilerConfig.setCustomCompilerArgumentsAsMap(customCompilerArguments);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        try {
+            compiler.performCompile(compilerConfig);
+            fail("An invalid parallelism should fail the compilation");
+        } catch (CompilerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("'parallelism'"));
+        }
+    }
+
+    public void testDependencyModelCache() throws Exception {
+        File jar = new File(getBasedir(), "target/dependency-model-cache/content.jar");
+        File javaJar = new File(getBasedir(), "target/dependency-model-cache/java.jar");
+        File cacheDirectory = new File(getBasedir(), "target/dependency-model-cache/cache");
+        FileUtils.deleteDirectory(jar.getParentFile());
+        jar.getParentFile().mkdirs();
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+            jarOutputStream.putNextEntry(new JarEntry("base/print_text.sl"));
+            jarOutputStream.write(FileUtils.readFileToByteArray(
+                    new File(getBasedir(), "src/test/resources/content/op1.sl")));
+            jarOutputStream.closeEntry();
+        }
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(javaJar.toPath()))) {
+            jarOutputStream.putNextEntry(new JarEntry("base/Action.class"));
+            jarOutputStream.write(new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+            jarOutputStream.closeEntry();
+        }
+
+        Map<String, String> customCompilerArguments = new HashMap<>();
+        customCompilerArguments.put("dependency-cache-dir", cacheDirectory.getPath());
+
+        CompilerConfiguration compilerConfig = new CompilerConfiguration();
+        compilerConfig.setClasspathEntries(Arrays.asList(jar.getPath(), javaJar.getPath()));
+        compilerConfig.addSourceLocation(getBasedir() + "/src/test/resources/content");
+        compilerConfig.setCustomCompilerArgumentsAsMap(customCompilerArguments);
+
+        Compiler compiler = (Compiler) this.lookup(Compiler.ROLE, this.getRoleHint());
+        List messages = compiler.performCompile(compilerConfig).getCompilerMessages();
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+        // nothing is cached for the jar without CloudSlang sources
+        assertEquals(1, cacheDirectory.list().length);
+
+        // the models of the jar are now taken from the cache
+        messages = compiler.performCompile(compilerConfig).getCompilerMessages();
+
+        assertEquals("Wrong number of compilation errors.", 4, compilerErrorCount(messages));
+        assertEquals(1, cacheDirectory.list().length);
+    }
+
+    /**
+     * @return what the compiler printed, which includes the number of sources that were up to date
+     */
+    private String compile(Compiler compiler, CompilerConfiguration compilerConfig, List messages)
+            throws Exception {
+        PrintStream systemOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8.name()));
+        try {
+            messages.addAll(compiler.performCompile(compilerConfig).getCompilerMessages());
+        } finally {
+            System.setOut(systemOut);
+        }
+        String printed = output.toString(StandardCharsets.UTF_8.name());
+        systemOut.print(printed);
+        return printed;
+    }
+
+    /**
+     * @return arguments keeping the dependency models away from the local repository
+     */
+    private Map<String, String> getCustomCompilerArguments() {
+        Map<String, String> customCompilerArguments = new HashMap<>();
+        customCompilerArguments.put("dependency-cache-dir", getBasedir() + "/target/dependency-cache");
+        return customCompilerArguments;
+    }
+
+    private int getUpToDateCount(String output) {
+        Matcher matcher = UP_TO_DATE_PATTERN.matcher(output);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
     private CompilerConfiguration getCompilerConfigurationShallowCompile() throws Exception {
         String sourceDir = getBasedir() + "/src/test/resources/content";
-        Map<String, String> customCompilerArguments = new HashMap<>();
+        Map<String, String> customCompilerArguments = getCustomCompilerArguments();
 
         CompilerConfiguration compilerConfig = new CompilerConfiguration();
         compilerConfig.setClasspathEntries(this.getClasspath());
@@ -72,7 +246,7 @@ public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
 
     private CompilerConfiguration getCompilerConfigurationNoShallowCompile() throws Exception {
         String sourceDir = getBasedir() + "/src/test/resources/content";
-        Map<String, String> customCompilerArguments = new HashMap<>();
+        Map<String, String> customCompilerArguments = getCustomCompilerArguments();
         customCompilerArguments.put("ignore-dependencies", "");
 
 
@@ -86,7 +260,7 @@ public class CloudSlangMavenCompilerTest extends AbstractCompilerTest {
 
     private CompilerConfiguration getCompilerConfigurationDontFailOnErrors() throws Exception {
         String sourceDir = getBasedir() + "/src/test/resources/content";
-        Map<String, String> customCompilerArguments = new HashMap<>();
+        Map<String, String> customCompilerArguments = getCustomCompilerArguments();
         customCompilerArguments.put("ignore-errors", "");
 
         CompilerConfiguration compilerConfig = new CompilerConfiguration();
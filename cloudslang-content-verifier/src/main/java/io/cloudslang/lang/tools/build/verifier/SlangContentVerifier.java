@@ -26,12 +26,19 @@ import java.io.File;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Level;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +50,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class SlangContentVerifier {
 
+    public static final String SLANG_VERIFIER_THREAD_COUNT = "slang.verifier.thread.count";
+
     @Autowired
     private SlangCompiler slangCompiler;
 
@@ -61,6 +70,8 @@ public class SlangContentVerifier {
     @Autowired
     private SlangCompilationService slangCompilationService;
 
+    private volatile int threadCount = Integer.getInteger(SLANG_VERIFIER_THREAD_COUNT, 1);
+
     public PreCompileResult createModelsAndValidate(String directoryPath, boolean shouldValidateDescription,
                                                     boolean shouldValidateCheckstyle) {
         Validate.notEmpty(directoryPath, "You must specify a path");
@@ -72,43 +83,15 @@ public class SlangContentVerifier {
         loggingService.logEvent(Level.INFO, slangFiles.size() + " .sl files were found");
         loggingService.logEvent(Level.INFO, "");
         Queue<RuntimeException> exceptions = new ArrayDeque<>();
-        String errorMessagePrefixMetadata = "";
-        for (File slangFile: slangFiles) {
-            Executable sourceModel = null;
-            try {
-                errorMessagePrefixMetadata = "Failed to extract metadata for file: \'" +
-                    slangFile.getAbsoluteFile() + "\'.\n";
-                String errorMessagePrefixCompilation = "Failed to compile file: \'" +
-                    slangFile.getAbsoluteFile() + "\'.\n";
-
-                Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() +
-                        "\' must lead to a file");
-                SlangSource slangSource = SlangSource.fromFile(slangFile);
-
-                ExecutableModellingResult preCompileResult = slangCompiler.preCompileSource(slangSource);
-                sourceModel = preCompileResult.getExecutable();
-                exceptions.addAll(prependPrefix(preCompileResult.getErrors(), errorMessagePrefixCompilation));
-
-                MetadataModellingResult metadataResult = metadataExtractor
-                        .extractMetadataModellingResult(slangSource, shouldValidateCheckstyle);
-                Metadata sourceMetadata = metadataResult.getMetadata();
-                exceptions.addAll(prependPrefix(metadataResult.getErrors(), errorMessagePrefixMetadata));
-
-                if (sourceModel != null) {
-                    int size = exceptions.size();
-                    staticValidator.validateSlangFile(slangFile, sourceModel,
-                                    sourceMetadata, shouldValidateDescription, exceptions);
-                    if (size == exceptions.size()) {
-                        slangModels.put(getUniqueName(sourceModel), sourceModel);
-                    }
-                }
-            } catch (Exception e) {
-                String errorMessage = errorMessagePrefixMetadata + e.getMessage();
-                loggingService.logEvent(Level.ERROR, errorMessage);
-                exceptions.add(new RuntimeException(errorMessage, e));
-                if (e instanceof MetadataMissingException && sourceModel != null) {
-                    slangModels.put(getUniqueName(sourceModel), sourceModel);
-                }
+        // results are merged in file path order, so the reported errors do not depend on the thread count
+        for (SlangFileResult fileResult : validateSlangFiles(sortByPath(slangFiles), shouldValidateDescription,
+                shouldValidateCheckstyle)) {
+            if (fileResult.errorMessage != null) {
+                loggingService.logEvent(Level.ERROR, fileResult.errorMessage);
+            }
+            exceptions.addAll(fileResult.exceptions);
+            if (fileResult.sourceModel != null) {
+                slangModels.put(getUniqueName(fileResult.sourceModel), fileResult.sourceModel);
             }
         }
         if (slangFiles.size() != slangModels.size()) {
@@ -122,6 +105,66 @@ public class SlangContentVerifier {
         return preCompileResult;
     }
 
+    /**
+     * Validates the files on {@link #threadCount} threads.
+     * The returned results are in the order of the given files.
+     */
+    private List<SlangFileResult> validateSlangFiles(List<File> slangFiles,
+                                                     final boolean shouldValidateDescription,
+                                                     final boolean shouldValidateCheckstyle) {
+        return runOnThreads(slangFiles, slangFile -> validateSlangFile(slangFile, shouldValidateDescription,
+                shouldValidateCheckstyle), "validating slang files");
+    }
+
+    private SlangFileResult validateSlangFile(File slangFile, boolean shouldValidateDescription,
+                                              boolean shouldValidateCheckstyle) {
+        SlangFileResult fileResult = new SlangFileResult();
+        Queue<RuntimeException> exceptions = fileResult.exceptions;
+        Executable sourceModel = null;
+        String errorMessagePrefixMetadata = "Failed to extract metadata for file: \'" +
+                slangFile.getAbsoluteFile() + "\'.\n";
+        try {
+            String errorMessagePrefixCompilation = "Failed to compile file: \'" +
+                    slangFile.getAbsoluteFile() + "\'.\n";
+
+            Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() +
+                    "\' must lead to a file");
+            SlangSource slangSource = SlangSource.fromFile(slangFile);
+
+            ExecutableModellingResult preCompileResult = slangCompiler.preCompileSource(slangSource);
+            sourceModel = preCompileResult.getExecutable();
+            exceptions.addAll(prependPrefix(preCompileResult.getErrors(), errorMessagePrefixCompilation));
+
+            MetadataModellingResult metadataResult = metadataExtractor
+                    .extractMetadataModellingResult(slangSource, shouldValidateCheckstyle);
+            Metadata sourceMetadata = metadataResult.getMetadata();
+            exceptions.addAll(prependPrefix(metadataResult.getErrors(), errorMessagePrefixMetadata));
+
+            if (sourceModel != null) {
+                int size = exceptions.size();
+                staticValidator.validateSlangFile(slangFile, sourceModel,
+                        sourceMetadata, shouldValidateDescription, exceptions);
+                if (size == exceptions.size()) {
+                    fileResult.sourceModel = sourceModel;
+                }
+            }
+        } catch (Exception e) {
+            String errorMessage = errorMessagePrefixMetadata + e.getMessage();
+            fileResult.errorMessage = errorMessage;
+            exceptions.add(new RuntimeException(errorMessage, e));
+            if (e instanceof MetadataMissingException && sourceModel != null) {
+                fileResult.sourceModel = sourceModel;
+            }
+        }
+        return fileResult;
+    }
+
+    private List<File> sortByPath(Collection<File> slangFiles) {
+        List<File> sortedFiles = new ArrayList<>(slangFiles);
+        Collections.sort(sortedFiles);
+        return sortedFiles;
+    }
+
     private Collection<RuntimeException> prependPrefix(Collection<RuntimeException> errors, String prefix) {
         List<RuntimeException> result = new ArrayList<>();
         for (RuntimeException ex : errors) {
@@ -137,27 +180,35 @@ public class SlangContentVerifier {
     public CompileResult compileSlangModels(Map<String, Executable> slangModels) {
         CompileResult compileResult = new CompileResult();
         Map<String, CompilationArtifact> compiledArtifacts = new HashMap<>();
-        for (Map.Entry<String, Executable> slangModelEntry : slangModels.entrySet()) {
-            Executable slangModel = slangModelEntry.getValue();
+        Map<String, Set<Executable>> dependencyClosures = new HashMap<>();
+        // the closures are resolved up front, so the models can then be compiled independently of each other
+        List<SlangModelResult> modelResults = new ArrayList<>(slangModels.size());
+        for (String uniqueName : new TreeSet<>(slangModels.keySet())) {
+            SlangModelResult modelResult = new SlangModelResult(slangModels.get(uniqueName));
             try {
-                CompilationArtifact compiledSource = compiledArtifacts.get(getUniqueName(slangModel));
-                if (compiledSource == null) {
-                    Set<Executable> dependenciesModels = getModelDependenciesRecursively(slangModels, slangModel);
-                    compiledSource = scoreCompiler.compile(slangModel, dependenciesModels);
-                    if (compiledSource != null) {
-                        loggingService.logEvent(Level.INFO, "Compiled: \'" + slangModel.getNamespace() + "." +
-                                slangModel.getName() + "\' successfully");
-                        compiledArtifacts.put(getUniqueName(slangModel), compiledSource);
-                    } else {
-                        loggingService.logEvent(Level.ERROR, "Failed to compile source: \'" +
-                                slangModel.getNamespace() + "." + slangModel.getName() + "\'");
-                    }
-                }
+                modelResult.dependenciesModels = getModelDependenciesRecursively(slangModels,
+                        modelResult.slangModel, dependencyClosures, new LinkedHashSet<String>());
             } catch (Exception e) {
+                modelResult.exception = e;
+            }
+            modelResults.add(modelResult);
+        }
+        // results are reported in name order, so the log does not depend on the thread count
+        for (SlangModelResult modelResult : runOnThreads(modelResults, this::compileSlangModel,
+                "compiling slang models")) {
+            Executable slangModel = modelResult.slangModel;
+            if (modelResult.exception != null) {
                 String errorMessage = "Failed compiling Slang source: \'" + slangModel.getNamespace() + "." +
-                        slangModel.getName() + "\'.\n" + e.getMessage();
+                        slangModel.getName() + "\'.\n" + modelResult.exception.getMessage();
                 loggingService.logEvent(Level.ERROR, errorMessage);
-                compileResult.addException(new RuntimeException(errorMessage, e));
+                compileResult.addException(new RuntimeException(errorMessage, modelResult.exception));
+            } else if (modelResult.compiledSource != null) {
+                loggingService.logEvent(Level.INFO, "Compiled: \'" + slangModel.getNamespace() + "." +
+                        slangModel.getName() + "\' successfully");
+                compiledArtifacts.put(getUniqueName(slangModel), modelResult.compiledSource);
+            } else {
+                loggingService.logEvent(Level.ERROR, "Failed to compile source: \'" +
+                        slangModel.getNamespace() + "." + slangModel.getName() + "\'");
             }
         }
 
@@ -165,23 +216,128 @@ public class SlangContentVerifier {
         return compileResult;
     }
 
+    private SlangModelResult compileSlangModel(SlangModelResult modelResult) {
+        if (modelResult.exception == null) {
+            try {
+                modelResult.compiledSource = scoreCompiler.compile(modelResult.slangModel,
+                        modelResult.dependenciesModels);
+            } catch (Exception e) {
+                modelResult.exception = e;
+            }
+        }
+        return modelResult;
+    }
+
+    /**
+     * Runs the task for every item on {@link #threadCount} threads.
+     * The returned results are in the order of the given items.
+     */
+    private <T, R> List<R> runOnThreads(final List<T> items, final Function<T, R> task, String description) {
+        if (threadCount <= 1 || items.size() < 2) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(task.apply(item));
+            }
+            return results;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        try {
+            return pool.submit(() -> items.parallelStream()
+                    .map(task)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while " + description, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the transitive dependencies of the model. The closure of every model reached on the way is
+     * memoized in dependencyClosures, so a sub-flow shared by many flows is resolved only once.
+     *
+     * @param dependencyPath the models currently being resolved, used to report dependency cycles
+     */
     private Set<Executable> getModelDependenciesRecursively(Map<String, Executable> slangModels,
-                                                            Executable slangModel) {
-        Set<Executable> dependenciesModels = new HashSet<>();
+                                                            Executable slangModel,
+                                                            Map<String, Set<Executable>> dependencyClosures,
+                                                            Set<String> dependencyPath) {
+        String uniqueName = getUniqueName(slangModel);
+        Set<Executable> dependenciesModels = dependencyClosures.get(uniqueName);
+        if (dependenciesModels != null) {
+            return dependenciesModels;
+        }
+        dependencyPath.add(uniqueName);
+        dependenciesModels = new HashSet<>();
         for (String dependencyName : slangModel.getExecutableDependencies()) {
             Executable dependency = slangModels.get(dependencyName);
             if (dependency == null) {
                 throw new RuntimeException("Failed compiling slang source: " + slangModel.getNamespace() + "." +
                         slangModel.getName() + ". Missing dependency: " + dependencyName);
             }
+            String dependencyUniqueName = getUniqueName(dependency);
+            if (dependencyPath.contains(dependencyUniqueName)) {
+                throw new RuntimeException("Failed compiling slang source: " + slangModel.getNamespace() + "." +
+                        slangModel.getName() + ". Dependency cycle: " +
+                        getCyclePath(dependencyPath, dependencyUniqueName));
+            }
             dependenciesModels.add(dependency);
-            dependenciesModels.addAll(getModelDependenciesRecursively(slangModels, dependency));
+            dependenciesModels.addAll(getModelDependenciesRecursively(slangModels, dependency,
+                    dependencyClosures, dependencyPath));
         }
+        dependencyPath.remove(uniqueName);
+        dependenciesModels = Collections.unmodifiableSet(dependenciesModels);
+        dependencyClosures.put(uniqueName, dependenciesModels);
         return dependenciesModels;
     }
 
+    private String getCyclePath(Set<String> dependencyPath, String cycleStart) {
+        StringBuilder cyclePath = new StringBuilder();
+        boolean inCycle = false;
+        for (String uniqueName : dependencyPath) {
+            inCycle = inCycle || uniqueName.equals(cycleStart);
+            if (inCycle) {
+                cyclePath.append(uniqueName).append(" -> ");
+            }
+        }
+        return cyclePath.append(cycleStart).toString();
+    }
+
     private String getUniqueName(Executable sourceModel) {
         return sourceModel.getNamespace() + "." + sourceModel.getName();
     }
 
+    /**
+     * @param threadCount number of threads used to validate the slang files and compile their models,
+     *                    1 or less does it on the calling thread
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    private static class SlangModelResult {
+        private final Executable slangModel;
+        private Set<Executable> dependenciesModels;
+        private CompilationArtifact compiledSource;
+        private Exception exception;
+
+        private SlangModelResult(Executable slangModel) {
+            this.slangModel = slangModel;
+        }
+    }
+
+    private static class SlangFileResult {
+        private final Queue<RuntimeException> exceptions = new ArrayDeque<>();
+        private Executable sourceModel;
+        private String errorMessage;
+    }
+
 }
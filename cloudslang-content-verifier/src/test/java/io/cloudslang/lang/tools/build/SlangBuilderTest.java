@@ -56,6 +56,8 @@ import io.cloudslang.lang.tools.build.tester.runconfiguration.strategy.ConflictR
 import io.cloudslang.lang.tools.build.tester.runconfiguration.strategy.DefaultResolutionStrategy;
 import io.cloudslang.lang.tools.build.validation.StaticValidator;
 import io.cloudslang.lang.tools.build.validation.StaticValidatorImpl;
+import io.cloudslang.lang.tools.build.verifier.CompileResult;
+import io.cloudslang.lang.tools.build.verifier.PreCompileResult;
 import io.cloudslang.lang.tools.build.verifier.SlangContentVerifier;
 import io.cloudslang.score.api.ExecutionPlan;
 import java.io.File;
@@ -157,6 +159,9 @@ public class SlangBuilderTest {
     @Autowired
     private SlangTestRunner slangTestRunner;
 
+    @Autowired
+    private SlangContentVerifier slangContentVerifier;
+
     @Autowired
     public ParallelTestCaseExecutorService parallelTestCaseExecutorService;
 
@@ -380,6 +385,82 @@ public class SlangBuilderTest {
                 numberOfCompiledSlangFiles, numberOfCompiledSlangFiles, 2);
     }
 
+    @Test
+    public void testCompileSlangModelsWithSharedDependencies() throws Exception {
+        Flow sharedFlow = createFlow("shared_flow");
+        Flow leftFlow = createFlow("left_flow", "dependencies.shared_flow");
+        Flow rightFlow = createFlow("right_flow", "dependencies.shared_flow");
+        Flow mainFlow = createFlow("main_flow", "dependencies.left_flow", "dependencies.right_flow");
+        Map<String, Executable> slangModels = new HashMap<>();
+        for (Flow flow : asList(sharedFlow, leftFlow, rightFlow, mainFlow)) {
+            slangModels.put(flow.getNamespace() + "." + flow.getName(), flow);
+        }
+        when(scoreCompiler.compile(any(Executable.class), anySetOf(Executable.class)))
+                .thenReturn(EMPTY_COMPILATION_ARTIFACT);
+
+        CompileResult compileResult = slangContentVerifier.compileSlangModels(slangModels);
+
+        assertTrue(compileResult.getExceptions().isEmpty());
+        assertEquals(4, compileResult.getResults().size());
+        verify(scoreCompiler).compile(mainFlow, newHashSet((Executable) leftFlow, rightFlow, sharedFlow));
+        verify(scoreCompiler).compile(leftFlow, newHashSet((Executable) sharedFlow));
+        verify(scoreCompiler).compile(sharedFlow, new HashSet<Executable>());
+    }
+
+    @Test
+    public void testCompileSlangModelsReportsDependencyCycle() throws Exception {
+        Flow firstFlow = createFlow("first_flow", "dependencies.second_flow");
+        Flow secondFlow = createFlow("second_flow", "dependencies.first_flow");
+        Map<String, Executable> slangModels = new HashMap<>();
+        slangModels.put("dependencies.first_flow", firstFlow);
+        slangModels.put("dependencies.second_flow", secondFlow);
+
+        CompileResult compileResult = slangContentVerifier.compileSlangModels(slangModels);
+
+        assertTrue(compileResult.getResults().isEmpty());
+        assertEquals(2, compileResult.getExceptions().size());
+        for (RuntimeException ex : compileResult.getExceptions()) {
+            assertTrue(ex.getMessage(),
+                    ex.getMessage().contains("dependencies.first_flow -> dependencies.second_flow -> " +
+                            "dependencies.first_flow") ||
+                    ex.getMessage().contains("dependencies.second_flow -> dependencies.first_flow -> " +
+                            "dependencies.second_flow"));
+        }
+        verify(scoreCompiler, never()).compile(any(Executable.class), anySetOf(Executable.class));
+    }
+
+    @Test
+    public void testParallelCompileSlangModelsReportsErrorsInNameOrder() throws Exception {
+        Flow sharedFlow = createFlow("shared_flow");
+        Flow firstFlow = createFlow("a_flow", "dependencies.shared_flow");
+        Flow secondFlow = createFlow("b_flow", "dependencies.shared_flow");
+        Flow thirdFlow = createFlow("c_flow", "dependencies.shared_flow");
+        Map<String, Executable> slangModels = new HashMap<>();
+        for (Flow flow : asList(thirdFlow, sharedFlow, secondFlow, firstFlow)) {
+            slangModels.put(flow.getNamespace() + "." + flow.getName(), flow);
+        }
+        when(scoreCompiler.compile(any(Executable.class), anySetOf(Executable.class)))
+                .thenReturn(EMPTY_COMPILATION_ARTIFACT);
+        when(scoreCompiler.compile(eq(thirdFlow), anySetOf(Executable.class)))
+                .thenThrow(new RuntimeException("c_flow is invalid"));
+        when(scoreCompiler.compile(eq(firstFlow), anySetOf(Executable.class)))
+                .thenThrow(new RuntimeException("a_flow is invalid"));
+
+        slangContentVerifier.setThreadCount(4);
+        try {
+            CompileResult compileResult = slangContentVerifier.compileSlangModels(slangModels);
+
+            List<RuntimeException> exceptions = new ArrayList<>(compileResult.getExceptions());
+            assertEquals(2, exceptions.size());
+            assertTrue(exceptions.get(0).getMessage().contains("a_flow is invalid"));
+            assertTrue(exceptions.get(1).getMessage().contains("c_flow is invalid"));
+            assertEquals(newHashSet("dependencies.b_flow", "dependencies.shared_flow"),
+                    compileResult.getResults().keySet());
+        } finally {
+            slangContentVerifier.setThreadCount(1);
+        }
+    }
+
     @Test
     public void testInvalidNamespaceFlow() throws Exception {
         final URI resource = getClass().getResource("/no_dependencies").toURI();
@@ -483,6 +564,38 @@ public class SlangBuilderTest {
         throw slangBuildResults.getCompilationExceptions().get(0);
     }
 
+    @Test
+    public void testParallelPreCompileReportsErrorsInFilePathOrder() throws Exception {
+        final URI resource = getClass().getResource("/content/base").toURI();
+        when(slangCompiler.preCompileSource(any(SlangSource.class)))
+                .thenAnswer(new Answer<ExecutableModellingResult>() {
+                    @Override
+                    public ExecutableModellingResult answer(InvocationOnMock invocation) throws Throwable {
+                        SlangSource source = (SlangSource) invocation.getArguments()[0];
+                        List<RuntimeException> errors = new ArrayList<>();
+                        errors.add(new RuntimeException(source.getName()));
+                        return new ExecutableModellingResult(null, errors);
+                    }
+                });
+        when(metadataExtractor.extractMetadataModellingResult(any(SlangSource.class), eq(false)))
+                .thenReturn(new MetadataModellingResult(EMPTY_METADATA, new ArrayList<RuntimeException>()));
+
+        slangContentVerifier.setThreadCount(4);
+        try {
+            PreCompileResult preCompileResult = slangContentVerifier
+                    .createModelsAndValidate(resource.getPath(), false, false);
+            List<RuntimeException> exceptions = new ArrayList<>(preCompileResult.getExceptions());
+            assertEquals(4, exceptions.size());
+            assertTrue(exceptions.get(0).getMessage().endsWith("output_op.sl"));
+            assertTrue(exceptions.get(1).getMessage().endsWith("print_property.sl"));
+            assertTrue(exceptions.get(2).getMessage().endsWith("print_text.sl"));
+            assertTrue(exceptions.get(3).getMessage().contains("were not pre-compiled"));
+            assertTrue(preCompileResult.getResults().isEmpty());
+        } finally {
+            slangContentVerifier.setThreadCount(1);
+        }
+    }
+
     @Test
     public void testCompileSlangFileAndRunTests() throws Exception {
         final URI contentResource = getClass().getResource("/no_dependencies").toURI();
@@ -740,6 +853,11 @@ public class SlangBuilderTest {
         };
     }
 
+    private Flow createFlow(String name, String... dependencies) {
+        return new Flow(null, null, null, "dependencies", name, null, null, null, null,
+                new HashSet<>(asList(dependencies)), SYSTEM_PROPERTY_DEPENDENCIES);
+    }
+
     @Configuration
     static class Config {
 
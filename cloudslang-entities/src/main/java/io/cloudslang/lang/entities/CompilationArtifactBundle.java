@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities;
+
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.score.api.ExecutionPlan;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.Validate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes bundles of {@link CompilationArtifact}s, so that executables compiled once can be run
+ * without the compiler and without their sources.
+ * <p>
+ * A bundle starts with a magic number and a format version, followed by the serialized artifacts.
+ * All the artifacts are written to the same object stream, so a dependency plan shared by several
+ * artifacts is stored once and shared again after loading.
+ */
+public final class CompilationArtifactBundle {
+
+    static final int MAGIC = 0x43534142;
+    static final int FORMAT_VERSION = 1;
+
+    private CompilationArtifactBundle() {
+    }
+
+    /**
+     * @param artifacts  the artifacts to write, their executables must have distinct ids
+     * @param bundleFile the file to write, replaced if it exists
+     */
+    public static void write(Collection<CompilationArtifact> artifacts, File bundleFile) {
+        Validate.notNull(artifacts, "Compilation artifacts can not be null");
+        Validate.notNull(bundleFile, "Bundle file can not be null");
+        Set<String> executableIds = new HashSet<>();
+        for (CompilationArtifact artifact : artifacts) {
+            Validate.notNull(artifact, "Compilation artifact can not be null");
+            String executableId = artifact.getExecutionPlan().getFlowUuid();
+            Validate.isTrue(executableIds.add(executableId), "Executable: " + executableId +
+                    " is contained more than once in the bundle");
+        }
+
+        File tempFile = new File(bundleFile.getPath() + ".tmp");
+        try {
+            File parent = bundleFile.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                FileUtils.forceMkdir(parent);
+            }
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+                DataOutputStream header = new DataOutputStream(out);
+                header.writeInt(MAGIC);
+                header.writeInt(FORMAT_VERSION);
+                header.flush();
+
+                ObjectOutputStream objects = new ObjectOutputStream(out);
+                objects.writeInt(artifacts.size());
+                for (CompilationArtifact artifact : artifacts) {
+                    objects.writeObject(artifact.getExecutionPlan());
+                    objects.writeObject(artifact.getDependencies());
+                    objects.writeObject(artifact.getInputs());
+                    objects.writeObject(artifact.getSystemProperties());
+                }
+                objects.flush();
+            }
+            Files.move(tempFile.toPath(), bundleFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.deleteQuietly(tempFile);
+            throw new RuntimeException("There was a problem writing the bundle: " + bundleFile.getName() +
+                    ", Exception is : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param bundleFile a file written by {@link #write(Collection, File)}
+     * @return the artifacts of the bundle, by the id of their executable, in the order they were written
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, CompilationArtifact> read(File bundleFile) {
+        Validate.notNull(bundleFile, "Bundle file can not be null");
+        Validate.isTrue(bundleFile.isFile(), "Bundle: " + bundleFile.getName() + " doesn't lead to a file");
+        // streamed rather than mapped, a mapped file cannot be replaced on Windows until the mapping is collected
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(bundleFile.toPath()))) {
+            DataInputStream header = new DataInputStream(in);
+            if (bundleFile.length() < 8 || header.readInt() != MAGIC) {
+                throw new IllegalArgumentException("File: " + bundleFile.getName() + " is not a CloudSlang bundle");
+            }
+            int formatVersion = header.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Bundle: " + bundleFile.getName() + " has format version " +
+                        formatVersion + ", only version " + FORMAT_VERSION + " is supported");
+            }
+
+            ObjectInputStream objects = new BundleObjectInputStream(in);
+            int size = objects.readInt();
+            Map<String, CompilationArtifact> artifacts = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                ExecutionPlan executionPlan = (ExecutionPlan) objects.readObject();
+                Map<String, ExecutionPlan> dependencies = (Map<String, ExecutionPlan>) objects.readObject();
+                List<Input> inputs = (List<Input>) objects.readObject();
+                Set<String> systemProperties = (Set<String>) objects.readObject();
+                artifacts.put(executionPlan.getFlowUuid(),
+                        new CompilationArtifact(executionPlan, dependencies, inputs, systemProperties));
+            }
+            return artifacts;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new RuntimeException("There was a problem reading the bundle: " + bundleFile.getName() +
+                    ", Exception is : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bundles are handed around, so only the classes an artifact is made of can be deserialized:
+     * execution plans, CloudSlang entities, the collections the compiler builds them from and values.
+     */
+    private static class BundleObjectInputStream extends ObjectInputStream {
+
+        private static final List<String> ALLOWED_PACKAGES = Arrays.asList(
+                "io.cloudslang.score.api.",
+                "io.cloudslang.lang.entities.",
+                // the serialized forms of the immutable collections shared by the models
+                "com.google.common.collect.Immutable"
+        );
+
+        private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+                "java.lang.Object", "java.lang.String", "java.lang.Enum", "java.lang.Number",
+                "java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short",
+                "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+                "java.math.BigInteger", "java.math.BigDecimal",
+                "java.util.ArrayList", "java.util.LinkedList", "java.util.ArrayDeque", "java.util.Arrays$ArrayList",
+                "java.util.HashMap", "java.util.LinkedHashMap", "java.util.HashSet", "java.util.LinkedHashSet",
+                "java.util.Collections$EmptyList", "java.util.Collections$EmptySet", "java.util.Collections$EmptyMap",
+                "java.util.Collections$SingletonList", "java.util.Collections$SingletonSet",
+                "java.util.Collections$SingletonMap", "java.util.Collections$UnmodifiableCollection",
+                "java.util.Collections$UnmodifiableList", "java.util.Collections$UnmodifiableRandomAccessList",
+                "java.util.Collections$UnmodifiableSet", "java.util.Collections$UnmodifiableMap",
+                // the on failure navigation of a step
+                "java.util.concurrent.CopyOnWriteArrayList"
+        ));
+
+        BundleObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "is not allowed in a CloudSlang bundle");
+            }
+            return super.resolveClass(desc);
+        }
+
+        private static boolean isAllowed(String className) {
+            String elementClassName = className;
+            while (elementClassName.startsWith("[")) {
+                elementClassName = elementClassName.substring(1);
+            }
+            if (elementClassName.startsWith("L") && elementClassName.endsWith(";")) {
+                elementClassName = elementClassName.substring(1, elementClassName.length() - 1);
+            } else if (elementClassName.length() == 1 && elementClassName.length() < className.length()) {
+                // an array of primitives
+                return true;
+            }
+            if (ALLOWED_CLASSES.contains(elementClassName)) {
+                return true;
+            }
+            for (String allowedPackage : ALLOWED_PACKAGES) {
+                if (elementClassName.startsWith(allowedPackage)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -31,6 +31,7 @@ public abstract class InOutParam implements Serializable {
     private Value value;
     private Set<ScriptFunction> functionDependencies;
     private Set<String> systemPropertyDependencies;
+    private Value foldedValue;
 
     public InOutParam(
             String name,
@@ -66,6 +67,19 @@ public abstract class InOutParam implements Serializable {
         return value != null && value.isSensitive();
     }
 
+    /**
+     * @return the value of the expression, evaluated by the compiler since it does not depend on the run context,
+     * null if the value is not an expression or needs to be evaluated at runtime
+     */
+    @JsonIgnore
+    public Value getFoldedValue() {
+        return foldedValue;
+    }
+
+    public void setFoldedValue(Value foldedValue) {
+        this.foldedValue = foldedValue;
+    }
+
     public Set<ScriptFunction> getFunctionDependencies() {
         return functionDependencies;
     }
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.utils;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Evaluates expressions that do not depend on the run context, like {@code 'a' + 'b'} or {@code str(5)},
+ * so that they can be evaluated once by the compiler instead of by Python on every execution.
+ * <p>
+ * Only a small subset of Python is understood: string literals without escape sequences, decimal integer
+ * literals, {@code True}, {@code False}, {@code str(...)}, {@code +} and parentheses. Anything else,
+ * as well as any expression that Python would fail to evaluate, is not evaluated here and is left to Python.
+ */
+public final class ConstantExpressionUtils {
+
+    private static final String STR_FUNCTION = "str";
+    private static final String TRUE_LITERAL = "True";
+    private static final String FALSE_LITERAL = "False";
+
+    // keeps the integers far from overflowing, Python would switch to long
+    private static final int MAX_INTEGER_DIGITS = 9;
+
+    private ConstantExpressionUtils() {
+    }
+
+    /**
+     * @param expression the expression, without the expression delimiters
+     * @return the value of the expression: a String, Integer or Boolean,
+     * null if the expression may depend on the run context or is not understood
+     */
+    public static Serializable evaluate(String expression) {
+        if (expression == null) {
+            return null;
+        }
+        Parser parser = new Parser(expression);
+        Serializable value = parser.parseSum();
+        parser.skipWhitespace();
+        return parser.isAtEnd() ? value : null;
+    }
+
+    /**
+     * Context variables take precedence over the builtins, a value evaluated in advance is valid only
+     * if none of the builtins it relies on is hidden by a variable of the same name.
+     *
+     * @param context the variables of the evaluation context, may be null
+     * @return true if the context hides one of the builtins used by constant expressions
+     */
+    public static boolean isBuiltinHidden(Map<String, ?> context) {
+        return context != null && (context.containsKey(STR_FUNCTION) || context.containsKey(TRUE_LITERAL) ||
+                context.containsKey(FALSE_LITERAL));
+    }
+
+    private static class Parser {
+
+        private final String expression;
+        private int position;
+
+        Parser(String expression) {
+            this.expression = expression;
+        }
+
+        // sum := term ('+' term)*
+        Serializable parseSum() {
+            Serializable value = parseTerm();
+            while (value != null) {
+                skipWhitespace();
+                if (!consume('+')) {
+                    return value;
+                }
+                value = add(value, parseTerm());
+            }
+            return null;
+        }
+
+        // term := string | integer | True | False | str '(' sum ')' | '(' sum ')'
+        private Serializable parseTerm() {
+            skipWhitespace();
+            if (isAtEnd()) {
+                return null;
+            }
+            char current = expression.charAt(position);
+            if (current == '\'' || current == '"') {
+                return parseString(current);
+            }
+            if (current >= '0' && current <= '9') {
+                return parseInteger();
+            }
+            if (consume('(')) {
+                return parseClosingParenthesis(parseSum());
+            }
+            String name = parseName();
+            if (TRUE_LITERAL.equals(name)) {
+                return Boolean.TRUE;
+            }
+            if (FALSE_LITERAL.equals(name)) {
+                return Boolean.FALSE;
+            }
+            if (STR_FUNCTION.equals(name)) {
+                skipWhitespace();
+                if (consume('(')) {
+                    return str(parseClosingParenthesis(parseSum()));
+                }
+            }
+            return null;
+        }
+
+        private Serializable parseClosingParenthesis(Serializable value) {
+            skipWhitespace();
+            return value != null && consume(')') ? value : null;
+        }
+
+        private String parseString(char quote) {
+            int start = ++position;
+            while (!isAtEnd()) {
+                char current = expression.charAt(position);
+                if (current == quote) {
+                    return expression.substring(start, position++);
+                }
+                // escape sequences and non ASCII content depend on the Python version, they are left to Python
+                if (current == '\\' || current < ' ' || current > '~') {
+                    return null;
+                }
+                position++;
+            }
+            return null;
+        }
+
+        private Integer parseInteger() {
+            int start = position;
+            while (!isAtEnd() && Character.isLetterOrDigit(expression.charAt(position))) {
+                position++;
+            }
+            String digits = expression.substring(start, position);
+            // leading zeros are octal in Python 2 and invalid in Python 3, suffixes and other bases are left too
+            if (digits.length() > MAX_INTEGER_DIGITS || (digits.length() > 1 && digits.charAt(0) == '0')) {
+                return null;
+            }
+            for (int i = 0; i < digits.length(); i++) {
+                if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                    return null;
+                }
+            }
+            return Integer.valueOf(digits);
+        }
+
+        private String parseName() {
+            int start = position;
+            while (!isAtEnd() && (Character.isLetterOrDigit(expression.charAt(position)) ||
+                    expression.charAt(position) == '_')) {
+                position++;
+            }
+            return expression.substring(start, position);
+        }
+
+        private Serializable add(Serializable left, Serializable right) {
+            if (left instanceof String && right instanceof String) {
+                return (String) left + right;
+            }
+            if (left instanceof Integer && right instanceof Integer) {
+                long sum = (long) (Integer) left + (Integer) right;
+                return sum == (int) sum ? Integer.valueOf((int) sum) : null;
+            }
+            // mixed types fail in Python, and booleans are integers there
+            return null;
+        }
+
+        private String str(Serializable value) {
+            if (value instanceof Boolean) {
+                return (Boolean) value ? TRUE_LITERAL : FALSE_LITERAL;
+            }
+            return value == null ? null : value.toString();
+        }
+
+        private boolean consume(char expected) {
+            if (!isAtEnd() && expression.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void skipWhitespace() {
+            while (!isAtEnd() && (expression.charAt(position) == ' ' || expression.charAt(position) == '\t')) {
+                position++;
+            }
+        }
+
+        boolean isAtEnd() {
+            return position >= expression.length();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities;
+
+import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.score.api.ExecutionPlan;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompilationArtifactBundleTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        ExecutionPlan sharedDependency = createExecutionPlan("a.op");
+        CompilationArtifact flow1 = createArtifact("a.flow1", sharedDependency);
+        CompilationArtifact flow2 = createArtifact("a.flow2", sharedDependency);
+        File bundleFile = new File(temporaryFolder.getRoot(), "bundles/content.csb");
+
+        CompilationArtifactBundle.write(Arrays.asList(flow1, flow2), bundleFile);
+        Map<String, CompilationArtifact> artifacts = CompilationArtifactBundle.read(bundleFile);
+
+        assertEquals(Arrays.asList("a.flow1", "a.flow2"), new ArrayList<>(artifacts.keySet()));
+        CompilationArtifact loadedFlow1 = artifacts.get("a.flow1");
+        assertEquals("a.flow1", loadedFlow1.getExecutionPlan().getFlowUuid());
+        assertEquals(flow1.getInputs(), loadedFlow1.getInputs());
+        assertEquals(flow1.getSystemProperties(), loadedFlow1.getSystemProperties());
+        assertEquals(Collections.singleton("a.op"), loadedFlow1.getDependencies().keySet());
+        assertSame(loadedFlow1.getDependencies().get("a.op"), artifacts.get("a.flow2").getDependencies().get("a.op"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateExecutable() {
+        CompilationArtifact artifact = createArtifact("a.flow1", createExecutionPlan("a.op"));
+        CompilationArtifactBundle.write(Arrays.asList(artifact, artifact),
+                new File(temporaryFolder.getRoot(), "content.csb"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadNotABundle() throws Exception {
+        File file = temporaryFolder.newFile("flow.sl");
+        FileUtils.writeStringToFile(file, "namespace: a", "UTF-8");
+        CompilationArtifactBundle.read(file);
+    }
+
+    @Test
+    public void testReadOtherFormatVersion() throws Exception {
+        File file = temporaryFolder.newFile("content.csb");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(CompilationArtifactBundle.MAGIC);
+            out.writeInt(CompilationArtifactBundle.FORMAT_VERSION + 1);
+        }
+        try {
+            CompilationArtifactBundle.read(file);
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("format version " + (CompilationArtifactBundle.FORMAT_VERSION + 1)));
+            return;
+        }
+        throw new AssertionError("Bundle with another format version was read");
+    }
+
+    @Test
+    public void testReadDisallowedClass() throws Exception {
+        assertNotAllowed(new File("content.sl"), "java.io.File");
+    }
+
+    @Test
+    public void testReadDisallowedCollection() throws Exception {
+        assertNotAllowed(new TreeMap<String, String>(), "java.util.TreeMap");
+    }
+
+    @Test
+    public void testWriteOverBundleThatWasRead() throws Exception {
+        File bundleFile = new File(temporaryFolder.getRoot(), "content.csb");
+        CompilationArtifactBundle.write(Collections.singletonList(
+                createArtifact("a.flow1", createExecutionPlan("a.op"))), bundleFile);
+        CompilationArtifactBundle.read(bundleFile);
+
+        CompilationArtifactBundle.write(Collections.singletonList(
+                createArtifact("a.flow2", createExecutionPlan("a.op"))), bundleFile);
+
+        assertEquals(Collections.singleton("a.flow2"), CompilationArtifactBundle.read(bundleFile).keySet());
+    }
+
+    private void assertNotAllowed(Object object, String className) throws Exception {
+        File file = temporaryFolder.newFile("content.csb");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(CompilationArtifactBundle.MAGIC);
+            out.writeInt(CompilationArtifactBundle.FORMAT_VERSION);
+            out.flush();
+            ObjectOutputStream objects = new ObjectOutputStream(out);
+            objects.writeInt(1);
+            objects.writeObject(object);
+            objects.flush();
+        }
+        try {
+            CompilationArtifactBundle.read(file);
+        } catch (RuntimeException ex) {
+            assertTrue(ex.getCause() instanceof InvalidClassException);
+            assertTrue(ex.getMessage().contains(className));
+            return;
+        }
+        throw new AssertionError("Bundle with a class that is not allowed was read");
+    }
+
+    private CompilationArtifact createArtifact(String executableId, ExecutionPlan dependency) {
+        Map<String, ExecutionPlan> dependencies = new HashMap<>();
+        dependencies.put(dependency.getFlowUuid(), dependency);
+        List<Input> inputs = Collections.singletonList(new Input.InputBuilder("input1", "value1").build());
+        return new CompilationArtifact(createExecutionPlan(executableId), dependencies, inputs,
+                new HashSet<>(Collections.singletonList("a.property")));
+    }
+
+    private ExecutionPlan createExecutionPlan(String executableId) {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid(executableId);
+        executionPlan.setName(executableId);
+        return executionPlan;
+    }
+}
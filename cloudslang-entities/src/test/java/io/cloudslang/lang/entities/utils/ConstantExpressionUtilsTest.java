@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.utils;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static io.cloudslang.lang.entities.utils.ConstantExpressionUtils.evaluate;
+import static io.cloudslang.lang.entities.utils.ConstantExpressionUtils.isBuiltinHidden;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConstantExpressionUtilsTest {
+
+    @Test
+    public void testLiterals() {
+        assertEquals("true", evaluate("'true'"));
+        assertEquals("a b", evaluate(" \"a b\" "));
+        assertEquals(5, evaluate("5"));
+        assertEquals(0, evaluate("0"));
+        assertEquals(Boolean.TRUE, evaluate("True"));
+        assertEquals(Boolean.FALSE, evaluate("False"));
+    }
+
+    @Test
+    public void testOperators() {
+        assertEquals("ab", evaluate("'a' + 'b'"));
+        assertEquals("abc", evaluate("'a'+\"b\"+'c'"));
+        assertEquals(3, evaluate("1 + 2"));
+        assertEquals("5", evaluate("str(5)"));
+        assertEquals("3", evaluate("str (1 + 2)"));
+        assertEquals("True", evaluate("str(True)"));
+        assertEquals("ab", evaluate("str(('a' + 'b'))"));
+    }
+
+    @Test
+    public void testContextDependentExpressions() {
+        assertNull(evaluate("x"));
+        assertNull(evaluate("true"));
+        assertNull(evaluate("str(x)"));
+        assertNull(evaluate("'a' + x"));
+        assertNull(evaluate("get_sp('a.b')"));
+        assertNull(evaluate("'a'.upper()"));
+    }
+
+    @Test
+    public void testExpressionsLeftToPython() {
+        assertNull(evaluate(null));
+        assertNull(evaluate(""));
+        assertNull(evaluate("'a' + 1"));
+        assertNull(evaluate("True + 1"));
+        assertNull(evaluate("'a' 'b'"));
+        assertNull(evaluate("'\\n'"));
+        assertNull(evaluate("'\u00e9'"));
+        assertNull(evaluate("05"));
+        assertNull(evaluate("1.5"));
+        assertNull(evaluate("0x1F"));
+        assertNull(evaluate("2147483647 + 1"));
+        assertNull(evaluate("None"));
+        assertNull(evaluate("'a' +"));
+        assertNull(evaluate("'unterminated"));
+        assertNull(evaluate("str(5"));
+    }
+
+    @Test
+    public void testBuiltinHidden() {
+        assertFalse(isBuiltinHidden(null));
+        assertFalse(isBuiltinHidden(Collections.singletonMap("x", "a")));
+        assertTrue(isBuiltinHidden(Collections.singletonMap("str", "a")));
+        assertTrue(isBuiltinHidden(Collections.singletonMap("True", "a")));
+    }
+}
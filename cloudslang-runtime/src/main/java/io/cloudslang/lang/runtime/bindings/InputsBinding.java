@@ -24,6 +24,7 @@ import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.prompt.Prompt;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.utils.ConstantExpressionUtils;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 
@@ -178,8 +179,13 @@ public class InputsBinding extends AbstractBinding {
                 }
                 //so you can resolve previous inputs already bound
                 scriptContext.putAll(targetContext);
-                value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties,
-                        input.getFunctionDependencies());
+                if (input.getFoldedValue() != null && !ConstantExpressionUtils.isBuiltinHidden(scriptContext)) {
+                    //the expression does not depend on the context, the compiler already evaluated it
+                    value = input.getFoldedValue();
+                } else {
+                    value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties,
+                            input.getFunctionDependencies());
+                }
                 value = ValueFactory.create(value, sensitive);
             } else if ((value == null && rawValue != null) ||
                     (containsEmptyStringOrNull(value) && doesNotContainNull(rawValue))) {
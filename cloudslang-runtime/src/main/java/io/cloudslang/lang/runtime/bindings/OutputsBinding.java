@@ -13,6 +13,7 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.utils.ConstantExpressionUtils;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.steps.ReadOnlyContextAccessor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,8 +57,14 @@ public class OutputsBinding extends AbstractBinding {
                     context.put(outputKey, context.get(outputKey));
                     try {
                         //evaluate expression
-                        Value value = scriptEvaluator.evalExpr(expressionToEvaluate, context,
-                                systemProperties, output.getFunctionDependencies());
+                        Value value;
+                        if (output.getFoldedValue() != null && !ConstantExpressionUtils.isBuiltinHidden(context)) {
+                            //the expression does not depend on the context, the compiler already evaluated it
+                            value = output.getFoldedValue();
+                        } else {
+                            value = scriptEvaluator.evalExpr(expressionToEvaluate, context,
+                                    systemProperties, output.getFunctionDependencies());
+                        }
                         valueToAssign = ValueFactory.create(value, rawValue != null && rawValue.isSensitive());
                     } catch (Throwable t) {
                         throw new RuntimeException(errorMessagePrefix + "',\n\t" + t.getMessage(), t);
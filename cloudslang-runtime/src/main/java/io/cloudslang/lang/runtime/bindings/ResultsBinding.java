@@ -15,6 +15,7 @@ import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.utils.ConstantExpressionUtils;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.entities.utils.MapUtils;
 import io.cloudslang.lang.entities.utils.ResultUtils;
@@ -98,11 +99,17 @@ public class ResultsBinding {
                                     " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
                 }
 
-                Map<String, Value> scriptContext = MapUtils.mergeMaps(inputs, context);
-
                 try {
-                    Value expressionResult = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties,
-                            result.getFunctionDependencies());
+                    Value expressionResult;
+                    if (result.getFoldedValue() != null && !ConstantExpressionUtils.isBuiltinHidden(inputs) &&
+                            !ConstantExpressionUtils.isBuiltinHidden(context)) {
+                        //the expression does not depend on the context, the compiler already evaluated it
+                        expressionResult = result.getFoldedValue();
+                    } else {
+                        Map<String, Value> scriptContext = MapUtils.mergeMaps(inputs, context);
+                        expressionResult = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties,
+                                result.getFunctionDependencies());
+                    }
                     Boolean evaluatedResult;
                     if (expressionResult.get() instanceof Integer) {
                         evaluatedResult = (Integer) expressionResult.get() != 0;
@@ -199,6 +199,34 @@ public class OutputsBindingTest {
         Assert.assertEquals("Binding results are not as expected", expectedOutputs, result);
     }
 
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testOperationOutputsFoldedValue() {
+        Map<String, Value> operationContext = prepareOperationContext();
+        Map<String, Value> actionReturnValues = prepareActionReturnValues();
+        Output output = createExpressionOutput("folded", "${ 'a' + 'b' }");
+        // differs from the expression on purpose, to tell whether the expression was evaluated
+        output.setFoldedValue(ValueFactory.create("folded value"));
+
+        Map<String, Value> result = outputsBinding.bindOutputs(
+                new ReadOnlyContextAccessor(operationContext, actionReturnValues), EMPTY_SET, singletonList(output));
+
+        Assert.assertEquals(ValueFactory.create("folded value"), result.get("folded"));
+    }
+
+    @Test(timeout = DEFAULT_TIMEOUT)
+    public void testOperationOutputsFoldedValueHiddenBuiltin() {
+        Map<String, Value> operationContext = prepareOperationContext();
+        operationContext.put("str", ValueFactory.create("not a function"));
+        Map<String, Value> actionReturnValues = prepareActionReturnValues();
+        Output output = createExpressionOutput("folded", "${ 'a' + 'b' }");
+        output.setFoldedValue(ValueFactory.create("folded value"));
+
+        Map<String, Value> result = outputsBinding.bindOutputs(
+                new ReadOnlyContextAccessor(operationContext, actionReturnValues), EMPTY_SET, singletonList(output));
+
+        Assert.assertEquals(ValueFactory.create("ab"), result.get("folded"));
+    }
+
     private Map<String, Value> prepareOperationContext() {
         Map<String, Value> operationContext = new HashMap<>();
         operationContext.put("operationContextKey1", ValueFactory.create("opContextValue1"));